@@ -0,0 +1,131 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void testCsv() throws InterruptedException {
+
+        StringWriter output = new StringWriter();
+        SimulationRunner runner = new SimulationRunner(2);
+        BatchRunner batch = new BatchRunner(runner, 1, BatchRunner.Format.CSV, output);
+        batch.run(20, 0, 7);
+
+        String[] lines = output.toString().split("\\R");
+        assertEquals("game,seed,won,foundations,moves,time_us", lines[0]);
+        assertEquals(21, lines.length);
+
+        //Every game is written once with its own seed, and the wins add up to the runner's count
+        boolean[] written = new boolean[20];
+        int wins = 0;
+        for (int i = 1; i < lines.length; i++) {
+
+            String[] fields = lines[i].split(",");
+            int game = Integer.parseInt(fields[0]);
+            assertFalse(written[game]);
+            written[game] = true;
+            assertEquals(7 + game, Long.parseLong(fields[1]));
+            if (Boolean.parseBoolean(fields[2])) {
+                wins++;
+                assertEquals("8", fields[3]);
+            }
+        }
+        assertEquals(20, batch.getGamesPlayed());
+        assertEquals(runner.getWinCount(), wins);
+        assertEquals(wins, batch.getWins());
+    }
+
+    @Test
+    public void testJsonl() throws InterruptedException {
+
+        StringWriter output = new StringWriter();
+        BatchRunner batch = new BatchRunner(new SimulationRunner(1), 1, BatchRunner.Format.JSONL, output);
+        batch.run(3, 0, 7);
+
+        String[] lines = output.toString().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].matches("\\{\"game\":0,\"seed\":7,\"won\":(true|false),\"foundations\":\\d," +
+                "\"moves\":\\d+,\"time_us\":\\d+}"));
+    }
+
+    @Test
+    public void testFlushedEveryGame() throws InterruptedException {
+
+        //Every line that is flushed is kept, so a line that is only written out at the end of the run is missed
+        StringBuilder flushed = new StringBuilder();
+        StringWriter output = new StringWriter() {
+
+            @Override
+            public void flush() {
+
+                flushed.append(getBuffer());
+                getBuffer().setLength(0);
+            }
+        };
+        SimulationRunner runner = new SimulationRunner(1);
+        BatchRunner batch = new BatchRunner(runner, 1, BatchRunner.Format.JSONL, output) {
+
+            @Override
+            public synchronized void gameFinished(int game, SpiderSolitaire played, boolean won, long time) {
+
+                super.gameFinished(game, played, won, time);
+                assertEquals(game + 1, flushed.toString().split("\\R").length);
+            }
+        };
+        batch.run(5, 0, 7);
+        assertEquals(5, flushed.toString().split("\\R").length);
+    }
+
+    @Test
+    public void testSeededPlayerRepeats() throws InterruptedException {
+
+        //The sampling player shuffles its samples at random, so it only repeats a run if it is seeded by the runner
+        String[] first = playSampled();
+        String[] second = playSampled();
+        assertEquals(first.length, second.length);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], second[i]);
+        }
+    }
+
+    private static String[] playSampled() throws InterruptedException {
+
+        StringWriter output = new StringWriter();
+        SimulationRunner runner = new SimulationRunner(2);
+        runner.setPlayer(SimulationRunner.player("sampling"));
+        new BatchRunner(runner, 2, BatchRunner.Format.CSV, output).run(4, 0, 5);
+
+        //The games are kept in the order of their numbers and without the time each took to play
+        String[] lines = output.toString().split("\\R");
+        String[] games = new String[lines.length - 1];
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i];
+            games[Integer.parseInt(line.substring(0, line.indexOf(',')))] = line.substring(0, line.lastIndexOf(','));
+        }
+        return games;
+    }
+
+    @Test
+    public void testTimeBudget() throws InterruptedException {
+
+        StringWriter output = new StringWriter();
+        BatchRunner batch = new BatchRunner(new SimulationRunner(1), 1, BatchRunner.Format.CSV, output);
+        batch.run(40, 1, 7);
+
+        //A batch that has been started is always finished, and the amount of games is still kept to
+        assertTrue(batch.getGamesPlayed() >= 16);
+        assertTrue(batch.getGamesPlayed() <= 40);
+        assertEquals(batch.getGamesPlayed() + 1, output.toString().split("\\R").length);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNoLimit() throws InterruptedException {
+
+        new BatchRunner(new SimulationRunner(1), 1, BatchRunner.Format.CSV, new StringWriter()).run(0, 0, 7);
+    }
+}
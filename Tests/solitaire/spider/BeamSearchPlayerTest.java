@@ -0,0 +1,55 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BeamSearchPlayerTest {
+
+    private SpiderSolitaire game;
+
+
+    @Before
+    public void setUp() {
+
+        game = new SpiderSolitaire();
+        game.setSuitMode(1);
+    }
+
+    @Test
+    public void testWinsNearlyFinishedGame() {
+
+        TestBoards.nearlyWon(game.getBoard(), 1);
+
+        assertTrue(new BeamSearchPlayer(game, 2, 2).playGame());
+        assertEquals(2, game.getMoveLog().size());
+    }
+
+    @Test
+    public void testSeededGamesRepeat() {
+
+        BeamSearchPlayer player = new BeamSearchPlayer(game, 4, 2);
+
+        game.dealGame(11);
+        boolean won = player.playGame();
+        MoveLog first = game.getMoveLog();
+        int[] moves = new int[first.size()];
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = first.pop();
+        }
+
+        game.dealGame(11);
+        assertEquals(won, player.playGame());
+        assertEquals(moves.length, game.getMoveLog().size());
+        for (int i = moves.length - 1; i >= 0; i--) {
+            assertEquals(moves[i], game.getMoveLog().pop());
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidWidth() {
+
+        new BeamSearchPlayer(game, 0, 3);
+    }
+}
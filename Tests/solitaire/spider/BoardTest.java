@@ -0,0 +1,330 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.Stack;
+import static org.junit.Assert.*;
+
+public class BoardTest {
+
+    private Board board;
+    private byte[] deck;
+
+
+    @Before
+    public void setUp() {
+
+        board = new Board();
+        deck = new byte[Board.DECK_SIZE];
+
+        //An unshuffled one suit deck of eight runs from Ace to King
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = Board.card(i % 13 + 1, 0, false);
+        }
+    }
+
+    @Test
+    public void testCardEncoding() {
+
+        byte card = Board.card(12, 3, true);
+
+        assertEquals(12, Board.rank(card));
+        assertEquals(3, Board.suit(card));
+        assertTrue(Board.isFaceUp(card));
+        assertFalse(Board.isFaceUp(Board.faceDown(card)));
+        assertEquals(card, Card.valueOf(card).getCode());
+    }
+
+    @Test
+    public void testDeal() {
+
+        board.deal(deck);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(6, board.size(i));
+        }
+        for (int i = 4; i < 10; i++) {
+            assertEquals(5, board.size(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(Board.isFaceUp(board.top(i)));
+            assertFalse(Board.isFaceUp(board.cardAt(i, 0)));
+        }
+        assertEquals(5, board.getStockCount());
+        assertEquals(0, board.getFoundationCount());
+    }
+
+    @Test
+    public void testSeededDeal() {
+
+        SpiderSolitaire.fillDeck(deck, 4);
+        SpiderSolitaire.shuffleDeck(deck, 42);
+        board.deal(deck);
+
+        byte[] otherDeck = new byte[Board.DECK_SIZE];
+        SpiderSolitaire.fillDeck(otherDeck, 4);
+        SpiderSolitaire.shuffleDeck(otherDeck, 42);
+        Board other = new Board();
+        other.deal(otherDeck);
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < board.size(i); j++) {
+                assertEquals(board.cardAt(i, j), other.cardAt(i, j));
+            }
+        }
+
+        //Every card of the two packs is still there once shuffled
+        int[] suitCounts = new int[4];
+        for (byte card : deck) {
+            suitCounts[Board.suit(card)]++;
+        }
+        for (int count : suitCounts) {
+            assertEquals(26, count);
+        }
+    }
+
+    @Test
+    public void testListShuffleMatchesDeal() {
+
+        //The cards of a deck from createDeck() are shuffled into the same order as the cards of a dealt game
+        ArrayList<Card> cards = new SpiderSolitaire().createDeck(4);
+        Stack<Card> shuffled = SpiderSolitaire.shuffleDeck(cards, 7);
+        SpiderSolitaire.fillDeck(deck, 4);
+        SpiderSolitaire.shuffleDeck(deck, 7);
+
+        assertEquals(deck.length, shuffled.size());
+        for (int i = 0; i < deck.length; i++) {
+            Card card = shuffled.get(i);
+            assertEquals(Board.card(card.getRank(), Card.suitIndex(card.getSuit()), false), deck[i]);
+        }
+    }
+
+    @Test
+    public void testDealStock() {
+
+        board.deal(deck);
+        assertTrue(board.canDealStock());
+
+        board.dealStock();
+
+        assertEquals(4, board.getStockCount());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(Board.isFaceUp(board.top(i)));
+        }
+        assertEquals(7, board.size(0));
+        assertEquals(6, board.size(9));
+    }
+
+    @Test
+    public void testCannotDealStockWithEmptyColumn() {
+
+        board.deal(deck);
+        while (!board.isEmpty(9)) {
+            board.pop(9);
+        }
+
+        assertFalse(board.canDealStock());
+    }
+
+    @Test
+    public void testMoveCards() {
+
+        board.push(0, Board.card(9, 1, true));
+        board.push(0, Board.card(8, 1, true));
+        board.push(0, Board.card(7, 1, true));
+        board.push(1, Board.card(10, 2, true));
+
+        assertTrue(board.canRemoveCards(0, 3));
+        assertTrue(board.canAddCards(0, 3, 1));
+        assertFalse(board.canAddCards(0, 2, 1));
+
+        board.moveCards(0, 3, 1);
+
+        assertTrue(board.isEmpty(0));
+        assertEquals(4, board.size(1));
+        assertEquals(7, Board.rank(board.top(1)));
+    }
+
+    @Test
+    public void testCannotRemoveMixedSuits() {
+
+        board.push(0, Board.card(9, 1, true));
+        board.push(0, Board.card(8, 2, true));
+
+        assertTrue(board.canRemoveCards(0, 1));
+        assertFalse(board.canRemoveCards(0, 2));
+        assertFalse(board.canRemoveCards(0, 3));
+    }
+
+    @Test
+    public void testAddToFoundation() {
+
+        board.push(0, Board.card(5, 0, false));
+        for (int rank = 13; rank >= 1; rank--) {
+            board.push(0, Board.card(rank, 2, true));
+        }
+
+        assertTrue(board.canAddToFoundation(0));
+        board.addToFoundation(0);
+
+        assertEquals(1, board.size(0));
+        assertEquals(1, board.getFoundationCount());
+        assertEquals(2, board.getFoundationSuit(0));
+    }
+
+    @Test
+    public void testCopy() {
+
+        board.deal(deck);
+        Board copy = board.copy();
+        copy.dealStock();
+
+        assertEquals(5, board.getStockCount());
+        assertEquals(4, copy.getStockCount());
+
+        board.copyFrom(copy);
+        assertEquals(4, board.getStockCount());
+        assertEquals(copy.top(3), board.top(3));
+    }
+
+    @Test
+    public void testColumnCounts() {
+
+        board.push(0, Board.card(11, 1, false));
+        board.push(0, Board.card(10, 2, false));
+        board.push(0, Board.card(9, 1, true));
+        board.push(0, Board.card(8, 2, true));
+        board.push(0, Board.card(7, 2, true));
+        board.push(0, Board.card(6, 2, true));
+
+        assertEquals(2, board.countFaceDown(0));
+        assertEquals(4, board.countFaceUp(0));
+        assertEquals(3, board.sequenceLength(0));
+        assertEquals(4, board.orderLength(0));
+        assertEquals(2, board.countSequences(0));
+        assertEquals(1, board.sequenceLength(0, 2));
+
+        board.moveCards(0, 3, 1);
+
+        assertEquals(1, board.sequenceLength(0));
+        assertEquals(1, board.countSequences(0));
+        assertEquals(3, board.sequenceLength(1));
+        assertEquals(3, board.orderLength(1));
+        assertEquals(1, board.countSequences(1));
+
+        board.pop(0);
+        assertEquals(0, board.countSequences(0));
+        assertTrue(board.turnUp(0));
+        assertEquals(1, board.countFaceDown(0));
+        assertEquals(1, board.countSequences(0));
+    }
+
+    @Test
+    public void testUndoMove() {
+
+        board.push(0, Board.card(4, 1, false));
+        board.push(0, Board.card(9, 1, true));
+        board.push(0, Board.card(8, 1, true));
+        board.push(1, Board.card(10, 2, true));
+        Board before = board.copy();
+
+        int move = board.applyMove(Move.move(0, 1, 2));
+
+        assertTrue(Move.hasFlag(move, Move.TURNED_ORIGIN));
+        assertFalse(Move.hasFlag(move, Move.FOUNDATION));
+        assertTrue(Board.isFaceUp(board.top(0)));
+        assertEquals(3, board.size(1));
+
+        board.undoMove(move);
+        assertEquals(before, board);
+    }
+
+    @Test
+    public void testUndoFoundation() {
+
+        board.push(0, Board.card(6, 0, false));
+        for (int rank = 13; rank >= 2; rank--) {
+            board.push(0, Board.card(rank, 2, true));
+        }
+        board.push(1, Board.card(1, 2, true));
+        Board before = board.copy();
+
+        int move = board.applyMove(Move.move(1, 0, 1));
+
+        assertTrue(Move.hasFlag(move, Move.FOUNDATION));
+        assertTrue(Move.hasFlag(move, Move.TURNED_DESTINATION));
+        assertEquals(1, board.getFoundationCount());
+        assertEquals(1, board.size(0));
+        assertTrue(board.isEmpty(1));
+
+        board.undoMove(move);
+        assertEquals(before, board);
+    }
+
+    @Test
+    public void testUndoDeal() {
+
+        board.deal(deck);
+        Board before = board.copy();
+        MoveLog log = new MoveLog(1);
+
+        log.push(board.applyMove(Move.deal()));
+        log.push(board.applyMove(Move.deal()));
+        assertEquals(3, board.getStockCount());
+
+        while (!log.isEmpty()) {
+            board.undoMove(log.pop());
+        }
+        assertEquals(before, board);
+    }
+
+    @Test
+    public void testHash() {
+
+        board.deal(deck);
+        long dealtHash = board.getHash();
+        assertEquals(board.computeHash(), dealtHash);
+
+        int move = board.applyMove(Move.deal());
+        assertNotEquals(dealtHash, board.getHash());
+        assertEquals(board.computeHash(), board.getHash());
+
+        board.undoMove(move);
+        assertEquals(dealtHash, board.getHash());
+        assertEquals(dealtHash, board.copy().getHash());
+    }
+
+    @Test
+    public void testReplaceHiddenCards() {
+
+        board.deal(deck);
+        board.applyMove(Move.deal());
+        Board before = board.copy();
+
+        byte[] hidden = new byte[board.countHidden()];
+        for (int i = 0; i < hidden.length; i++) {
+            hidden[i] = Board.card(13 - i % 13, 1, false);
+        }
+        board.replaceHiddenCards(hidden);
+
+        assertEquals(before.countHidden(), board.countHidden());
+        assertEquals(board.computeHash(), board.getHash());
+        for (int i = 0; i < 10; i++) {
+
+            assertEquals(before.top(i), board.top(i));
+            assertEquals(before.countFaceDown(i), board.countFaceDown(i));
+            assertEquals(before.countSequences(i), board.countSequences(i));
+        }
+        assertEquals(Board.card(13, 1, false), board.cardAt(0, 0));
+        assertEquals(Board.faceDown(hidden[hidden.length - 1]), board.stockCardAt(3, Board.STOCK_PILE_SIZE - 1));
+    }
+
+    @Test (expected = EmptyStackException.class)
+    public void testPopEmpty() {
+
+        board.pop(0);
+    }
+}
@@ -0,0 +1,96 @@
+package solitaire.spider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CardImagesTest {
+
+    private static CardImages images;
+
+    @BeforeClass
+    public static void setUp() {
+
+        images = CardImages.load();
+    }
+
+    @Test
+    public void everyFaceHasItsOwnImage() {
+
+        Set<Image> faces = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int suit = 0; suit < Card.SUITS.length; suit++) {
+            for (int rank = 1; rank <= 13; rank++) {
+
+                Image face = images.get(Board.card(rank, suit, true));
+                assertEquals(73, face.getWidth(null));
+                assertEquals(97, face.getHeight(null));
+                assertNotSame(images.getBack(), face);
+                faces.add(face);
+            }
+        }
+        assertEquals(52, faces.size());
+    }
+
+    @Test
+    public void faceDownCardsShowTheBack() {
+
+        for (int suit = 0; suit < Card.SUITS.length; suit++) {
+            for (int rank = 1; rank <= 13; rank++) {
+
+                assertSame(images.getBack(), images.get(Board.card(rank, suit, false)));
+            }
+        }
+    }
+
+    @Test
+    public void cardsAreFoundByTheirCode() {
+
+        Card card = new Card(11, "c");
+        assertSame(images.getBack(), images.get(card.getCode()));
+        card.turnUp();
+        assertSame(images.get(Board.card(11, Card.suitIndex("c"), true)), images.get(card.getCode()));
+        assertSame(images.get(card.getCode()), images.get(Card.valueOf(card.getCode()).getCode()));
+    }
+
+    @Test
+    public void drawingMatchesTheImage() {
+
+        for (byte card : new byte[] {Board.card(1, 0, true), Board.card(13, 3, true), Board.card(7, 1, false)}) {
+
+            BufferedImage expected = table();
+            expected.getGraphics().drawImage(images.get(card), 2, 3, null);
+            BufferedImage drawn = table();
+            images.draw(drawn.getGraphics(), card, 2, 3);
+
+            for (int y = 0; y < drawn.getHeight(); y++) {
+                for (int x = 0; x < drawn.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), drawn.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    private static BufferedImage table() {
+
+        BufferedImage table = new BufferedImage(80, 104, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = table.getGraphics();
+        graphics.setColor(Color.GREEN);
+        graphics.fillRect(0, 0, table.getWidth(), table.getHeight());
+        return table;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCard() {
+
+        images.get((byte) 0);
+    }
+}
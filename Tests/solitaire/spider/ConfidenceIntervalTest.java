@@ -0,0 +1,80 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConfidenceIntervalTest {
+
+    @Test
+    public void testWinRate() {
+
+        ConfidenceInterval interval = ConfidenceInterval.winRate(50, 100, ConfidenceInterval.Z_95);
+
+        assertEquals(0.5, interval.getEstimate(), 1e-9);
+        assertEquals(0.4038, interval.getLower(), 1e-4);
+        assertEquals(0.5962, interval.getUpper(), 1e-4);
+    }
+
+    @Test
+    public void testWinRateStaysInRange() {
+
+        ConfidenceInterval none = ConfidenceInterval.winRate(0, 20, ConfidenceInterval.Z_95);
+        ConfidenceInterval all = ConfidenceInterval.winRate(20, 20, ConfidenceInterval.Z_95);
+
+        assertEquals(0, none.getLower(), 1e-9);
+        assertTrue(none.getUpper() > 0.1);
+        assertEquals(1, all.getUpper(), 1e-9);
+        assertTrue(all.getLower() < 0.9);
+    }
+
+    @Test
+    public void testPairedDifference() {
+
+        boolean[] first = {true, true, true, false, true, false};
+        boolean[] second = {true, false, true, false, true, false};
+        ConfidenceInterval difference = ConfidenceInterval.pairedDifference(first, second, ConfidenceInterval.Z_95);
+
+        assertEquals(1.0 / 6, difference.getEstimate(), 1e-9);
+        assertTrue(difference.contains(0));
+
+        //Games both players won or both lost still leave room for a difference
+        ConfidenceInterval same = ConfidenceInterval.pairedDifference(first, first, ConfidenceInterval.Z_95);
+        assertEquals(0, same.getEstimate(), 1e-9);
+        assertTrue(same.getWidth() > 0);
+        assertTrue(same.contains(0));
+    }
+
+    @Test
+    public void testClearDifference() {
+
+        boolean[] first = new boolean[200];
+        boolean[] second = new boolean[200];
+        for (int i = 0; i < 60; i++) {
+            first[i] = true;
+        }
+        for (int i = 0; i < 20; i++) {
+            second[i] = true;
+        }
+
+        ConfidenceInterval difference = ConfidenceInterval.pairedDifference(first, second, ConfidenceInterval.Z_95);
+        assertEquals(0.2, difference.getEstimate(), 1e-9);
+        assertFalse(difference.contains(0));
+        assertTrue(ConfidenceInterval.pairedDifference(first, second, 20, ConfidenceInterval.Z_95).contains(0));
+    }
+
+    @Test
+    public void testZ() {
+
+        assertEquals(ConfidenceInterval.Z_95, ConfidenceInterval.z(0.95), 1e-8);
+        assertEquals(2.575829, ConfidenceInterval.z(0.99), 1e-6);
+        assertEquals(0.674490, ConfidenceInterval.z(0.5), 1e-6);
+        assertEquals(3.290527, ConfidenceInterval.z(0.999), 1e-6);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDifferentDealCounts() {
+
+        ConfidenceInterval.pairedDifference(new boolean[3], new boolean[4], ConfidenceInterval.Z_95);
+    }
+}
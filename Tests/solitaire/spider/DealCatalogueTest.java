@@ -0,0 +1,68 @@
+package solitaire.spider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import static org.junit.Assert.*;
+
+public class DealCatalogueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+
+        Path file = folder.newFile("deals.bin").toPath();
+        DealCatalogue.write(file, 2, 100, 5000);
+        DealCatalogue catalogue = DealCatalogue.open(file);
+
+        assertEquals(2, catalogue.getSuitMode());
+        assertEquals(100, catalogue.getFirstDeal());
+        assertEquals(5000, catalogue.size());
+
+        //The deck read from the file is the same as shuffling the deal again
+        int index = catalogue.indexOf(4321);
+        byte[] deck = new byte[Board.DECK_SIZE];
+        byte[] shuffledDeck = new byte[Board.DECK_SIZE];
+        catalogue.readDeck(index, deck);
+        SpiderSolitaire.fillDeck(shuffledDeck, 2);
+        SpiderSolitaire.shuffleDeck(shuffledDeck, DealCatalogue.dealSeed(2, 4321));
+
+        assertEquals(DealCatalogue.dealSeed(2, 4321), catalogue.getSeed(index));
+        assertArrayEquals(shuffledDeck, deck);
+    }
+
+    @Test
+    public void testNumberedGame() throws IOException {
+
+        Path file = folder.newFile("deals.bin").toPath();
+        DealCatalogue.write(file, 4, 1, 10);
+        DealCatalogue catalogue = DealCatalogue.open(file);
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(4);
+        game.dealNumberedGame(7);
+        Board board = game.getBoard().copy();
+        game.dealGame(catalogue, catalogue.indexOf(7));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(board.size(i), game.getBoard().size(i));
+            assertEquals(board.top(i), game.getBoard().top(i));
+        }
+        assertEquals(DealCatalogue.dealSeed(4, 7), game.getSeed());
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testDealNotInCatalogue() throws IOException {
+
+        Path file = folder.newFile("deals.bin").toPath();
+        DealCatalogue.write(file, 1, 1, 10);
+
+        DealCatalogue.open(file).indexOf(11);
+    }
+}
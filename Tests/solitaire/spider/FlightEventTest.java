@@ -0,0 +1,82 @@
+package solitaire.spider;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FlightEventTest {
+
+    @Test
+    public void testEventsAreOffByDefault() {
+
+        assertFalse(new GameEvent().isEnabled());
+        assertFalse(new MoveEvent().isEnabled());
+        assertFalse(new DealEvent().isEnabled());
+    }
+
+    @Test
+    public void testRecordedRun() throws Exception {
+
+        Path file = Files.createTempFile("spider", ".jfr");
+        StringWriter results = new StringWriter();
+        BatchRunner batch = new BatchRunner(new SimulationRunner(1), 1, BatchRunner.Format.CSV, results);
+
+        Recording recording = BatchRunner.startRecording(file.toString());
+        try {
+            batch.run(3, 0, 7);
+        }
+        finally {
+            recording.stop();
+            recording.close();
+        }
+
+        int games = 0;
+        int wins = 0;
+        int moves = 0;
+        int deals = 0;
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            for (RecordedEvent event : events) {
+
+                switch (event.getEventType().getName()) {
+
+                    case "solitaire.spider.Game":
+                        games++;
+                        assertEquals(1, event.getInt("suitMode"));
+                        assertTrue(event.getLong("seed") >= 7 && event.getLong("seed") < 10);
+                        if (event.getBoolean("won")) {
+                            wins++;
+                            assertEquals(8, event.getInt("foundations"));
+                        }
+                        break;
+
+                    case "solitaire.spider.Move":
+                        moves++;
+                        assertNotNull(event.getString("heuristic"));
+                        break;
+
+                    case "solitaire.spider.Deal":
+                        deals++;
+                        assertTrue(event.getInt("stockLeft") >= 0);
+                        break;
+                }
+            }
+        }
+        finally {
+            Files.delete(file);
+        }
+
+        assertEquals(3, games);
+        assertEquals(batch.getWins(), wins);
+        assertTrue(moves > 0);
+        assertTrue(deals > 0);
+    }
+}
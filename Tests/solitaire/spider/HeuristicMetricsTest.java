@@ -0,0 +1,97 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class HeuristicMetricsTest {
+
+    @Test
+    public void testGamesAreRecorded() throws Exception {
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(2);
+        SortingAlgorithm algorithm = game.getSortingAlgorithm();
+        game.dealGame(7);
+        algorithm.playGame();
+
+        HeuristicMetrics marriage = HeuristicMetrics.get(2, Heuristic.MARRIAGE.getName());
+        long invocations = marriage.getInvocations();
+        long moves = marriage.getMoves();
+
+        //The metrics of the pipeline and of a single game add up
+        algorithm.getPipeline().resetStatistics();
+        game.dealGame(8);
+        algorithm.playGame();
+        StrategyPipeline pipeline = algorithm.getPipeline();
+        assertEquals(pipeline.getCalls(Heuristic.MARRIAGE), marriage.getInvocations() - invocations);
+        assertTrue(marriage.getMoves() > moves);
+        assertTrue(marriage.getSuccesses() <= marriage.getInvocations());
+        assertTrue(HeuristicMetrics.get(2, HeuristicMetrics.RETAIN_CARDS).getInvocations() > 0);
+        assertTrue(HeuristicMetrics.getAll().contains(marriage));
+
+        //The metrics can be read through JMX
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("solitaire.spider:type=HeuristicMetrics,suits=2,name=" +
+                ObjectName.quote(Heuristic.MARRIAGE.getName()));
+        assertEquals(marriage.getInvocations(), server.getAttribute(name, "Invocations"));
+    }
+
+    @Test
+    public void testNestedCallIsRecordedApart() throws InterruptedException {
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(4);
+        TestBoards.nearlyWon(game.getBoard(), 4);
+        SortingAlgorithm algorithm = game.getSortingAlgorithm();
+        MoveStrategy outer = new MoveStrategy() {
+
+            @Override
+            public String getName() {
+
+                return "Nested Outer";
+            }
+
+            @Override
+            public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+
+                return algorithm.getPipeline().applyNested(Heuristic.MARRIAGE, algorithm);
+            }
+        };
+        algorithm.setPipeline(new StrategyPipeline(outer));
+        HeuristicMetrics marriage = HeuristicMetrics.get(4, Heuristic.MARRIAGE.getName());
+        long invocations = marriage.getInvocations();
+        long moves = marriage.getMoves();
+
+        //The last run is put together by the marriage, so its moves are the marriage's and not the caller's
+        assertTrue(algorithm.getPipeline().apply(algorithm));
+        HeuristicMetrics nested = HeuristicMetrics.get(4, outer.getName());
+        assertEquals(1, nested.getInvocations());
+        assertEquals(1, nested.getSuccesses());
+        assertEquals(0, nested.getMoves());
+        assertEquals(invocations + 1, marriage.getInvocations());
+        assertTrue(marriage.getMoves() > moves);
+    }
+
+    @Test
+    public void testUnsetSuitModeIsNotRecorded() {
+
+        assertNull(HeuristicMetrics.get(0, Heuristic.MARRIAGE.getName()));
+    }
+
+    @Test
+    public void testDisabled() {
+
+        HeuristicMetrics.setEnabled(false);
+        try {
+            assertNull(HeuristicMetrics.get(1, Heuristic.MARRIAGE.getName()));
+        }
+        finally {
+            HeuristicMetrics.setEnabled(true);
+        }
+    }
+}
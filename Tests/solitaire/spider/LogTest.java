@@ -0,0 +1,93 @@
+package solitaire.spider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+public class LogTest {
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private Log.Level level;
+
+    @Before
+    public void setUp() {
+
+        level = Log.getLevel();
+        Log.setOutput(new PrintStream(written, true));
+    }
+
+    @After
+    public void tearDown() {
+
+        Log.setLevel(level);
+        Log.setOutput(System.out);
+    }
+
+    @Test
+    public void testLevels() {
+
+        Log.setLevel(Log.Level.INFO);
+
+        assertTrue(Log.isEnabled(Log.Level.WARN));
+        assertTrue(Log.isEnabled(Log.Level.INFO));
+        assertFalse(Log.isEnabled(Log.Level.DEBUG));
+        assertFalse(Log.isEnabled(Log.Level.OFF));
+
+        Log.log(Log.Level.DEBUG, "Hidden");
+        Log.log(Log.Level.INFO, "Shown");
+        assertEquals("Shown" + System.lineSeparator(), written.toString());
+    }
+
+    @Test
+    public void testParse() {
+
+        assertEquals(Log.Level.TRACE, Log.parse(" trace", Log.Level.INFO));
+        assertEquals(Log.Level.INFO, Log.parse(null, Log.Level.INFO));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testParseUnknownLevel() {
+
+        Log.parse("loud", Log.Level.INFO);
+    }
+
+    @Test
+    public void testUntracedGameIsSilent() throws InterruptedException {
+
+        Log.setLevel(Log.Level.WARN);
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(1);
+        game.dealGame(7);
+        game.getSortingAlgorithm().playGame();
+
+        assertEquals(0, written.size());
+    }
+
+    @Test
+    public void testTracedGame() throws InterruptedException {
+
+        Log.setLevel(Log.Level.OFF);
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(1);
+        game.setTraced(true);
+        game.dealGame(7);
+        boolean won = game.getSortingAlgorithm().playGame();
+
+        String trace = written.toString();
+        assertTrue(trace.contains("Game dealt."));
+        assertTrue(trace.contains("**MARRIAGE STARTED**"));
+        assertTrue(trace.contains("104 cards in play."));
+
+        //Tracing a game does not change how it is played
+        written.reset();
+        game.setTraced(false);
+        game.dealGame(7);
+        assertEquals(won, game.getSortingAlgorithm().playGame());
+        assertEquals(0, written.size());
+    }
+}
@@ -0,0 +1,57 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MctsPlayerTest {
+
+    private SpiderSolitaire game;
+
+
+    @Before
+    public void setUp() {
+
+        game = new SpiderSolitaire();
+        game.setSuitMode(1);
+    }
+
+    @Test
+    public void testWinsNearlyFinishedGame() throws InterruptedException {
+
+        TestBoards.nearlyWon(game.getBoard(), 1);
+        MctsPlayer player = new MctsPlayer(game, 50, 1);
+
+        assertTrue(player.playGame());
+        assertTrue(player.getRollouts() > 0);
+    }
+
+    @Test
+    public void testParallelRollouts() throws InterruptedException {
+
+        TestBoards.nearlyWon(game.getBoard(), 1);
+        MctsPlayer player = new MctsPlayer(game, 50, 2);
+
+        assertTrue(player.playGame());
+        assertTrue(player.getRolloutsPerSecond() > 0);
+    }
+
+    @Test
+    public void testSeededMovesRepeat() throws InterruptedException {
+
+        MctsPlayer player = new MctsPlayer(game, 20, 1);
+        player.setSeed(5);
+
+        game.dealGame(11);
+        int first = player.chooseMove(false);
+        game.dealGame(11);
+        assertEquals(first, player.chooseMove(false));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() {
+
+        new MctsPlayer(game, 100, 0);
+    }
+}
@@ -0,0 +1,74 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveGeneratorTest {
+
+    private Board board;
+    private MoveGenerator generator;
+    private int[] moves;
+
+
+    @Before
+    public void setUp() {
+
+        board = new Board();
+        generator = new MoveGenerator();
+        moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    @Test
+    public void testSequenceMoves() {
+
+        board.push(0, Board.card(9, 1, true));
+        board.push(0, Board.card(8, 1, true));
+        board.push(0, Board.card(7, 1, true));
+        board.push(1, Board.card(10, 2, true));
+        board.push(2, Board.card(9, 3, true));
+        board.push(3, Board.card(5, 0, false));
+        board.push(3, Board.card(8, 0, true));
+        for (int i = 4; i < Board.TABLEAU_SIZE; i++) {
+            board.push(i, Board.card(2, 0, false));
+        }
+
+        int count = generator.generateMoves(board, moves);
+
+        //The whole sequence onto the 10, 2 cards onto the 9, the 7 onto the 8, the 9 onto the 10 and the 8 onto the 9.
+        //Nothing can be moved onto a face down card.
+        assertEquals(5, count);
+        assertEquals(Move.move(0, 3, 1), moves[0]);
+        assertEquals(Move.move(0, 2, 2), moves[1]);
+        assertEquals(Move.move(0, 1, 3), moves[2]);
+        assertEquals(Move.move(2, 1, 1), moves[3]);
+        assertEquals(Move.move(3, 2, 1), moves[4]);
+    }
+
+    @Test
+    public void testEmptyColumnsAndDeal() {
+
+        byte[] deck = new byte[Board.DECK_SIZE];
+        SpiderSolitaire.fillDeck(deck, 1);
+        SpiderSolitaire.shuffleDeck(deck, 1);
+        board.deal(deck);
+
+        int count = generator.generateMoves(board, moves);
+        assertEquals(Move.deal(), moves[count - 1]);
+
+        //Once a column is empty every face up card can be moved to it, but the stock can no longer be dealt
+        while (!board.isEmpty(9)) {
+            board.pop(9);
+        }
+        count = generator.generateMoves(board, moves);
+        int emptyMoves = 0;
+        for (int i = 0; i < count; i++) {
+            assertFalse(Move.isDeal(moves[i]));
+            if (Move.destination(moves[i]) == 9) {
+                emptyMoves++;
+            }
+        }
+        assertEquals(9, emptyMoves);
+    }
+}
@@ -0,0 +1,76 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapTranspositionTableTest {
+
+    @Test
+    public void testAdd() {
+
+        OffHeapTranspositionTable table = new OffHeapTranspositionTable(1 << 10);
+
+        assertTrue(table.add(42, 1));
+        assertFalse(table.add(42, 3));
+        assertTrue(table.add(0, 1));
+        assertFalse(table.add(0, 1));
+
+        assertEquals(2, table.size());
+        assertEquals(4, table.getLookups());
+        assertEquals(2, table.getHits());
+        assertEquals(0.5, table.getHitRate(), 1e-9);
+        assertEquals(1 << 10, table.memoryUsed());
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertTrue(table.add(42, 1));
+    }
+
+    @Test
+    public void testEviction() {
+
+        //The smallest table is a single bucket of four entries
+        OffHeapTranspositionTable table = new OffHeapTranspositionTable(64);
+        assertEquals(4, table.capacity());
+
+        table.add(1, 1);
+        table.add(2, 5);
+        table.add(3, 2);
+        table.add(4, 3);
+        assertEquals(1.0, table.getOccupancy(), 1e-9);
+
+        //The deepest position is replaced
+        assertTrue(table.add(5, 4));
+        assertEquals(1, table.getEvictions());
+        assertEquals(4, table.size());
+        assertFalse(table.add(1, 1));
+        assertFalse(table.add(3, 2));
+
+        //Positions reached again are given a second chance over deeper ones
+        assertFalse(table.add(5, 4));
+        assertTrue(table.add(6, 1));
+        assertEquals(2, table.getEvictions());
+        assertFalse(table.add(5, 4));
+        assertFalse(table.add(1, 1));
+        assertFalse(table.add(3, 2));
+        assertFalse(table.add(6, 1));
+    }
+
+    @Test
+    public void testSolver() {
+
+        Board board = new Board();
+        TestBoards.nearlyWon(board, 1);
+
+        OffHeapTranspositionTable table = new OffHeapTranspositionTable(1 << 12);
+        SolverResult result = new Solver(1000, table).solve(board);
+
+        assertEquals(SolverResult.Status.SOLVABLE, result.getStatus());
+        assertTrue(table.size() > 0);
+        for (int move : result.getSolution()) {
+            board.applyMove(move);
+        }
+        assertTrue(board.isWon());
+    }
+}
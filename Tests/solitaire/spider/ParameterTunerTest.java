@@ -0,0 +1,54 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ParameterTunerTest {
+
+    @Test
+    public void testGridStartsWithDefaults() {
+
+        assertEquals(HeuristicParameters.DEFAULT, ParameterTuner.grid().get(0));
+        assertEquals(ParameterTuner.RETAIN_THRESHOLDS.length * 2 * HeuristicParameters.TieBreak.values().length,
+                ParameterTuner.grid().size());
+    }
+
+    @Test
+    public void testCandidatesPlaySameDeals() throws InterruptedException {
+
+        HeuristicParameters rightmost = new HeuristicParameters(22, true, HeuristicParameters.TieBreak.RIGHTMOST);
+        ParameterTuner tuner = new ParameterTuner(new SimulationRunner(2), 1, 6);
+
+        HeuristicParameters best = tuner.sweep(Arrays.asList(HeuristicParameters.DEFAULT, rightmost), 5);
+
+        assertTrue(tuner.getWins(best) >= tuner.getWins(rightmost));
+        assertEquals(0, tuner.getDifference(HeuristicParameters.DEFAULT).getEstimate(), 1e-9);
+        assertEquals((tuner.getWins(rightmost) - tuner.getWins(HeuristicParameters.DEFAULT)) / 6.0,
+                tuner.getDifference(rightmost).getEstimate(), 1e-9);
+    }
+
+    @Test
+    public void testRunnerResultsRepeat() throws InterruptedException {
+
+        SimulationRunner runner = new SimulationRunner(2);
+        runner.run(1, 6, 9);
+        boolean[] first = runner.getResults();
+        runner.run(1, 6, 9);
+
+        assertArrayEquals(first, runner.getResults());
+        int wins = 0;
+        for (boolean won : first) {
+            wins += won ? 1 : 0;
+        }
+        assertEquals(runner.getWinCount(), wins);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+
+        new HeuristicParameters(-1, true, HeuristicParameters.TieBreak.STRICT);
+    }
+}
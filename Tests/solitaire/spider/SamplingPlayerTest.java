@@ -0,0 +1,82 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SamplingPlayerTest {
+
+    private SpiderSolitaire game;
+
+
+    @Before
+    public void setUp() {
+
+        game = new SpiderSolitaire();
+        game.setSuitMode(2);
+    }
+
+    @Test
+    public void testWinsNearlyFinishedGame() throws InterruptedException {
+
+        TestBoards.nearlyWon(game.getBoard(), 2);
+
+        assertTrue(new SamplingPlayer(game, 4, 1).playGame());
+    }
+
+    @Test
+    public void testHiddenCardsAreNotSeen() throws InterruptedException {
+
+        SamplingPlayer player = new SamplingPlayer(game, 8, 1);
+        player.setSeed(3);
+        game.dealGame(21);
+        game.makeMove(Move.deal());
+        Board board = game.getBoard();
+
+        //The same cards are on show, but the hidden cards are in a different order
+        byte[] hidden = new byte[board.countHidden()];
+        int next = 0;
+        for (int pile = 0; pile < board.getStockCount(); pile++) {
+            for (int index = 0; index < Board.STOCK_PILE_SIZE; index++) {
+                hidden[next++] = board.stockCardAt(pile, index);
+            }
+        }
+        for (int column = 0; column < 10; column++) {
+            for (int index = 0; index < board.countFaceDown(column); index++) {
+                hidden[next++] = board.cardAt(column, index);
+            }
+        }
+        Board other = board.copy();
+        other.replaceHiddenCards(hidden);
+        assertNotEquals(board, other);
+
+        int move = player.chooseMove(Integer.MIN_VALUE, false);
+        board.copyFrom(other);
+        SamplingPlayer fresh = new SamplingPlayer(game, 8, 1);
+        fresh.setSeed(3);
+        assertEquals(move, fresh.chooseMove(Integer.MIN_VALUE, false));
+    }
+
+    @Test
+    public void testThreadCountDoesNotChangeMoves() throws InterruptedException {
+
+        SamplingPlayer single = new SamplingPlayer(game, 6, 1);
+        single.setSeed(9);
+        game.dealGame(22);
+        single.playGame();
+        int[] moves = new int[game.getMoveLog().size()];
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = game.getMoveLog().pop();
+        }
+
+        SamplingPlayer parallel = new SamplingPlayer(game, 6, 3);
+        parallel.setSeed(9);
+        game.dealGame(22);
+        parallel.playGame();
+        assertEquals(moves.length, game.getMoveLog().size());
+        for (int i = moves.length - 1; i >= 0; i--) {
+            assertEquals(moves[i], game.getMoveLog().pop());
+        }
+    }
+}
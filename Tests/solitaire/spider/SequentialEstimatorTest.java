@@ -0,0 +1,59 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SequentialEstimatorTest {
+
+    private SequentialEstimator estimator;
+
+
+    @Before
+    public void setUp() {
+
+        estimator = new SequentialEstimator(new SimulationRunner(2), 1);
+        estimator.setBatchSize(10);
+        estimator.setMaxGames(60);
+    }
+
+    @Test
+    public void testStopsOncePrecise() throws InterruptedException {
+
+        ConfidenceInterval interval = estimator.estimate(SpiderSolitaire::getSortingAlgorithm, 0.5, 3);
+
+        assertEquals(SequentialEstimator.Outcome.PRECISE, estimator.getOutcome());
+        assertTrue(estimator.getGamesPlayed() < 60);
+        assertTrue(interval.getWidth() <= 0.5);
+    }
+
+    @Test
+    public void testPlaysMaxGames() throws InterruptedException {
+
+        estimator.estimate(SpiderSolitaire::getSortingAlgorithm, 0.01, 3);
+
+        assertEquals(SequentialEstimator.Outcome.MAX_GAMES, estimator.getOutcome());
+        assertEquals(60, estimator.getGamesPlayed());
+    }
+
+    @Test
+    public void testStopsOnceDifferent() throws InterruptedException {
+
+        Player losing = () -> false;
+        ConfidenceInterval difference = estimator.compare(SpiderSolitaire::getSortingAlgorithm, game -> losing, 0.01,
+                3);
+
+        assertEquals(SequentialEstimator.Outcome.DIFFERENT, estimator.getOutcome());
+        assertTrue(difference.getLower() > 0);
+    }
+
+    @Test
+    public void testSamePlayerIsNeverDifferent() throws InterruptedException {
+
+        estimator.compare(SpiderSolitaire::getSortingAlgorithm, SpiderSolitaire::getSortingAlgorithm, 0.3, 3);
+
+        assertEquals(SequentialEstimator.Outcome.PRECISE, estimator.getOutcome());
+        assertEquals(0, estimator.getInterval().getEstimate(), 1e-9);
+    }
+}
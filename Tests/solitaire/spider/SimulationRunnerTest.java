@@ -0,0 +1,72 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+public class SimulationRunnerTest {
+
+    @Test
+    public void testCountsAddUp() throws InterruptedException {
+
+        SimulationRunner runner = new SimulationRunner(3);
+        AtomicIntegerArray played = new AtomicIntegerArray(50);
+        runner.setListener((game, finished, won, time) -> played.incrementAndGet(game));
+        runner.run(1, 50, 7);
+
+        //Every game is claimed by exactly one thread
+        for (int i = 0; i < played.length(); i++) {
+            assertEquals(1, played.get(i));
+        }
+        assertEquals(50, runner.getGamesPlayed());
+        assertEquals(50, runner.getWinCount() + runner.getLossCount());
+
+        int wins = 0;
+        for (boolean won : runner.getResults()) {
+            if (won) {
+                wins++;
+            }
+        }
+        assertEquals(runner.getWinCount(), wins);
+    }
+
+    @Test
+    public void testSeededRunRepeats() throws InterruptedException {
+
+        SimulationRunner single = new SimulationRunner(1);
+        single.run(1, 30, 11);
+        SimulationRunner pool = new SimulationRunner(3);
+        pool.run(1, 30, 11);
+
+        //Which thread plays a game does not change its deal or how it is played
+        assertArrayEquals(single.getResults(), pool.getResults());
+        assertEquals(11, pool.getSeed());
+        assertEquals(11 + 29, pool.getGameSeed(29));
+    }
+
+    @Test
+    public void testWorkerExceptionPassedOn() throws InterruptedException {
+
+        IllegalStateException failure = new IllegalStateException("Error! The player failed.");
+        SimulationRunner runner = new SimulationRunner(2);
+        runner.setPlayer(game -> () -> {
+            throw failure;
+        });
+
+        try {
+            runner.run(1, 4, 7);
+            fail();
+        }
+        catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidSuitMode() throws InterruptedException {
+
+        new SimulationRunner(1).run(3, 1, 7);
+    }
+}
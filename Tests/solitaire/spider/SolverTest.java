@@ -0,0 +1,150 @@
+package solitaire.spider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SolverTest {
+
+    private Board board;
+
+
+    @Before
+    public void setUp() {
+
+        board = new Board();
+        TestBoards.nearlyWon(board, 1);
+    }
+
+    @Test
+    public void testSolvable() {
+
+        SolverResult result = new Solver(1000).solve(board);
+
+        assertEquals(SolverResult.Status.SOLVABLE, result.getStatus());
+        assertFalse(board.isWon());
+
+        //The solution wins the game when it is played from the start
+        for (int move : result.getSolution()) {
+            board.applyMove(move);
+        }
+        assertTrue(board.isWon());
+    }
+
+    @Test
+    public void testUnsolvable() {
+
+        //Only the Ace can be moved and then nothing else, whilst the last run is missing its 2
+        board.clear();
+        for (int i = 0; i < 7; i++) {
+            board.addFoundation(0);
+        }
+        for (int i = 0; i < 6; i++) {
+            board.push(i, Board.card(13 - i * 2, 0, true));
+        }
+        board.push(6, Board.card(1, 1, true));
+        board.push(7, Board.card(2, 2, true));
+        board.push(8, Board.card(4, 3, false));
+        board.push(9, Board.card(6, 3, false));
+        SolverResult result = new Solver(1000).solve(board);
+
+        assertEquals(SolverResult.Status.UNSOLVABLE, result.getStatus());
+        assertEquals(0, result.getSolution().length);
+        assertTrue(result.getNodes() > 0);
+    }
+
+    @Test
+    public void testEmptyColumnBeforeDeal() {
+
+        //The last deal puts the Queen on column 1 and a 2 on column 0, so the game can only be won if the King is moved
+        //from column 0 onto the empty column 1 first, and the 9 moved onto column 0 in its place
+        byte[] deck = new byte[Board.DECK_SIZE];
+        Arrays.fill(deck, Board.card(4, 3, false));
+        //The card the last deal puts on column i is 63 - i in the deck
+        deck[63] = Board.card(2, 1, false);
+        deck[62] = Board.card(12, 0, false);
+        deck[60] = Board.card(10, 1, false);
+        deck[59] = Board.card(11, 1, false);
+        board.deal(deck);
+        for (int i = 0; i < 4; i++) {
+            board.dealStock();
+        }
+        for (int i = 0; i < Board.TABLEAU_SIZE; i++) {
+            while (!board.isEmpty(i)) {
+                board.pop(i);
+            }
+        }
+        for (int i = 0; i < 7; i++) {
+            board.addFoundation(0);
+        }
+
+        board.push(0, Board.card(13, 0, true));
+        board.push(2, Board.card(5, 1, false));
+        board.push(2, Board.card(9, 1, true));
+        board.push(3, Board.card(7, 3, false));
+        for (int rank = 11; rank >= 1; rank--) {
+            board.push(3, Board.card(rank, 0, true));
+        }
+        for (int i = 4; i < Board.TABLEAU_SIZE; i++) {
+            board.push(i, Board.card(5, 3, true));
+        }
+
+        SolverResult result = new Solver(2_000_000).solve(board);
+        assertEquals(SolverResult.Status.SOLVABLE, result.getStatus());
+        assertEquals(SolverResult.Status.SOLVABLE, new ParallelSolver(10_000_000, 2).solve(board).getStatus());
+
+        for (int move : result.getSolution()) {
+            board.applyMove(move);
+        }
+        assertTrue(board.isWon());
+    }
+
+    @Test
+    public void testParallelSolvable() {
+
+        SolverResult result = new ParallelSolver(1000, 2).solve(board);
+
+        assertEquals(SolverResult.Status.SOLVABLE, result.getStatus());
+        for (int move : result.getSolution()) {
+            board.applyMove(move);
+        }
+        assertTrue(board.isWon());
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+
+        byte[] deck = new byte[Board.DECK_SIZE];
+        SpiderSolitaire.fillDeck(deck, 1);
+        SpiderSolitaire.shuffleDeck(deck, DealCatalogue.dealSeed(1, 2));
+        board.deal(deck);
+
+        assertEquals(SolverResult.Status.SOLVABLE, new Solver(1_000_000).solve(board).getStatus());
+        SolverResult result = new ParallelSolver(1_000_000, 4).solve(board);
+        assertEquals(SolverResult.Status.SOLVABLE, result.getStatus());
+
+        Board start = board.copy();
+        for (int move : result.getSolution()) {
+            board.applyMove(move);
+        }
+        assertTrue(board.isWon());
+        assertNotEquals(start, board);
+    }
+
+    @Test
+    public void testBudgetExhausted() {
+
+        byte[] deck = new byte[Board.DECK_SIZE];
+        SpiderSolitaire.fillDeck(deck, 4);
+        SpiderSolitaire.shuffleDeck(deck, 1);
+        board.deal(deck);
+
+        SolverResult result = new Solver(50).solve(board);
+
+        assertEquals(SolverResult.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertEquals(50, result.getNodes());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.EmptyStackException;
+import java.util.List;
 import java.util.Stack;
 import static org.junit.Assert.*;
 
@@ -52,7 +53,7 @@ public class SpiderSolitaireTest {
 
         for (int i = 0; i < 10; i++){
 
-        assertTrue(game.getTableauStack(i) instanceof Stack);
+        assertTrue(game.getTableauStack(i) instanceof List);
         }
     }
 
@@ -61,7 +62,7 @@ public class SpiderSolitaireTest {
 
         for (int i = 10; i < 20; i++){
 
-            assertTrue(game.getTableauStack(i) instanceof Stack);
+            assertTrue(game.getTableauStack(i) instanceof List);
         }
     }
 
@@ -179,7 +180,7 @@ public class SpiderSolitaireTest {
         for (int i = 0; i < 13; i++) {
             assertEquals(i + 1, testDeck1.get(i).getRank());
         }
-        shuffledTestDeck1 = game.shuffleDeck(testDeck1);
+        shuffledTestDeck1 = SpiderSolitaire.shuffleDeck(testDeck1, 7);
 
         //Asserts the cards are no longer order after calling shuffle deck
         for (int i = 0; i < 13; i++) {
@@ -0,0 +1,254 @@
+package solitaire.spider;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class StrategyPipelineTest {
+
+    private final SortingAlgorithm algorithm = new SpiderSolitaire().getSortingAlgorithm();
+
+    /**
+     * A strategy that makes a move on a set amount of its calls and then stops.
+     */
+
+    private static class FakeStrategy implements MoveStrategy {
+
+        private final String name;
+        private int movesLeft;
+
+        FakeStrategy(String name, int moves) {
+
+            this.name = name;
+            this.movesLeft = moves;
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) {
+
+            return movesLeft-- > 0;
+        }
+    }
+
+    @Test
+    public void testDefaultOrder() {
+
+        StrategyPipeline pipeline = new StrategyPipeline();
+
+        assertEquals(Arrays.asList(Heuristic.values()), pipeline.getStrategies());
+        for (Heuristic heuristic : Heuristic.values()) {
+            assertTrue(pipeline.isEnabled(heuristic));
+        }
+        assertFalse(pipeline.isAdaptive());
+        assertTrue(pipeline.isPinned(Heuristic.PREP_DEAL));
+    }
+
+    @Test
+    public void testStopsAtFirstMove() throws InterruptedException {
+
+        FakeStrategy first = new FakeStrategy("First", 1);
+        FakeStrategy second = new FakeStrategy("Second", 1);
+        StrategyPipeline pipeline = new StrategyPipeline(first, second);
+
+        assertTrue(pipeline.apply(algorithm));
+        assertEquals(1, pipeline.getHits(first));
+        assertEquals(0, pipeline.getCalls(second));
+
+        assertTrue(pipeline.apply(algorithm));
+        assertEquals(2, pipeline.getCalls(first));
+        assertEquals(1, pipeline.getHits(second));
+
+        assertFalse(pipeline.apply(algorithm));
+        assertEquals(2, pipeline.getCalls(second));
+        assertTrue(pipeline.getTime(first) >= 0);
+
+        pipeline.resetStatistics();
+        assertEquals(0, pipeline.getCalls(first));
+    }
+
+    @Test
+    public void testDisabledStrategyIsSkipped() throws InterruptedException {
+
+        FakeStrategy first = new FakeStrategy("First", 1);
+        FakeStrategy second = new FakeStrategy("Second", 1);
+        StrategyPipeline pipeline = new StrategyPipeline(first, second);
+        pipeline.setEnabled(first, false);
+
+        assertTrue(pipeline.apply(algorithm));
+        assertEquals(0, pipeline.getCalls(first));
+        assertEquals(1, pipeline.getHits(second));
+    }
+
+    @Test
+    public void testReorder() throws InterruptedException {
+
+        FakeStrategy first = new FakeStrategy("First", 1);
+        FakeStrategy second = new FakeStrategy("Second", 1);
+        StrategyPipeline pipeline = new StrategyPipeline(first, second);
+        pipeline.setOrder(second, first);
+
+        assertEquals(Arrays.asList(second, first), pipeline.getStrategies());
+        assertTrue(pipeline.apply(algorithm));
+        assertEquals(1, pipeline.getHits(second));
+        assertEquals(0, pipeline.getCalls(first));
+    }
+
+    @Test
+    public void testAdaptiveOrderPromotesMoves() throws InterruptedException {
+
+        FakeStrategy never = new FakeStrategy("Never", 0);
+        FakeStrategy always = new FakeStrategy("Always", Integer.MAX_VALUE);
+        StrategyPipeline pipeline = new StrategyPipeline(never, always);
+        pipeline.setAdaptive(true);
+        pipeline.setSeed(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(pipeline.apply(algorithm));
+        }
+        assertEquals(always, pipeline.getStrategies().get(0));
+        assertTrue(pipeline.getCalls(never) < 100);
+    }
+
+    @Test
+    public void testPinnedStrategyKeepsPlace() throws InterruptedException {
+
+        FakeStrategy never = new FakeStrategy("Never", 0);
+        FakeStrategy always = new FakeStrategy("Always", Integer.MAX_VALUE);
+        StrategyPipeline pipeline = new StrategyPipeline(never, always);
+        pipeline.setAdaptive(true);
+        pipeline.setSeed(1);
+        pipeline.setPinned(never, true);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(pipeline.apply(algorithm));
+        }
+        assertEquals(Arrays.asList(never, always), pipeline.getStrategies());
+        assertEquals(100, pipeline.getCalls(never));
+    }
+
+    @Test
+    public void testSeededAdaptiveGamesRepeat() throws InterruptedException {
+
+        long[] calls = new long[Heuristic.values().length];
+        boolean[] won = new boolean[5];
+        for (int run = 0; run < 2; run++) {
+
+            SpiderSolitaire game = new SpiderSolitaire();
+            game.setSuitMode(1);
+            SortingAlgorithm player = game.getSortingAlgorithm();
+            StrategyPipeline pipeline = new StrategyPipeline();
+            pipeline.setAdaptive(true);
+            pipeline.setSeed(3);
+            player.setPipeline(pipeline);
+
+            for (int i = 0; i < won.length; i++) {
+                game.dealGame(20 + i);
+                boolean result = player.playGame();
+                if (run == 0) {
+                    won[i] = result;
+                }
+                else {
+                    assertEquals(won[i], result);
+                }
+            }
+            for (Heuristic heuristic : Heuristic.values()) {
+                if (run == 0) {
+                    calls[heuristic.ordinal()] = pipeline.getCalls(heuristic);
+                }
+                else {
+                    assertEquals(calls[heuristic.ordinal()], pipeline.getCalls(heuristic));
+                }
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testIncompleteOrder() {
+
+        FakeStrategy first = new FakeStrategy("First", 1);
+        new StrategyPipeline(first, new FakeStrategy("Second", 1)).setOrder(first, first);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDuplicateStrategy() {
+
+        new StrategyPipeline(Heuristic.MARRIAGE, Heuristic.MARRIAGE);
+    }
+
+    @Test
+    public void testAlgorithmUsesPipeline() throws InterruptedException {
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(1);
+        TestBoards.nearlyWon(game.getBoard(), 1);
+
+        SortingAlgorithm algorithm = game.getSortingAlgorithm();
+        StrategyPipeline pipeline = new StrategyPipeline(Heuristic.MARRIAGE);
+        algorithm.setPipeline(pipeline);
+
+        assertTrue(algorithm.playGame());
+        assertTrue(pipeline.getHits(Heuristic.MARRIAGE) > 0);
+    }
+
+    @Test
+    public void testDisabledStrategiesAreNotCalledByOthers() throws InterruptedException {
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(1);
+        TestBoards.nearlyWon(game.getBoard(), 1);
+
+        SortingAlgorithm algorithm = game.getSortingAlgorithm();
+        StrategyPipeline pipeline = new StrategyPipeline();
+        for (Heuristic heuristic : Heuristic.values()) {
+            pipeline.setEnabled(heuristic, heuristic == Heuristic.DIFFERENT_SUIT_MARRIAGE);
+        }
+        algorithm.setPipeline(pipeline);
+
+        //Both moves are made, and counted, by the one strategy that is enabled
+        assertTrue(algorithm.playGame());
+        assertEquals(2, pipeline.getHits(Heuristic.DIFFERENT_SUIT_MARRIAGE));
+        for (Heuristic heuristic : Heuristic.values()) {
+            if (heuristic != Heuristic.DIFFERENT_SUIT_MARRIAGE) {
+                assertEquals(0, pipeline.getCalls(heuristic));
+            }
+        }
+    }
+
+    @Test
+    public void testNestedCallIsCountedApart() throws InterruptedException {
+
+        MoveStrategy outer = new MoveStrategy() {
+
+            @Override
+            public String getName() {
+
+                return "Outer";
+            }
+
+            @Override
+            public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+
+                return algorithm.getPipeline().applyNested(Heuristic.MARRIAGE, algorithm);
+            }
+        };
+        StrategyPipeline pipeline = new StrategyPipeline(outer, Heuristic.MARRIAGE);
+        pipeline.setEnabled(Heuristic.MARRIAGE, false);
+        algorithm.setPipeline(pipeline);
+
+        //The scan made by the marriage is counted as the marriage's own, even though it is disabled
+        assertFalse(pipeline.apply(algorithm));
+        assertEquals(1, pipeline.getCalls(outer));
+        assertEquals(0, pipeline.getScans(outer));
+        assertEquals(1, pipeline.getCalls(Heuristic.MARRIAGE));
+        assertEquals(1, pipeline.getScans(Heuristic.MARRIAGE));
+        assertNull(pipeline.getCurrentStrategy());
+    }
+}
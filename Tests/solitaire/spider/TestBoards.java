@@ -0,0 +1,40 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.TestBoards</h1>
+ * This is a class for the positions that are set up by hand in more than one test.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    /**
+     * A method that sets up a game that is two moves from being won. Seven foundations are complete and the last run
+     * is split across three columns: the King down to the 3 on column 0, the Ace on column 1 and the 2 on column 2. The
+     * foundations take turns through the suits of the mode and the last run is of its last suit, so every suit of the
+     * mode is played the same amount of times.
+     *
+     * @param board The board to clear and set up
+     * @param suitMode The mode being played (1, 2 or 4 suits)
+     */
+
+    static void nearlyWon(Board board, int suitMode) {
+
+        board.clear();
+        for (int i = 0; i < 7; i++) {
+            board.addFoundation(i % suitMode);
+        }
+        int suit = suitMode - 1;
+        for (int rank = 13; rank >= 3; rank--) {
+            board.push(0, Board.card(rank, suit, true));
+        }
+        board.push(1, Board.card(1, suit, true));
+        board.push(2, Board.card(2, suit, true));
+    }
+}
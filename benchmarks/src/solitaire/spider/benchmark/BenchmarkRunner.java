@@ -0,0 +1,43 @@
+package solitaire.spider.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h1>solitaire.spider.benchmark.BenchmarkRunner</h1>
+ * This is a class for running the benchmarks from the IDE or the command line. Every benchmark is measured for its
+ * throughput and, by sampling the time of single operations, its latency percentiles. The GC profiler is always added,
+ * so the bytes allocated by each operation (gc.alloc.rate.norm) are reported next to its time.
+ *
+ * The results can be written to a JSON file, so the results of a change can be compared with those from before it.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class BenchmarkRunner {
+
+    /**
+     * A method for running the benchmarks. The arguments are optionally a regular expression that chooses which
+     * benchmarks are run, such as "Heuristic", and optionally a file the results are written to as JSON.
+     *
+     * @param args The benchmarks to run and the file of the results
+     * @throws RunnerException If a benchmark fails
+     */
+
+    public static void main(String[] args) throws RunnerException {
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + "." + (args.length > 0 ? args[0] : ""))
+                .addProfiler(GCProfiler.class);
+        if (args.length > 1) {
+            options.resultFormat(ResultFormatType.JSON).result(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package solitaire.spider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solitaire.spider.Board;
+import solitaire.spider.Log;
+import solitaire.spider.SpiderSolitaire;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>solitaire.spider.benchmark.DeckBenchmark</h1>
+ * This is a class for benchmarking how long it takes to shuffle a deck and to deal a game. The seeds cycle through the
+ * same POSITIONS seeds, so every run shuffles the same decks.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dspider.log=off")
+public class DeckBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int suitMode;
+
+    private final byte[] deck = new byte[Board.DECK_SIZE];
+    private SpiderSolitaire game;
+    private int next;
+
+    @Setup
+    public void setUp() {
+
+        Log.setLevel(Log.Level.OFF);
+        game = new SpiderSolitaire();
+        game.setSuitMode(suitMode);
+        SpiderSolitaire.fillDeck(deck, suitMode);
+    }
+
+    /**
+     * Shuffles the deck in place. Each shuffle starts from the order the last one left, which is as random as a fresh
+     * deck and keeps the fill out of the measurement.
+     */
+
+    @Benchmark
+    public byte[] shuffleDeck() {
+
+        SpiderSolitaire.shuffleDeck(deck, Fixtures.SEED + (next++ & Fixtures.MASK));
+        return deck;
+    }
+
+    /**
+     * Fills, shuffles and deals a full game onto the board.
+     */
+
+    @Benchmark
+    public Board dealGame() {
+
+        game.dealGame(Fixtures.SEED + (next++ & Fixtures.MASK));
+        return game.getBoard();
+    }
+}
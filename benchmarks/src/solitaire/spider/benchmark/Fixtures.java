@@ -0,0 +1,78 @@
+package solitaire.spider.benchmark;
+
+import solitaire.spider.Board;
+import solitaire.spider.SortingAlgorithm;
+import solitaire.spider.SpiderSolitaire;
+
+import java.util.SplittableRandom;
+
+/**
+ * <h1>solitaire.spider.benchmark.Fixtures</h1>
+ * This is a class for the positions the benchmarks are run on. Every position is made from a seed, so every run of a
+ * benchmark, on any machine, measures the same positions and two runs can be compared.
+ *
+ * A position is a seeded deal that the sorting algorithm has then played a seeded amount of turns into, so the
+ * positions have face up runs, empty columns and finished foundations in about the amounts a real game has, rather
+ * than only ever being fresh deals. A deal the algorithm abandons at the move limit is skipped.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+final class Fixtures {
+
+    //The seed every fixture is made from
+    static final long SEED = 20180706L;
+    //The amount of positions in a fixture, a power of 2 so the next position can be found with a mask
+    static final int POSITIONS = 64;
+    static final int MASK = POSITIONS - 1;
+    //The most turns played into a deal before it is kept as a position
+    private static final int MAX_TURNS = 100;
+
+    private Fixtures() {
+    }
+
+    /**
+     * A method that makes the positions of a fixture.
+     *
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @return POSITIONS boards, each played into from a seeded deal
+     * @throws InterruptedException If the turns are interrupted
+     */
+
+    static Board[] positions(int suitMode) throws InterruptedException {
+
+        SplittableRandom random = new SplittableRandom(SEED + suitMode);
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(suitMode);
+        SortingAlgorithm algorithm = game.getSortingAlgorithm();
+
+        Board[] positions = new Board[POSITIONS];
+        long deal = SEED;
+        for (int i = 0; i < POSITIONS; deal++) {
+
+            game.dealGame(deal);
+            algorithm.startGame();
+            int turns = random.nextInt(MAX_TURNS + 1);
+            try {
+                for (int j = 0; j < turns; j++) {
+
+                    //A deal is made whenever no heuristic can move, as it would be in a game
+                    if (!algorithm.getPipeline().apply(algorithm)) {
+                        if (!game.getBoard().canDealStock()) {
+                            break;
+                        }
+                        game.dealStock();
+                    }
+                }
+            }
+            catch (SortingAlgorithm.MoveLimitException e) {
+                //The deal reached the move limit, so its positions would measure the limit rather than a heuristic
+                continue;
+            }
+            positions[i++] = game.getBoard().copy();
+        }
+        return positions;
+    }
+}
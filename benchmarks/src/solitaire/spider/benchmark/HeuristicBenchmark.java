@@ -0,0 +1,79 @@
+package solitaire.spider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solitaire.spider.Board;
+import solitaire.spider.Heuristic;
+import solitaire.spider.Log;
+import solitaire.spider.SortingAlgorithm;
+import solitaire.spider.SpiderSolitaire;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>solitaire.spider.benchmark.HeuristicBenchmark</h1>
+ * This is a class for benchmarking each of the sorting algorithm's heuristics on its own. Each operation puts the next
+ * position of the fixture on the board and calls the heuristic once, which makes at most one move. The position is
+ * put back as part of the operation, as setting it up outside of the operation would cost more to time than most
+ * heuristics take; the restore benchmark measures putting the position back on its own, so it can be taken away.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dspider.log=off")
+public class HeuristicBenchmark {
+
+    //Every heuristic is benchmarked when no values are given
+    @Param
+    public Heuristic heuristic;
+
+    @Param({"1", "2", "4"})
+    public int suitMode;
+
+    private Board[] positions;
+    private SpiderSolitaire game;
+    private SortingAlgorithm algorithm;
+    private int next;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+
+        Log.setLevel(Log.Level.OFF);
+        positions = Fixtures.positions(suitMode);
+        game = new SpiderSolitaire();
+        game.setSuitMode(suitMode);
+        algorithm = game.getSortingAlgorithm();
+    }
+
+    @Benchmark
+    public boolean apply() throws InterruptedException {
+
+        restore();
+        return heuristic.apply(algorithm);
+    }
+
+    @Benchmark
+    public Board restore() {
+
+        game.getBoard().copyFrom(positions[next++ & Fixtures.MASK]);
+        game.getMoveLog().clear();
+        algorithm.startGame();
+        return game.getBoard();
+    }
+}
@@ -0,0 +1,61 @@
+package solitaire.spider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solitaire.spider.Log;
+import solitaire.spider.SortingAlgorithm;
+import solitaire.spider.SpiderSolitaire;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>solitaire.spider.benchmark.PlayoutBenchmark</h1>
+ * This is a class for benchmarking whole games played by the sorting algorithm, from the deal to the last move. The
+ * deals cycle through the same POSITIONS seeds, so a change to the algorithm that wins more games, and so plays more
+ * moves, shows up as slower games as well as in the win rate.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dspider.log=off")
+public class PlayoutBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int suitMode;
+
+    private SpiderSolitaire game;
+    private SortingAlgorithm algorithm;
+    private int next;
+
+    @Setup
+    public void setUp() {
+
+        Log.setLevel(Log.Level.OFF);
+        game = new SpiderSolitaire();
+        game.setSuitMode(suitMode);
+        algorithm = game.getSortingAlgorithm();
+    }
+
+    @Benchmark
+    public boolean playGame() throws InterruptedException {
+
+        game.dealGame(Fixtures.SEED + (next++ & Fixtures.MASK));
+        return algorithm.playGame();
+    }
+}
@@ -0,0 +1,78 @@
+package solitaire.spider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solitaire.spider.Board;
+import solitaire.spider.Log;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>solitaire.spider.benchmark.RulesBenchmark</h1>
+ * This is a class for benchmarking the checks made before every move. A single check takes a few nanoseconds, which
+ * is too little to time on its own, so each operation makes the check for every column (and for canRemoveCards,
+ * every amount of cards) of one position, moving on to the next position of the fixture each time.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dspider.log=off")
+public class RulesBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int suitMode;
+
+    private Board[] positions;
+    private int next;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+
+        Log.setLevel(Log.Level.OFF);
+        positions = Fixtures.positions(suitMode);
+    }
+
+    @Benchmark
+    public int canRemoveCards() {
+
+        Board board = positions[next++ & Fixtures.MASK];
+        int movable = 0;
+        for (int column = 0; column < 10; column++) {
+            for (int cardCount = 1; cardCount <= board.size(column); cardCount++) {
+                if (board.canRemoveCards(column, cardCount)) {
+                    movable++;
+                }
+            }
+        }
+        return movable;
+    }
+
+    @Benchmark
+    public int canAddToFoundation() {
+
+        Board board = positions[next++ & Fixtures.MASK];
+        int complete = 0;
+        for (int column = 0; column < 10; column++) {
+            if (board.canAddToFoundation(column)) {
+                complete++;
+            }
+        }
+        return complete;
+    }
+}
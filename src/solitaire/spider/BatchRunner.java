@@ -0,0 +1,353 @@
+package solitaire.spider;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.SplittableRandom;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * <h1>solitaire.spider.BatchRunner</h1>
+ * This is a class for running simulations from the command line without the GUI. The games are played on a
+ * SimulationRunner with no sleeps between moves, and the result of every game is written out as soon as it has been
+ * played, either as CSV or as one JSON object to a line (JSONL), so a long run can be watched or read by another
+ * program whilst it is still going. The games are written in the order they finish, which is not always the order of
+ * their numbers when more than one thread is used.
+ *
+ * A run either plays a set amount of games, or plays games in batches until a time budget has been spent. Game i of a
+ * run is always dealt from the first seed plus i, so any game can be played again from its seed.
+ *
+ * Each game is written with its number, its seed, whether it was won, the amount of foundations filled, the amount of
+ * moves made and how long it took to play in microseconds. A summary with the win rate and the games played each
+ * second is written once the run has finished.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class BatchRunner implements SimulationRunner.GameListener {
+
+    /**
+     * The formats the results of the games can be written in.
+     */
+
+    public enum Format {
+
+        CSV,
+        JSONL
+    }
+
+    public static final int DEFAULT_GAMES = 1000;
+    //The amount of games each thread plays in a batch of a run with a time budget
+    private static final int GAMES_PER_THREAD = 16;
+
+    private final SimulationRunner runner;
+    private final int suitMode;
+    private final Format format;
+    private final PrintWriter output;
+    private boolean headerWritten;
+
+    //The number of the first game of the batch being played, as the runner numbers the games of each batch from 0
+    private int firstGame;
+    //The results of the last run
+    private int gamesPlayed;
+    private int wins;
+    private long elapsedTime;
+
+    public BatchRunner(SimulationRunner runner, int suitMode, Format format, Writer output) {
+
+        this.runner = runner;
+        this.suitMode = suitMode;
+        this.format = format;
+        this.output = new PrintWriter(output);
+    }
+
+    /**
+     * A method for running a simulation from the command line, which is run as the batch tool of Tools. The first
+     * argument is the suit mode, followed by any of the options:
+     *
+     * -games n, the amount of games to play (1000 if neither this nor -seconds is given)
+     * -seconds s, the time budget, after which no more batches are started
+     * -seeds first..last, the seeds of the games to play, which sets both the first seed and the amount of games
+     * -seed first, the seed of the first game (random if not given)
+     * -threads n, the amount of threads (one for every processor if not given)
+     * -player name, one of sorting, adaptive, beam, mcts or sampling (sorting if not given)
+     * -format csv|jsonl, the format of the results (csv if not given)
+     * -output file, the file the results are written to (the console if not given)
+     * -jfr file, a flight recording of the run to write, with the game, move and deal events turned on along with the
+     * default settings of the JVM
+     *
+     * The log, and the summary when the results are written to the console, are written to the error stream so that
+     * they never mix with the results.
+     *
+     * @param args The suit mode and the options
+     * @throws IOException If the results or the recording cannot be written
+     * @throws ParseException If the default settings of the flight recorder cannot be read
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+
+        if (args.length < 1 || args.length % 2 == 0) {
+            System.out.println("Usage: Tools batch <suit mode> [-games n] [-seconds s] [-seeds first..last] " +
+                    "[-seed first] [-threads n] [-player name] [-format csv|jsonl] [-output file] [-jfr file]");
+            System.out.println("Players: sorting, adaptive, beam, mcts, sampling");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int games = 0;
+        long seconds = 0;
+        long seed = new SplittableRandom().nextLong();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String player = "sorting";
+        Format format = Format.CSV;
+        String file = null;
+        String recordingFile = null;
+
+        for (int i = 1; i < args.length; i += 2) {
+
+            String value = args[i + 1];
+            switch (args[i]) {
+
+                case "-games":
+                    games = Integer.parseInt(value);
+                    break;
+
+                case "-seconds":
+                    seconds = Long.parseLong(value);
+                    break;
+
+                case "-seeds":
+                    int range = value.indexOf("..");
+                    if (range < 0) {
+                        throw new IllegalArgumentException("Error! " + value + " is not a range of seeds.");
+                    }
+                    seed = Long.parseLong(value.substring(0, range));
+                    games = Math.toIntExact(Long.parseLong(value.substring(range + 2)) - seed + 1);
+                    break;
+
+                case "-seed":
+                    seed = Long.parseLong(value);
+                    break;
+
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+
+                case "-player":
+                    player = value;
+                    break;
+
+                case "-format":
+                    format = Format.valueOf(value.toUpperCase());
+                    break;
+
+                case "-output":
+                    file = value;
+                    break;
+
+                case "-jfr":
+                    recordingFile = value;
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Error! " + args[i] + " is not a known option.");
+            }
+        }
+        if (games == 0 && seconds == 0) {
+            games = DEFAULT_GAMES;
+        }
+
+        //The results are written to the console unless a file is given, so the log and the summary are kept apart
+        Log.setOutput(System.err);
+        PrintStream summary = file == null ? System.err : System.out;
+        Writer output = file == null ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) :
+                Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8);
+
+        SimulationRunner runner = new SimulationRunner(threads);
+        runner.setPlayer(SimulationRunner.player(player));
+        BatchRunner batch = new BatchRunner(runner, suitMode, format, output);
+        Recording recording = recordingFile == null ? null : startRecording(recordingFile);
+        try {
+            batch.run(games, seconds * 1000, seed);
+        }
+        finally {
+            output.close();
+            if (recording != null) {
+                //The recording is written to its destination when it is stopped
+                recording.stop();
+                recording.close();
+            }
+        }
+
+        summary.println(String.format("%s played %d games of %d suit(s) from seed %d with %d thread(s) in %dms.",
+                player, batch.getGamesPlayed(), suitMode, seed, threads, batch.getElapsedTime()));
+        if (batch.getGamesPlayed() > 0) {
+            summary.println(String.format("Won %s of its games, %.1f games/s.", batch.getWinRate(),
+                    batch.getGamesPerSecond()));
+        }
+    }
+
+    /**
+     * A method that starts a flight recording with the default settings of the JVM and the events of the game, which
+     * are off by default, turned on.
+     *
+     * @param file The file the recording is written to when it is stopped
+     * @return The recording, which has been started
+     * @throws IOException If the file cannot be written
+     * @throws ParseException If the default settings cannot be read
+     */
+
+    public static Recording startRecording(String file) throws IOException, ParseException {
+
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.enable(GameEvent.class);
+        recording.enable(MoveEvent.class);
+        recording.enable(DealEvent.class);
+        recording.setDestination(Paths.get(file));
+        recording.start();
+        return recording;
+    }
+
+    /**
+     * A method that plays games until the amount of games has been played or the time budget has been spent, writing
+     * the result of each game as it finishes. With a time budget the games are played in batches, and a batch that has
+     * been started is always finished, so the run can take a little longer than the budget.
+     *
+     * @param games The amount of games to play, or 0 for no limit, in which case there must be a time budget
+     * @param budget The time budget in milliseconds, or 0 for no limit, in which case there must be an amount of games
+     * @param seed The seed of the first game
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public void run(int games, long budget, long seed) throws InterruptedException {
+
+        if (games < 0 || budget < 0 || (games == 0 && budget == 0)) {
+            throw new IllegalArgumentException("Error! A run needs an amount of games or a time budget.");
+        }
+
+        gamesPlayed = 0;
+        wins = 0;
+        writeHeader();
+        runner.setListener(this);
+        long startTime = System.nanoTime();
+        try {
+            if (budget == 0) {
+                play(games, seed);
+            }
+            else {
+                int batchSize = runner.getThreadCount() * GAMES_PER_THREAD;
+                while ((System.nanoTime() - startTime) / 1_000_000 < budget && (games == 0 || gamesPlayed < games)) {
+                    play(games == 0 ? batchSize : Math.min(batchSize, games - gamesPlayed), seed + gamesPlayed);
+                }
+            }
+        }
+        finally {
+            runner.setListener(null);
+            output.flush();
+        }
+        elapsedTime = (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    private void play(int games, long seed) throws InterruptedException {
+
+        firstGame = gamesPlayed;
+        runner.run(suitMode, games, seed);
+        gamesPlayed += games;
+        wins += runner.getWinCount();
+    }
+
+    private void writeHeader() {
+
+        if (format == Format.CSV && !headerWritten) {
+            output.println("game,seed,won,foundations,moves,time_us");
+            headerWritten = true;
+        }
+    }
+
+    /**
+     * A method that writes the result of a game as it finishes. The games are written one at a time, as the threads
+     * of the runner share the output, and each is flushed as soon as it is written so it can be read straight away.
+     */
+
+    @Override
+    public synchronized void gameFinished(int game, SpiderSolitaire played, boolean won, long time) {
+
+        int number = firstGame + game;
+        int foundations = played.getBoard().getFoundationCount();
+        int moves = played.getMoveLog().size();
+        long micros = time / 1000;
+
+        if (format == Format.CSV) {
+            output.print(number);
+            output.print(',');
+            output.print(played.getSeed());
+            output.print(',');
+            output.print(won);
+            output.print(',');
+            output.print(foundations);
+            output.print(',');
+            output.print(moves);
+            output.print(',');
+            output.println(micros);
+        }
+        else {
+            output.print("{\"game\":");
+            output.print(number);
+            output.print(",\"seed\":");
+            output.print(played.getSeed());
+            output.print(",\"won\":");
+            output.print(won);
+            output.print(",\"foundations\":");
+            output.print(foundations);
+            output.print(",\"moves\":");
+            output.print(moves);
+            output.print(",\"time_us\":");
+            output.print(micros);
+            output.println('}');
+        }
+        output.flush();
+    }
+
+    public int getGamesPlayed() {
+
+        return gamesPlayed;
+    }
+
+    public int getWins() {
+
+        return wins;
+    }
+
+    /**
+     * A method for returning how long the last run took.
+     *
+     * @return The wall clock time in milliseconds
+     */
+
+    public long getElapsedTime() {
+
+        return elapsedTime;
+    }
+
+    public ConfidenceInterval getWinRate() {
+
+        return ConfidenceInterval.winRate(wins, gamesPlayed, ConfidenceInterval.Z_95);
+    }
+
+    public double getGamesPerSecond() {
+
+        return gamesPlayed * 1000.0 / Math.max(1, elapsedTime);
+    }
+}
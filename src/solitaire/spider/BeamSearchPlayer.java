@@ -0,0 +1,275 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+
+/**
+ * <h1>solitaire.spider.BeamSearchPlayer</h1>
+ * This is a class for a player that looks ahead before every move instead of making the first move a heuristic asks
+ * for. From the current position it tries every legal move and keeps the best few positions reached, the beam, then
+ * tries every move from those and keeps the best few again, for a set number of moves ahead. The first move on the way
+ * to the best position found is played, as long as that position scores better than any position played since the
+ * last deal. Otherwise the stock is dealt, after filling any empty columns, and the game is over once there is no stock
+ * left. Comparing against the best position played rather than the current one stops the player from wandering
+ * between positions that are no better.
+ *
+ * Positions are scored from the same things the heuristics look at: completed runs, face down cards, same-suit
+ * sequences, cards in order and empty columns. The player never goes back to a position it has already played, so it
+ * cannot move the same cards back and forth. The lookahead is never more than the width of the beam times its depth
+ * positions, so every move costs about the same and a wider or deeper beam trades games per second for wins in a
+ * predictable way.
+ *
+ * The player makes its moves through the game, so they are logged and can be undone. Like the solver, the lookahead
+ * sees cards as they are turned up. A player must only be used by one thread at a time.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class BeamSearchPlayer implements Player {
+
+    public static final int DEFAULT_WIDTH = 8;
+    public static final int DEFAULT_DEPTH = 3;
+
+    private static final int FOUNDATION_SCORE = 1000;
+    private static final int FACE_DOWN_SCORE = -40;
+    private static final int EMPTY_COLUMN_SCORE = 30;
+    private static final int SEQUENCE_SCORE = -10;
+    private static final int ORDER_SCORE = 4;
+
+    private final SpiderSolitaire game;
+    private final Board board;
+    private final int width;
+    private final int depth;
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final HashTranspositionTable played = new HashTranspositionTable();
+    private final HashTranspositionTable searched = new HashTranspositionTable();
+
+    //The positions in the beam, with the first move that led to each of them
+    private Board[] beam;
+    private Board[] nextBeam;
+    private int[] beamRoot;
+    private int[] nextBeamRoot;
+
+    //Every position reached from the beam, as its score in the high half and its index in the low half, so that
+    //sorting the keys sorts the positions by score
+    private final long[] candidateKeys;
+    private final int[] candidateParent;
+    private final int[] candidateMove;
+
+    public BeamSearchPlayer(SpiderSolitaire game, int width, int depth) {
+
+        if (width < 1) {
+            throw new IllegalArgumentException("Error! " + width + " is not a valid beam width.");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("Error! " + depth + " is not a valid search depth.");
+        }
+
+        this.game = game;
+        this.board = game.getBoard();
+        this.width = width;
+        this.depth = depth;
+
+        this.beam = new Board[width];
+        this.nextBeam = new Board[width];
+        for (int i = 0; i < width; i++) {
+            beam[i] = new Board();
+            nextBeam[i] = new Board();
+        }
+        this.beamRoot = new int[width];
+        this.nextBeamRoot = new int[width];
+
+        int maxCandidates = width * MoveGenerator.MAX_MOVES;
+        this.candidateKeys = new long[maxCandidates];
+        this.candidateParent = new int[maxCandidates];
+        this.candidateMove = new int[maxCandidates];
+    }
+
+    public BeamSearchPlayer(SpiderSolitaire game) {
+
+        this(game, DEFAULT_WIDTH, DEFAULT_DEPTH);
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getDepth() {
+
+        return depth;
+    }
+
+    @Override
+    public boolean playGame() {
+
+        played.clear();
+        played.add(board.getHash());
+        int bestScore = score(board);
+
+        for (int moveCount = 0; moveCount < MOVE_LIMIT && !board.isWon(); moveCount++) {
+
+            int move = chooseMove(bestScore);
+            if (move >= 0) {
+                game.makeMove(move);
+                bestScore = Math.max(bestScore, score(board));
+            }
+            else if (board.getStockCount() == 0) {
+                break;
+            }
+            else if (board.canDealStock()) {
+                game.makeMove(Move.deal());
+                bestScore = score(board);
+            }
+            else {
+                //The stock cannot be dealt until the empty columns are filled
+                move = chooseFillingMove();
+                if (move < 0) {
+                    break;
+                }
+                game.makeMove(move);
+            }
+            played.add(board.getHash());
+        }
+        return board.isWon();
+    }
+
+    /**
+     * A method that searches ahead from the current position for the best move to make. The stock deal is never part
+     * of the search, as the cards it deals cannot be planned for.
+     *
+     * @param target The score a position must beat for a move towards it to be worth making
+     * @return The move to make, or -1 if there is no move worth making
+     */
+
+    int chooseMove(int target) {
+
+        int bestScore = Integer.MIN_VALUE;
+        int bestMove = -1;
+
+        searched.clear();
+        searched.add(board.getHash());
+        beam[0].copyFrom(board);
+        int beamSize = 1;
+
+        for (int level = 0; level < depth && beamSize > 0; level++) {
+
+            int candidateCount = 0;
+            for (int i = 0; i < beamSize; i++) {
+
+                Board position = beam[i];
+                int moveCount = generator.generateMoves(position, moves);
+                for (int j = 0; j < moveCount; j++) {
+
+                    if (Move.isDeal(moves[j])) {
+                        continue;
+                    }
+
+                    int record = position.applyMove(moves[j]);
+                    long hash = position.getHash();
+                    if (!played.contains(hash) && searched.add(hash)) {
+
+                        //A win cannot be beaten, so the search stops as soon as one is found
+                        if (position.isWon()) {
+                            position.undoMove(record);
+                            return level == 0 ? moves[j] : beamRoot[i];
+                        }
+
+                        candidateKeys[candidateCount] = (long) score(position) << 32 | candidateCount;
+                        candidateParent[candidateCount] = i;
+                        candidateMove[candidateCount] = moves[j];
+                        candidateCount++;
+                    }
+                    position.undoMove(record);
+                }
+            }
+
+            //The best positions reached make up the next beam
+            Arrays.sort(candidateKeys, 0, candidateCount);
+            int nextSize = Math.min(width, candidateCount);
+            for (int k = 0; k < nextSize; k++) {
+
+                long key = candidateKeys[candidateCount - 1 - k];
+                int candidate = (int) key;
+                int parent = candidateParent[candidate];
+
+                nextBeam[k].copyFrom(beam[parent]);
+                nextBeam[k].applyMove(candidateMove[candidate]);
+                nextBeamRoot[k] = level == 0 ? candidateMove[candidate] : beamRoot[parent];
+
+                if ((int) (key >> 32) > bestScore) {
+                    bestScore = (int) (key >> 32);
+                    bestMove = nextBeamRoot[k];
+                }
+            }
+
+            Board[] boards = beam;
+            beam = nextBeam;
+            nextBeam = boards;
+            int[] roots = beamRoot;
+            beamRoot = nextBeamRoot;
+            nextBeamRoot = roots;
+            beamSize = nextSize;
+        }
+
+        return bestScore > target ? bestMove : -1;
+    }
+
+    /**
+     * A method that finds the best move onto an empty column that does not empty another column, for when the stock
+     * needs to be dealt.
+     *
+     * @return The move to make, or -1 if no column can be filled
+     */
+
+    private int chooseFillingMove() {
+
+        int bestScore = Integer.MIN_VALUE;
+        int bestMove = -1;
+
+        int moveCount = generator.generateMoves(board, moves);
+        for (int i = 0; i < moveCount; i++) {
+
+            int move = moves[i];
+            if (Move.isDeal(move) || !board.isEmpty(Move.destination(move)) ||
+                    Move.cardCount(move) == board.size(Move.origin(move))) {
+                continue;
+            }
+
+            int record = board.applyMove(move);
+            int score = score(board);
+            if (score > bestScore && !played.contains(board.getHash())) {
+                bestScore = score;
+                bestMove = move;
+            }
+            board.undoMove(record);
+        }
+        return bestMove;
+    }
+
+    /**
+     * A method that scores a position, where a higher score is better.
+     *
+     * @param position The position to score
+     * @return The score of the position
+     */
+
+    static int score(Board position) {
+
+        int score = position.getFoundationCount() * FOUNDATION_SCORE;
+        for (int i = 0; i < Board.TABLEAU_SIZE; i++) {
+
+            if (position.isEmpty(i)) {
+                score += EMPTY_COLUMN_SCORE;
+            }
+            else {
+                score += position.countFaceDown(i) * FACE_DOWN_SCORE + position.countSequences(i) * SEQUENCE_SCORE +
+                        position.orderLength(i) * ORDER_SCORE;
+            }
+        }
+        return score;
+    }
+}
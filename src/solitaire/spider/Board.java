@@ -0,0 +1,991 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * <h1>solitaire.spider.Board</h1>
+ * This is a class for holding the state of a game of spider solitaire in a compact form. Every card is stored as a
+ * single byte holding its rank (bits 0-3), its suit (bits 4-5) and whether it is face up (bit 6). A byte of 0 means
+ * there is no card.
+ *
+ * The whole board is held in one byte array: each of the 10 tableau columns has a fixed block of COLUMN_CAPACITY cards
+ * followed by the length of every column, the 5 stock piles of 10 cards, the amount of stock piles left, the amount
+ * of completed foundations and the suit of each completed foundation (with a mask of which of its cards were face down,
+ * so the run can be put back when a move is undone). This means a board can be copied with a single array copy, which
+ * is what the simulations and solvers rely on.
+ *
+ * Alongside the cards the array also keeps some facts about every column that the sorting algorithm asks for over and
+ * over. For each card there is the length of the same-suit sequence and of the any-suit order that ends at it (packed
+ * into one byte) and the amount of same-suit sequences among the face up cards from the bottom of the face up cards up
+ * to it, and for each column there is the amount of face down cards. These only depend on the card underneath, so they
+ * are updated as each card is pushed, popped or turned over and every query about a column is a single lookup.
+ *
+ * Every board also keeps a Zobrist hash of its position, which the solvers use to recognise positions they have already
+ * searched. Each card in each place on the tableau, each amount of stock piles left and each amount of foundations has
+ * its own random key, and the hash is all of the keys for the board XORed together. The keys are worked out from their
+ * index with the SplitMix64 mixing function rather than stored, and the hash is updated as each card is placed, removed
+ * or turned over, so it never has to be worked out from scratch.
+ *
+ * The rules of the game are checked here so that they can be run without creating any Card objects.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-06-11
+ */
+
+public class Board {
+
+    public static final int TABLEAU_SIZE = 10;
+    public static final int FOUNDATION_SIZE = 8;
+    public static final int STOCK_SIZE = 5;
+    public static final int STOCK_PILE_SIZE = 10;
+    public static final int DECK_SIZE = 104;
+    public static final int RUN_LENGTH = 13;
+
+    //A column can have at most 5 face down cards. Face up cards can only be out of order where they were dealt, which
+    //happens once when the game is dealt and once for each of the 5 stock deals, and each of those 6 runs can be at
+    //most 13 cards long (King to Ace). This means no column can ever hold more than 5 + 6 * 13 = 83 cards.
+    public static final int COLUMN_CAPACITY = 84;
+
+    private static final int RANK_MASK = 0x0F;
+    private static final int SUIT_SHIFT = 4;
+    private static final int SUIT_MASK = 0x03;
+    private static final int FACE_UP = 0x40;
+    private static final int LENGTH_MASK = 0x0F;
+    private static final int ORDER_SHIFT = 4;
+
+    //Offsets of each part of the board in the state array
+    private static final int COLUMNS = 0;
+    private static final int LENGTHS = COLUMNS + TABLEAU_SIZE * COLUMN_CAPACITY;
+    private static final int STOCK = LENGTHS + TABLEAU_SIZE;
+    private static final int STOCK_COUNT = STOCK + STOCK_SIZE * STOCK_PILE_SIZE;
+    private static final int FOUNDATION_COUNT = STOCK_COUNT + 1;
+    private static final int FOUNDATIONS = FOUNDATION_COUNT + 1;
+    private static final int FOUNDATION_FACE_DOWN = FOUNDATIONS + FOUNDATION_SIZE;
+    private static final int RUNS = FOUNDATION_FACE_DOWN + FOUNDATION_SIZE * 2;
+    private static final int SEQUENCES = RUNS + TABLEAU_SIZE * COLUMN_CAPACITY;
+    private static final int FACE_DOWN_COUNTS = SEQUENCES + TABLEAU_SIZE * COLUMN_CAPACITY;
+    public static final int STATE_SIZE = FACE_DOWN_COUNTS + TABLEAU_SIZE;
+
+    //The keys of the hash are numbered with the cards first, then the stock counts and then the foundation counts
+    private static final int STOCK_KEYS = TABLEAU_SIZE * COLUMN_CAPACITY << 7;
+    private static final int FOUNDATION_KEYS = STOCK_KEYS + STOCK_SIZE + 1;
+
+    private final byte[] state = new byte[STATE_SIZE];
+    private long hash;
+
+    /**
+     * A method for creating the byte that represents a card.
+     *
+     * @param rank The rank of the card (1-13)
+     * @param suit The index of the suit of the card (0-3), as listed in Card.SUITS
+     * @param faceUp Whether or not the card is face up
+     * @return A byte holding the rank, suit and face of the card
+     */
+
+    public static byte card(int rank, int suit, boolean faceUp) {
+
+        if (rank < 1 || rank > 13) {
+            throw new IllegalArgumentException("Error! " + rank + " is not a valid rank.");
+        }
+        if (suit < 0 || suit > 3) {
+            throw new IllegalArgumentException("Error! " + suit + " is not a valid suit.");
+        }
+
+        return (byte) (rank | suit << SUIT_SHIFT | (faceUp ? FACE_UP : 0));
+    }
+
+    public static int rank(byte card) {
+
+        return card & RANK_MASK;
+    }
+
+    public static int suit(byte card) {
+
+        return card >> SUIT_SHIFT & SUIT_MASK;
+    }
+
+    public static boolean isFaceUp(byte card) {
+
+        return (card & FACE_UP) != 0;
+    }
+
+    /**
+     * A method for turning a card byte face up.
+     *
+     * @param card The byte of the card to be turned
+     * @return The same card facing upwards
+     */
+
+    public static byte faceUp(byte card) {
+
+        return (byte) (card | FACE_UP);
+    }
+
+    /**
+     * A method for turning a card byte face down.
+     *
+     * @param card The byte of the card to be turned
+     * @return The same card facing downwards
+     */
+
+    public static byte faceDown(byte card) {
+
+        return (byte) (card & ~FACE_UP);
+    }
+
+    /**
+     * A method that checks if one card can sit on top of another as part of a same-suit sequence: the lower card must
+     * be one rank lower than, and the same suit as, the face up card beneath it.
+     *
+     * @param lower The card on top
+     * @param upper The card underneath
+     * @return Returns true if the two cards form part of a same-suit sequence
+     */
+
+    public static boolean isInSequence(byte lower, byte upper) {
+
+        return rank(upper) == rank(lower) + 1 && suit(upper) == suit(lower) && isFaceUp(upper);
+    }
+
+    /**
+     * A method for making this board an exact copy of another board. This is a single array copy.
+     *
+     * @param other The board to be copied
+     */
+
+    public void copyFrom(Board other) {
+
+        System.arraycopy(other.state, 0, state, 0, STATE_SIZE);
+        hash = other.hash;
+    }
+
+    /**
+     * A method for creating a new board that is an exact copy of this one.
+     *
+     * @return A copy of the board
+     */
+
+    public Board copy() {
+
+        Board copy = new Board();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * A method that removes every card from the board.
+     *
+     */
+
+    public void clear() {
+
+        Arrays.fill(state, (byte) 0);
+        hash = 0;
+    }
+
+    /**
+     * A method for dealing a deck of cards onto the board. The first four columns are dealt six cards and the other
+     * six columns are dealt five cards, with the last card on each column turned face up. The remaining 50 cards form
+     * the 5 stock piles. Cards are dealt in the order they appear in the deck.
+     *
+     * @param deck An array of 104 face down cards
+     */
+
+    public void deal(byte[] deck) {
+
+        if (deck.length != DECK_SIZE) {
+            throw new IllegalArgumentException("Error! A deck must have " + DECK_SIZE + " cards.");
+        }
+
+        clear();
+        int next = 0;
+        for (int i = 0; i < TABLEAU_SIZE; i++) {
+
+            int cardCount = i < 4 ? 6 : 5;
+            for (int j = 0; j < cardCount; j++) {
+                push(i, faceDown(deck[next++]));
+            }
+            turnUp(i);
+        }
+
+        for (int i = 0; i < STOCK_SIZE * STOCK_PILE_SIZE; i++) {
+            state[STOCK + i] = faceDown(deck[next++]);
+        }
+        setStockCount(STOCK_SIZE);
+    }
+
+    /**
+     * A method for returning the amount of cards in a tableau column.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of cards in the column
+     */
+
+    public int size(int column) {
+
+        return state[LENGTHS + column];
+    }
+
+    public boolean isEmpty(int column) {
+
+        return state[LENGTHS + column] == 0;
+    }
+
+    /**
+     * A method for reading a card in a tableau column without removing it.
+     *
+     * @param column The index of the tableau column
+     * @param index The position of the card, where 0 is the bottom of the column
+     * @return The byte of the card
+     */
+
+    public byte cardAt(int column, int index) {
+
+        if (index < 0 || index >= size(column)) {
+            throw new IndexOutOfBoundsException("Error! " + index + " is not a card in column " + column + ".");
+        }
+
+        return state[COLUMNS + column * COLUMN_CAPACITY + index];
+    }
+
+    /**
+     * A method that counts the cards in the same-suit sequence that ends at a card in a column. The count starts at the
+     * given card and works down the column for as long as each card underneath is face up, one rank higher and of the
+     * same suit.
+     *
+     * @param column The index of the tableau column
+     * @param index The position of the card the sequence ends at, where 0 is the bottom of the column
+     * @return The amount of cards in the sequence, including the given card
+     */
+
+    public int sequenceLength(int column, int index) {
+
+        if (index < 0 || index >= size(column)) {
+            throw new IndexOutOfBoundsException("Error! " + index + " is not a card in column " + column + ".");
+        }
+
+        return state[RUNS + column * COLUMN_CAPACITY + index] & LENGTH_MASK;
+    }
+
+    /**
+     * A method that counts the cards in the same-suit sequence on top of a column.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of cards in the sequence on top of the column, or 0 if the column is empty
+     */
+
+    public int sequenceLength(int column) {
+
+        int size = size(column);
+        return size == 0 ? 0 : state[RUNS + column * COLUMN_CAPACITY + size - 1] & LENGTH_MASK;
+    }
+
+    /**
+     * A method that counts the cards on top of a column that run in descending rank, regardless of suit. Every card
+     * underneath the top card must be face up.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of cards in order on top of the column, or 0 if the column is empty
+     */
+
+    public int orderLength(int column) {
+
+        int size = size(column);
+        return size == 0 ? 0 : (state[RUNS + column * COLUMN_CAPACITY + size - 1] >> ORDER_SHIFT) & LENGTH_MASK;
+    }
+
+    /**
+     * A method that counts the face down cards in a column.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of face down cards
+     */
+
+    public int countFaceDown(int column) {
+
+        return state[FACE_DOWN_COUNTS + column];
+    }
+
+    /**
+     * A method that counts the face up cards in a column.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of face up cards
+     */
+
+    public int countFaceUp(int column) {
+
+        return size(column) - countFaceDown(column);
+    }
+
+    /**
+     * A method that counts the same-suit sequences (including single cards out of sequence) among the face up cards on
+     * top of a column. Face down cards are not counted.
+     *
+     * @param column The index of the tableau column
+     * @return The amount of sequences, or 0 if the card on top of the column is face down
+     */
+
+    public int countSequences(int column) {
+
+        int size = size(column);
+        return size == 0 ? 0 : state[SEQUENCES + column * COLUMN_CAPACITY + size - 1];
+    }
+
+    /**
+     * A method that works out the sequence, order and sequence count of a card from the card underneath it. This must
+     * be called whenever a card is placed at a position, after the cards underneath it are up to date.
+     *
+     * @param column The index of the tableau column
+     * @param index The position of the card, where 0 is the bottom of the column
+     */
+
+    private void link(int column, int index) {
+
+        int offset = column * COLUMN_CAPACITY + index;
+        byte card = state[COLUMNS + offset];
+        int sequenceLength = 1;
+        int orderLength = 1;
+        int sequences = 0;
+
+        if (index > 0) {
+
+            byte upper = state[COLUMNS + offset - 1];
+            int upperRun = state[RUNS + offset - 1];
+            if (isInSequence(card, upper)) {
+                sequenceLength = (upperRun & LENGTH_MASK) + 1;
+            }
+            if (rank(upper) == rank(card) + 1 && isFaceUp(upper)) {
+                orderLength = ((upperRun >> ORDER_SHIFT) & LENGTH_MASK) + 1;
+            }
+            sequences = state[SEQUENCES + offset - 1];
+        }
+        if (isFaceUp(card)) {
+            state[SEQUENCES + offset] = (byte) (sequenceLength == 1 ? sequences + 1 : sequences);
+        }
+        else {
+            state[SEQUENCES + offset] = 0;
+        }
+        state[RUNS + offset] = (byte) (orderLength << ORDER_SHIFT | sequenceLength);
+    }
+
+    /**
+     * A method that removes the cards from a position in a column to the top, along with their sequence and order
+     * lengths, and takes any face down cards from the column's count.
+     *
+     * @param column The index of the tableau column
+     * @param index The position of the lowest card to be removed
+     */
+
+    private void truncate(int column, int index) {
+
+        int size = size(column);
+        int offset = column * COLUMN_CAPACITY;
+        int faceDown = 0;
+        for (int i = index; i < size; i++) {
+
+            byte card = state[COLUMNS + offset + i];
+            if (!isFaceUp(card)) {
+                faceDown++;
+            }
+            hash ^= cardKey(column, i, card);
+        }
+        Arrays.fill(state, COLUMNS + offset + index, COLUMNS + offset + size, (byte) 0);
+        Arrays.fill(state, RUNS + offset + index, RUNS + offset + size, (byte) 0);
+        Arrays.fill(state, SEQUENCES + offset + index, SEQUENCES + offset + size, (byte) 0);
+        state[FACE_DOWN_COUNTS + column] -= faceDown;
+        state[LENGTHS + column] = (byte) index;
+    }
+
+    /**
+     * A method for reading the card on top of a tableau column without removing it.
+     *
+     * @param column The index of the tableau column
+     * @return The byte of the card on top of the column
+     * @throws EmptyStackException If the column is empty, in the same way as Stack.peek()
+     */
+
+    public byte top(int column) {
+
+        int size = size(column);
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
+        return state[COLUMNS + column * COLUMN_CAPACITY + size - 1];
+    }
+
+    /**
+     * A method for placing a card on top of a tableau column.
+     *
+     * @param column The index of the tableau column
+     * @param card The byte of the card
+     */
+
+    public void push(int column, byte card) {
+
+        int size = size(column);
+        if (size == COLUMN_CAPACITY) {
+            throw new IllegalStateException("Error! Column " + column + " is full.");
+        }
+
+        state[COLUMNS + column * COLUMN_CAPACITY + size] = card;
+        state[LENGTHS + column] = (byte) (size + 1);
+        hash ^= cardKey(column, size, card);
+        if (!isFaceUp(card)) {
+            state[FACE_DOWN_COUNTS + column]++;
+        }
+        link(column, size);
+    }
+
+    /**
+     * A method for removing the card on top of a tableau column.
+     *
+     * @param column The index of the tableau column
+     * @return The byte of the card that was removed
+     * @throws EmptyStackException If the column is empty, in the same way as Stack.pop()
+     */
+
+    public byte pop(int column) {
+
+        int size = size(column);
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
+        byte card = state[COLUMNS + column * COLUMN_CAPACITY + size - 1];
+        truncate(column, size - 1);
+        return card;
+    }
+
+    /**
+     * A method that turns the card on top of a tableau column face up.
+     *
+     * @param column The index of the tableau column
+     * @return Returns true if a face down card was turned over
+     */
+
+    public boolean turnUp(int column) {
+
+        int size = size(column);
+        if (size == 0) {
+            return false;
+        }
+
+        int index = COLUMNS + column * COLUMN_CAPACITY + size - 1;
+        if (isFaceUp(state[index])) {
+            return false;
+        }
+        hash ^= cardKey(column, size - 1, state[index]) ^ cardKey(column, size - 1, faceUp(state[index]));
+        state[index] = faceUp(state[index]);
+        state[FACE_DOWN_COUNTS + column]--;
+        link(column, size - 1);
+        return true;
+    }
+
+    /**
+     * A method that turns the card on top of a tableau column face down. This is only used to undo a move.
+     *
+     * @param column The index of the tableau column
+     */
+
+    private void turnDown(int column) {
+
+        int size = size(column);
+        int index = COLUMNS + column * COLUMN_CAPACITY + size - 1;
+        hash ^= cardKey(column, size - 1, state[index]) ^ cardKey(column, size - 1, faceDown(state[index]));
+        state[index] = faceDown(state[index]);
+        state[FACE_DOWN_COUNTS + column]++;
+        link(column, size - 1);
+    }
+
+    /**
+     * A method for returning how many of the 5 stock piles are left to be dealt.
+     *
+     * @return The amount of stock piles left
+     */
+
+    public int getStockCount() {
+
+        return state[STOCK_COUNT];
+    }
+
+    private void setStockCount(int count) {
+
+        hash ^= countKey(STOCK_KEYS, getStockCount()) ^ countKey(STOCK_KEYS, count);
+        state[STOCK_COUNT] = (byte) count;
+    }
+
+    /**
+     * A method for reading a card in a stock pile. Piles that have already been dealt are empty.
+     *
+     * @param pile The index of the stock pile
+     * @param index The position of the card in the pile, where 0 is the bottom of the pile
+     * @return The byte of the card
+     */
+
+    public byte stockCardAt(int pile, int index) {
+
+        if (pile >= getStockCount() || index < 0 || index >= STOCK_PILE_SIZE) {
+            throw new IndexOutOfBoundsException("Error! " + index + " is not a card in stock pile " + pile + ".");
+        }
+
+        return state[STOCK + pile * STOCK_PILE_SIZE + index];
+    }
+
+    /**
+     * A method that checks if the stock can be dealt from. There must be stock left and no empty tableau columns.
+     *
+     * @return Returns true if a stock deal can be made
+     */
+
+    public boolean canDealStock() {
+
+        if (getStockCount() == 0) {
+            return false;
+        }
+        for (int i = 0; i < TABLEAU_SIZE; i++) {
+            if (isEmpty(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A method for dealing a single card face up on top of each tableau column from the last stock pile. No checks are
+     * made, so canDealStock() should be called first.
+     *
+     */
+
+    public void dealStock() {
+
+        int pile = getStockCount() - 1;
+        for (int i = 0; i < TABLEAU_SIZE; i++) {
+
+            int index = STOCK + pile * STOCK_PILE_SIZE + STOCK_PILE_SIZE - 1 - i;
+            push(i, faceUp(state[index]));
+            state[index] = 0;
+        }
+        setStockCount(pile);
+    }
+
+    /**
+     * A method that puts the card on top of each tableau column back onto the stock, undoing dealStock().
+     *
+     */
+
+    private void undealStock() {
+
+        int pile = getStockCount();
+        for (int i = TABLEAU_SIZE - 1; i >= 0; i--) {
+            state[STOCK + pile * STOCK_PILE_SIZE + STOCK_PILE_SIZE - 1 - i] = faceDown(pop(i));
+        }
+        setStockCount(pile + 1);
+    }
+
+    /**
+     * A method that counts the cards that cannot be seen, which are the face down cards of the tableau and the cards
+     * left in the stock.
+     *
+     * @return The amount of hidden cards
+     */
+
+    public int countHidden() {
+
+        int hidden = getStockCount() * STOCK_PILE_SIZE;
+        for (int i = 0; i < TABLEAU_SIZE; i++) {
+            hidden += countFaceDown(i);
+        }
+        return hidden;
+    }
+
+    /**
+     * A method that replaces every card that cannot be seen with cards taken in order from an array, starting with the
+     * face down cards of the first column and ending with the top of the last stock pile. This is used to make up a
+     * layout of the hidden cards that agrees with everything that can be seen, so the cards in the array should be a
+     * shuffle of the cards that are not on show.
+     *
+     * @param cards At least countHidden() cards, which can be face up or face down
+     */
+
+    void replaceHiddenCards(byte[] cards) {
+
+        int next = 0;
+        for (int column = 0; column < TABLEAU_SIZE; column++) {
+
+            int size = size(column);
+            int offset = COLUMNS + column * COLUMN_CAPACITY;
+            int first = -1;
+            for (int index = 0; index < size; index++) {
+
+                byte card = state[offset + index];
+                if (!isFaceUp(card)) {
+
+                    byte replacement = faceDown(cards[next++]);
+                    hash ^= cardKey(column, index, card) ^ cardKey(column, index, replacement);
+                    state[offset + index] = replacement;
+                    if (first < 0) {
+                        first = index;
+                    }
+                }
+            }
+
+            //The facts of every card from the lowest replaced card up depend on the cards underneath
+            for (int index = first; first >= 0 && index < size; index++) {
+                link(column, index);
+            }
+        }
+
+        int stockCards = getStockCount() * STOCK_PILE_SIZE;
+        for (int i = 0; i < stockCards; i++) {
+            state[STOCK + i] = faceDown(cards[next++]);
+        }
+    }
+
+    /**
+     * A method for checking that a number of cards from the top of a column can be moved together. The cards must be
+     * face up and run in descending rank and be of the same suit. A single card can always be moved.
+     *
+     * @param column The index of the tableau column the cards will be removed from
+     * @param cardCount The amount of cards to be removed from the top of the column
+     * @return Returns true if the cards can be moved
+     */
+
+    public boolean canRemoveCards(int column, int cardCount) {
+
+        return cardCount >= 1 && cardCount <= sequenceLength(column);
+    }
+
+    /**
+     * A method for checking if cards from one column can be placed on another column. The destination must be empty
+     * or have a card on top that is one rank higher than the bottom card being moved, regardless of suit.
+     *
+     * @param column The index of the tableau column the cards will be removed from
+     * @param cardCount The amount of cards to be moved
+     * @param destination The index of the tableau column the cards will be added to
+     * @return Returns true if the cards can be added to the destination
+     */
+
+    public boolean canAddCards(int column, int cardCount, int destination) {
+
+        if (isEmpty(destination)) {
+            return true;
+        }
+
+        byte bottomCard = cardAt(column, size(column) - cardCount);
+        return rank(top(destination)) == rank(bottomCard) + 1;
+    }
+
+    /**
+     * A method that moves cards from the top of one column to the top of another. No checks are made, so
+     * canRemoveCards() and canAddCards() should be called first.
+     *
+     * @param column The index of the tableau column the cards are taken from
+     * @param cardCount The amount of cards to be moved
+     * @param destination The index of the tableau column the cards are added to
+     */
+
+    public void moveCards(int column, int cardCount, int destination) {
+
+        int originSize = size(column);
+        int destinationSize = size(destination);
+        if (destinationSize + cardCount > COLUMN_CAPACITY) {
+            throw new IllegalStateException("Error! Column " + destination + " is full.");
+        }
+
+        int origin = COLUMNS + column * COLUMN_CAPACITY + originSize - cardCount;
+        for (int i = 0; i < cardCount; i++) {
+            push(destination, state[origin + i]);
+        }
+        truncate(column, originSize - cardCount);
+    }
+
+    /**
+     * A method for checking if the top 13 cards of a column run from Ace to King in the same suit and can be added to
+     * the foundation.
+     *
+     * @param column The index of the tableau column
+     * @return Returns true if the cards can be added to the foundation
+     */
+
+    public boolean canAddToFoundation(int column) {
+
+        int size = size(column);
+        if (size < RUN_LENGTH || getFoundationCount() == FOUNDATION_SIZE) {
+            return false;
+        }
+
+        int base = COLUMNS + column * COLUMN_CAPACITY + size - RUN_LENGTH;
+        byte ace = state[base + RUN_LENGTH - 1];
+        if (rank(ace) != 1) {
+            return false;
+        }
+        for (int i = 0; i < RUN_LENGTH - 1; i++) {
+
+            byte card = state[base + i];
+            if (rank(card) != RUN_LENGTH - i || suit(card) != suit(ace)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A method that removes the top 13 cards of a column to the next empty foundation. No checks are made, so
+     * canAddToFoundation() should be called first.
+     *
+     * @param column The index of the tableau column
+     */
+
+    public void addToFoundation(int column) {
+
+        int suit = suit(top(column));
+        int base = COLUMNS + column * COLUMN_CAPACITY + size(column) - RUN_LENGTH;
+        //The run does not have to be face up, so the cards that were face down are remembered in case it is undone
+        int faceDown = 0;
+        for (int i = 0; i < RUN_LENGTH; i++) {
+            if (!isFaceUp(state[base + i])) {
+                faceDown |= 1 << i;
+            }
+        }
+
+        truncate(column, size(column) - RUN_LENGTH);
+        addFoundation(suit);
+        state[FOUNDATION_FACE_DOWN + (getFoundationCount() - 1) * 2] = (byte) faceDown;
+        state[FOUNDATION_FACE_DOWN + (getFoundationCount() - 1) * 2 + 1] = (byte) (faceDown >> 8);
+    }
+
+    /**
+     * A method that fills the next empty foundation with a run of the given suit.
+     *
+     * @param suit The index of the suit of the completed run
+     */
+
+    public void addFoundation(int suit) {
+
+        int count = getFoundationCount();
+        if (count == FOUNDATION_SIZE) {
+            throw new IllegalStateException("Error! All of the foundations are full.");
+        }
+
+        state[FOUNDATIONS + count] = (byte) suit;
+        setFoundationCount(count + 1);
+    }
+
+    /**
+     * A method that takes the last completed foundation and places its run back on top of a column, undoing
+     * addToFoundation().
+     *
+     * @param column The index of the tableau column
+     */
+
+    private void removeFoundation(int column) {
+
+        int count = getFoundationCount() - 1;
+        int suit = state[FOUNDATIONS + count];
+        int faceDown = (state[FOUNDATION_FACE_DOWN + count * 2] & 0xFF) |
+                (state[FOUNDATION_FACE_DOWN + count * 2 + 1] & 0xFF) << 8;
+        state[FOUNDATIONS + count] = 0;
+        state[FOUNDATION_FACE_DOWN + count * 2] = 0;
+        state[FOUNDATION_FACE_DOWN + count * 2 + 1] = 0;
+        setFoundationCount(count);
+        for (int i = 0; i < RUN_LENGTH; i++) {
+            push(column, card(RUN_LENGTH - i, suit, (faceDown & 1 << i) == 0));
+        }
+    }
+
+    /**
+     * A method for returning how many foundations have been filled.
+     *
+     * @return The amount of completed foundations
+     */
+
+    public int getFoundationCount() {
+
+        return state[FOUNDATION_COUNT];
+    }
+
+    private void setFoundationCount(int count) {
+
+        hash ^= countKey(FOUNDATION_KEYS, getFoundationCount()) ^ countKey(FOUNDATION_KEYS, count);
+        state[FOUNDATION_COUNT] = (byte) count;
+    }
+
+    /**
+     * A method for returning the suit of a completed foundation.
+     *
+     * @param index The index of the foundation
+     * @return The index of the suit of the foundation
+     */
+
+    public int getFoundationSuit(int index) {
+
+        if (index < 0 || index >= getFoundationCount()) {
+            throw new IndexOutOfBoundsException("Error! Foundation " + index + " has not been completed.");
+        }
+
+        return state[FOUNDATIONS + index];
+    }
+
+    /**
+     * A method that makes a move on the board. A completed run on the destination column is sent to the foundation and
+     * any face down card left on top of either column is turned up. No checks are made on whether the move is legal.
+     *
+     * @param move A move created by the Move class
+     * @return The move with flags recording what happened, to be passed to undoMove()
+     */
+
+    public int applyMove(int move) {
+
+        if (Move.isDeal(move)) {
+            dealStock();
+            return Move.deal();
+        }
+        if (Move.isTurn(move)) {
+            if (!turnUp(Move.origin(move))) {
+                throw new IllegalArgumentException("Error! Column " + Move.origin(move) + " has no card to turn up.");
+            }
+            return Move.turn(Move.origin(move));
+        }
+
+        int origin = Move.origin(move);
+        int destination = Move.destination(move);
+        int record = move & ~Move.RESULT_FLAGS;
+
+        moveCards(origin, Move.cardCount(move), destination);
+        if (canAddToFoundation(destination)) {
+
+            addToFoundation(destination);
+            record |= Move.FOUNDATION;
+            if (turnUp(destination)) {
+                record |= Move.TURNED_DESTINATION;
+            }
+        }
+        if (turnUp(origin)) {
+            record |= Move.TURNED_ORIGIN;
+        }
+        return record;
+    }
+
+    /**
+     * A method that reverses a move made by applyMove(). Moves must be undone in the reverse order they were made.
+     *
+     * @param move The move returned by applyMove()
+     */
+
+    public void undoMove(int move) {
+
+        if (Move.isDeal(move)) {
+            undealStock();
+            return;
+        }
+        if (Move.isTurn(move)) {
+            turnDown(Move.origin(move));
+            return;
+        }
+
+        int origin = Move.origin(move);
+        int destination = Move.destination(move);
+        if (Move.hasFlag(move, Move.TURNED_ORIGIN)) {
+            turnDown(origin);
+        }
+        if (Move.hasFlag(move, Move.FOUNDATION)) {
+
+            if (Move.hasFlag(move, Move.TURNED_DESTINATION)) {
+                turnDown(destination);
+            }
+            removeFoundation(destination);
+        }
+        moveCards(destination, Move.cardCount(move), origin);
+    }
+
+    /**
+     * A method that checks if the game has been won, which is when all 8 foundations have been filled.
+     *
+     * @return Returns true if the game is won
+     */
+
+    public boolean isWon() {
+
+        return getFoundationCount() == FOUNDATION_SIZE;
+    }
+
+    /**
+     * A method for returning the Zobrist hash of the position. Two boards holding the same position always have the
+     * same hash, however the position was reached.
+     *
+     * @return The hash of the board
+     */
+
+    public long getHash() {
+
+        return hash;
+    }
+
+    /**
+     * A method that works out the hash of the position from scratch, to check the hash that is kept up to date.
+     *
+     * @return The hash of the board
+     */
+
+    long computeHash() {
+
+        long computed = countKey(STOCK_KEYS, getStockCount()) ^ countKey(FOUNDATION_KEYS, getFoundationCount());
+        for (int column = 0; column < TABLEAU_SIZE; column++) {
+            for (int index = 0; index < size(column); index++) {
+                computed ^= cardKey(column, index, cardAt(column, index));
+            }
+        }
+        return computed;
+    }
+
+    private static long cardKey(int column, int index, byte card) {
+
+        return key((column * COLUMN_CAPACITY + index) << 7 | card);
+    }
+
+    //An empty board has a hash of 0, so a count of 0 has no key
+    private static long countKey(int base, int count) {
+
+        return count == 0 ? 0 : key(base + count);
+    }
+
+    /**
+     * A method for working out the random key with a given index. This is the mixing function of the SplitMix64
+     * generator, which spreads the bits of its input evenly over the whole result.
+     *
+     * @param index The index of the key
+     * @return The key
+     */
+
+    private static long key(int index) {
+
+        long z = (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A method for checking if two boards hold exactly the same game. The column facts are worked out from the cards,
+     * so two boards with the same cards are always equal.
+     *
+     * @param other The object to compare against
+     * @return Returns true if the other object is a board in the same state
+     */
+
+    @Override
+    public boolean equals(Object other) {
+
+        return other instanceof Board && Arrays.equals(state, ((Board) other).state);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Arrays.hashCode(state);
+    }
+}
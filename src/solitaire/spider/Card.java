@@ -7,6 +7,10 @@ import java.net.URL;
  * This is a class for creating card objects. Cards have a rank (1-13), a suit (heart, diamond, spade or club) and are
  * either face up or face down.
  *
+ * The cards read from a game, such as those in its tableau stacks, are shared values from valueOf() rather than the
+ * cards that were dealt, so they cannot be turned over. A tableau card is turned over through the game instead, with
+ * SpiderSolitaire.turnUpCard().
+ *
  * @author Thomas Harwin
  * @version 1.0
  * @since 2018-06-11
@@ -14,12 +18,40 @@ import java.net.URL;
 
 public class Card {
 
+    //The suits in the order of their index in a Board card byte. A one suit game only uses spades and a two suit game
+    //uses spades and hearts.
+    public static final String[] SUITS = {"s", "h", "c", "d"};
+    //The index of each suit in SUITS
+    public static final int SPADES = 0;
+    public static final int HEARTS = 1;
+    public static final int CLUBS = 2;
+    public static final int DIAMONDS = 3;
+
+    //One shared card for every card byte a Board can hold, so cards can be read from a board without creating objects
+    private static final Card[] SHARED_CARDS = new Card[128];
+
+    static {
+        for (int suit = 0; suit < SUITS.length; suit++) {
+            for (int rank = 1; rank <= 13; rank++) {
+
+                SHARED_CARDS[Board.card(rank, suit, false)] = new Card(rank, SUITS[suit], false, true);
+                SHARED_CARDS[Board.card(rank, suit, true)] = new Card(rank, SUITS[suit], true, true);
+            }
+        }
+    }
+
     private final int rank;
     private final String suit;
+    private final boolean shared;
     private boolean isFaceUp = false;
 
     public Card(int rank, String suit) {
 
+        this(rank, suit, false, false);
+    }
+
+    private Card(int rank, String suit, boolean isFaceUp, boolean shared) {
+
         if (rank < 1 || rank > 13) {
             throw new IllegalArgumentException("You must specify a valid rank.");
         }
@@ -30,6 +62,43 @@ public class Card {
 
         this.rank = rank;
         this.suit = suit;
+        this.isFaceUp = isFaceUp;
+        this.shared = shared;
+    }
+
+    /**
+     * A method for returning the shared card object for a card byte from a Board. Shared cards cannot be turned over;
+     * the card should be turned on the board instead.
+     *
+     * @param card The byte of the card
+     * @return The shared Card object with the same rank, suit and face as the byte
+     */
+
+    public static Card valueOf(byte card) {
+
+        Card sharedCard = card > 0 ? SHARED_CARDS[card] : null;
+        if (sharedCard == null) {
+            throw new IllegalArgumentException("Error! " + card + " is not a valid card.");
+        }
+
+        return sharedCard;
+    }
+
+    /**
+     * A method for returning the index of a suit in SUITS.
+     *
+     * @param suit The suit (h, d, s or c)
+     * @return The index of the suit
+     */
+
+    public static int suitIndex(String suit) {
+
+        for (int i = 0; i < SUITS.length; i++) {
+            if (SUITS[i].equals(suit)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("You must specify a valid suit.");
     }
 
     public int getRank() {
@@ -50,13 +119,31 @@ public class Card {
     /**
      * A method to turn a card over so it is facing upwards
      *
+     * @throws UnsupportedOperationException If the card was read from a game, as it is shared by every card of the same
+     *                                       rank, suit and face
      */
 
     public void turnUp() {
 
+        if (shared) {
+            throw new UnsupportedOperationException("A card read from a game must be turned over with " +
+                    "SpiderSolitaire.turnUpCard().");
+        }
+
         isFaceUp = true;
     }
 
+    /**
+     * A method for returning the byte that represents this card on a Board.
+     *
+     * @return A byte holding the rank, suit and face of the card
+     */
+
+    public byte getCode() {
+
+        return Board.card(rank, suitIndex(suit), isFaceUp);
+    }
+
     /**
      * A method to return the directory path of a card so the appropriate image can be displayed
      *
@@ -65,9 +152,23 @@ public class Card {
 
     public URL getFileName() {
 
+        return getClass().getResource(imagePath(rank, suit, isFaceUp));
+    }
+
+    /**
+     * A method for returning the path of the image of a card on the classpath.
+     *
+     * @param rank The rank of the card (1-13)
+     * @param suit The suit of the card (h, d, s or c)
+     * @param faceUp Whether or not the card is face up, as every face down card shows the back
+     * @return A String with the file's name and directory path
+     */
+
+    static String imagePath(int rank, String suit, boolean faceUp) {
+
         String filename;
 
-        if (!isFaceUp) {
+        if (!faceUp) {
 
             filename = "/cards/back.gif";
         }
@@ -101,7 +202,6 @@ public class Card {
             }
         }
 
-        URL card = getClass().getResource(filename);
-        return card;
+        return filename;
     }
 }
\ No newline at end of file
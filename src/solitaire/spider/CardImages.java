@@ -0,0 +1,196 @@
+package solitaire.spider;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * <h1>solitaire.spider.CardImages</h1>
+ * This is a class for the images of the cards, decoded once when the GUI starts and then drawn from memory. The 52
+ * faces and the back are read from the classpath and copied into images in the format of the screen, so drawing a card
+ * is a plain copy rather than a decode, a lookup of the file and a conversion of the colours on every paint.
+ *
+ * The images are kept by the byte a Board uses for a card, which holds its rank, suit and face, so every face down
+ * card shares the one image of the back. Only the corners of a card are transparent, so each image is also kept
+ * without its transparency and the rows between the corners are copied from that, which is much faster than blending
+ * the whole card with the table beneath it.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+final class CardImages {
+
+    /**
+     * The image of one card, kept with and without its transparency.
+     */
+
+    private static final class Sprite {
+
+        private final BufferedImage image;
+        private final BufferedImage opaque;
+        //The rows of the image from top up to bottom have no transparent pixels
+        private final int top;
+        private final int bottom;
+
+        private Sprite(BufferedImage decoded) {
+
+            int height = decoded.getHeight();
+            image = copy(decoded, Transparency.BITMASK);
+            opaque = copy(decoded, Transparency.OPAQUE);
+
+            int first = 0;
+            while (first < height && !isOpaque(decoded, first)) {
+                first++;
+            }
+            int last = height;
+            while (last > first && !isOpaque(decoded, last - 1)) {
+                last--;
+            }
+            for (int y = first; y < last; y++) {
+                if (!isOpaque(decoded, y)) {
+                    //The transparency is not only at the edges, so the whole image is blended
+                    first = last = height;
+                    break;
+                }
+            }
+            top = first;
+            bottom = last;
+        }
+
+        private void draw(Graphics graphics, int x, int y) {
+
+            int width = image.getWidth();
+            int height = image.getHeight();
+            if (top > 0) {
+                graphics.drawImage(image, x, y, x + width, y + top, 0, 0, width, top, null);
+            }
+            if (bottom > top) {
+                graphics.drawImage(opaque, x, y + top, x + width, y + bottom, 0, top, width, bottom, null);
+            }
+            if (bottom < height) {
+                graphics.drawImage(image, x, y + bottom, x + width, y + height, 0, bottom, width, height, null);
+            }
+        }
+
+        private static boolean isOpaque(BufferedImage image, int y) {
+
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (image.getRGB(x, y) >>> 24 != 0xFF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    //One sprite for every card byte a Board can hold, as in Card
+    private final Sprite[] sprites = new Sprite[128];
+    private final Sprite back;
+
+    private CardImages() {
+
+        back = new Sprite(decode(Card.imagePath(1, Card.SUITS[0], false)));
+        for (int suit = 0; suit < Card.SUITS.length; suit++) {
+            for (int rank = 1; rank <= 13; rank++) {
+
+                sprites[Board.card(rank, suit, false)] = back;
+                String face = Card.imagePath(rank, Card.SUITS[suit], true);
+                sprites[Board.card(rank, suit, true)] = new Sprite(decode(face));
+            }
+        }
+    }
+
+    /**
+     * A method that decodes the image of every card.
+     *
+     * @return The images of the 52 faces and the back
+     */
+
+    static CardImages load() {
+
+        return new CardImages();
+    }
+
+    /**
+     * A method that draws a card byte from a Board at the size of its image.
+     *
+     * @param graphics The graphics to draw on
+     * @param card The byte of the card
+     * @param x The left of the card
+     * @param y The top of the card
+     */
+
+    void draw(Graphics graphics, byte card, int x, int y) {
+
+        sprite(card).draw(graphics, x, y);
+    }
+
+    void draw(Graphics graphics, Card card, int x, int y) {
+
+        sprite(card.getCode()).draw(graphics, x, y);
+    }
+
+    /**
+     * A method for returning the image of a card byte from a Board.
+     *
+     * @param card The byte of the card
+     * @return The image of the face of the card, or the back if it is face down
+     */
+
+    Image get(byte card) {
+
+        return sprite(card).image;
+    }
+
+    Image getBack() {
+
+        return back.image;
+    }
+
+    private Sprite sprite(byte card) {
+
+        Sprite sprite = card > 0 ? sprites[card] : null;
+        if (sprite == null) {
+            throw new IllegalArgumentException("Error! " + card + " is not a valid card.");
+        }
+
+        return sprite;
+    }
+
+    private static BufferedImage decode(String path) {
+
+        URL url = CardImages.class.getResource(path);
+        if (url == null) {
+            throw new IllegalStateException("Error! The image " + path + " could not be found.");
+        }
+
+        try {
+            return ImageIO.read(url);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Error! The image " + path + " could not be read.", e);
+        }
+    }
+
+    private static BufferedImage copy(BufferedImage decoded, int transparency) {
+
+        //The GIFs are decoded with a palette, which would be converted to the colours of the screen on every draw
+        BufferedImage image = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(decoded.getWidth(), decoded.getHeight(), transparency == Transparency.OPAQUE ?
+                        BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                        .createCompatibleImage(decoded.getWidth(), decoded.getHeight(), transparency);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(decoded, 0, 0, null);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,40 @@
+package solitaire.spider;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * <h1>solitaire.spider.ColumnView</h1>
+ * This is a class that shows a tableau column of a Board as a read-only list of cards, from the bottom card to the top
+ * card, so the GUI and the sorting algorithm can read the game whilst it is stored in the compact Board. Every call
+ * reads the board directly, so the list always shows the column as it is now, and the cards returned are the shared
+ * Card objects from Card.valueOf(). The column can only be changed through the game or the board.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-06-11
+ */
+
+class ColumnView extends AbstractList<Card> implements RandomAccess {
+
+    private final Board board;
+    private final int column;
+
+    ColumnView(Board board, int column) {
+
+        this.board = board;
+        this.column = column;
+    }
+
+    @Override
+    public Card get(int index) {
+
+        return Card.valueOf(board.cardAt(column, index));
+    }
+
+    @Override
+    public int size() {
+
+        return board.size(column);
+    }
+}
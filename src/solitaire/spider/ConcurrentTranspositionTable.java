@@ -0,0 +1,95 @@
+package solitaire.spider;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>solitaire.spider.ConcurrentTranspositionTable</h1>
+ * This is a class for a transposition table that can be shared by many threads without locking. The hashes are held in
+ * an open-addressed AtomicLongArray and each one is placed with a compare-and-set on an empty slot, so two threads
+ * reaching the same position at once cannot both add it.
+ *
+ * The table cannot grow whilst it is being searched, so it has a fixed capacity. Once the slots near a hash are all
+ * taken the position is not stored and add() returns true, which means the position is searched again rather than
+ * being wrongly skipped. Clearing the table is not safe whilst other threads are using it.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class ConcurrentTranspositionTable implements TranspositionTable {
+
+    private static final int MAX_PROBES = 64;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final AtomicLong size = new AtomicLong();
+
+    public ConcurrentTranspositionTable(int capacity) {
+
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Error! " + capacity + " is not a valid capacity.");
+        }
+
+        this.table = new AtomicLongArray(Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = table.length() - 1;
+    }
+
+    public ConcurrentTranspositionTable() {
+
+        this(1 << 22);
+    }
+
+    @Override
+    public boolean add(long hash) {
+
+        //A hash of 0 marks an empty slot
+        if (hash == 0) {
+            hash = 1;
+        }
+
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+
+            long current = table.get(slot);
+            if (current == hash) {
+                return false;
+            }
+            if (current == 0) {
+
+                if (table.compareAndSet(slot, 0, hash)) {
+                    size.incrementAndGet();
+                    return true;
+                }
+                //Another thread took the slot first, so it is checked again in case it placed the same hash
+                if (table.get(slot) == hash) {
+                    return false;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return true;
+    }
+
+    @Override
+    public long size() {
+
+        return size.get();
+    }
+
+    @Override
+    public long memoryUsed() {
+
+        return table.length() * 8L;
+    }
+
+    @Override
+    public void clear() {
+
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0);
+        }
+        size.set(0);
+    }
+}
@@ -0,0 +1,192 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.ConfidenceInterval</h1>
+ * This is a class for an estimate worked out from a sample of games, along with the range the true value lies within
+ * at a given confidence. A win rate uses the Wilson score interval, which stays inside 0 to 1 and is still sound when
+ * very few or nearly all of the games are won. The difference between two players that played the same deals uses the
+ * games as pairs, so the luck of the deals, which both players share, cancels out and far fewer games are needed to
+ * tell the players apart than if they had played different deals. The paired interval is the Agresti-Min interval,
+ * which adds half a game to each outcome so that a run of games the players both won or both lost does not give an
+ * interval of no width.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class ConfidenceInterval {
+
+    //The amount of standard deviations either side of the estimate for 95% confidence
+    public static final double Z_95 = 1.959963984540054;
+
+    private final double estimate;
+    private final double lower;
+    private final double upper;
+
+    public ConfidenceInterval(double estimate, double lower, double upper) {
+
+        if (lower > estimate || estimate > upper) {
+            throw new IllegalArgumentException("Error! " + estimate + " does not lie between " + lower + " and " +
+                    upper + ".");
+        }
+
+        this.estimate = estimate;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * A method that works out the interval of a win rate with the Wilson score interval.
+     *
+     * @param wins The amount of games won
+     * @param games The amount of games played
+     * @param z The amount of standard deviations either side of the estimate, such as Z_95
+     * @return The interval of the win rate, as a fraction between 0 and 1
+     */
+
+    public static ConfidenceInterval winRate(long wins, long games, double z) {
+
+        if (games <= 0 || wins < 0 || wins > games) {
+            throw new IllegalArgumentException("Error! " + wins + " wins from " + games + " games is not valid.");
+        }
+
+        double rate = (double) wins / games;
+        double z2 = z * z;
+        double centre = (rate + z2 / (2 * games)) / (1 + z2 / games);
+        double spread = z / (1 + z2 / games) * Math.sqrt(rate * (1 - rate) / games + z2 / (4.0 * games * games));
+        return new ConfidenceInterval(rate, Math.min(rate, centre - spread), Math.max(rate, centre + spread));
+    }
+
+    /**
+     * A method that works out the interval of the difference in win rate between two players that played the same
+     * deals, where game i of one player was dealt the same as game i of the other.
+     *
+     * @param first Whether each game of the first player was won
+     * @param second Whether each game of the second player was won
+     * @param z The amount of standard deviations either side of the estimate, such as Z_95
+     * @return The interval of the first player's win rate minus the second player's
+     */
+
+    public static ConfidenceInterval pairedDifference(boolean[] first, boolean[] second, double z) {
+
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("Error! The players must have played the same deals.");
+        }
+        return pairedDifference(first, second, first.length, z);
+    }
+
+    /**
+     * A method that works out the interval of the difference in win rate between two players over the first games of
+     * their results.
+     *
+     * @param first Whether each game of the first player was won
+     * @param second Whether each game of the second player was won
+     * @param games The amount of games from the start of the results to use
+     * @param z The amount of standard deviations either side of the estimate, such as Z_95
+     * @return The interval of the first player's win rate minus the second player's
+     */
+
+    public static ConfidenceInterval pairedDifference(boolean[] first, boolean[] second, int games, double z) {
+
+        if (games < 1 || games > first.length || games > second.length) {
+            throw new IllegalArgumentException("Error! The players must have played the same " + games + " deals.");
+        }
+
+        //Only the games that one player won and the other lost make a difference
+        int firstOnly = 0;
+        int secondOnly = 0;
+        for (int i = 0; i < games; i++) {
+            if (first[i] && !second[i]) {
+                firstOnly++;
+            }
+            else if (second[i] && !first[i]) {
+                secondOnly++;
+            }
+        }
+
+        double mean = (double) (firstOnly - secondOnly) / games;
+        double n = games + 2;
+        double firstRate = (firstOnly + 0.5) / n;
+        double secondRate = (secondOnly + 0.5) / n;
+        double centre = firstRate - secondRate;
+        double spread = z * Math.sqrt((firstRate + secondRate - centre * centre) / n);
+        return new ConfidenceInterval(mean, Math.min(mean, centre - spread), Math.max(mean, centre + spread));
+    }
+
+    /**
+     * A method that works out how many standard deviations either side of an estimate give a confidence, from an
+     * approximation of the inverse of the normal distribution that is accurate to about 1e-9.
+     *
+     * @param confidence The chance of the interval holding the true value, between 0 and 1
+     * @return The amount of standard deviations, such as 1.96 for a confidence of 0.95
+     */
+
+    public static double z(double confidence) {
+
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Error! " + confidence + " is not a valid confidence.");
+        }
+
+        //The rational approximation of Acklam, for the upper tail of the normal distribution
+        double p = (1 + confidence) / 2;
+        double q;
+        if (p > 0.97575) {
+            q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q -
+                    2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00) /
+                    ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q +
+                            3.754408661907416e+00) * q + 1);
+        }
+        q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r +
+                1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q /
+                (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r +
+                        6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+
+    public double getEstimate() {
+
+        return estimate;
+    }
+
+    public double getLower() {
+
+        return lower;
+    }
+
+    public double getUpper() {
+
+        return upper;
+    }
+
+    public double getWidth() {
+
+        return upper - lower;
+    }
+
+    /**
+     * A method for checking whether a value lies within the interval, such as whether a difference could be 0.
+     *
+     * @param value The value to check
+     * @return Returns true if the value lies within the interval
+     */
+
+    public boolean contains(double value) {
+
+        return lower <= value && value <= upper;
+    }
+
+    /**
+     * A method that shows the interval as percentages, such as "47.0% (43.1% to 50.9%)".
+     *
+     * @return The estimate and the interval as percentages
+     */
+
+    @Override
+    public String toString() {
+
+        return String.format("%.1f%% (%.1f%% to %.1f%%)", estimate * 100, lower * 100, upper * 100);
+    }
+}
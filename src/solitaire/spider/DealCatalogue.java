@@ -0,0 +1,232 @@
+package solitaire.spider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>solitaire.spider.DealCatalogue</h1>
+ * This is a class for numbered deals and for files holding a fixed set of them. Every suit mode has its own numbered
+ * deals, starting from deal 1, in the same way as FreeCell numbers its games. A deal number is turned into the seed
+ * that SpiderSolitaire shuffles from, so deal 617 of the 2 suit game is always the same game.
+ *
+ * A catalogue file is a header followed by one fixed-size record for every deal. Each record holds the seed of the deal
+ * and the 104 cards of the shuffled deck in the order they are dealt, so a deal can be read straight onto a board
+ * without shuffling. The file is read through a memory-mapped buffer and records are found by their position, which
+ * means any deal can be read in constant time and by many threads at once.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class DealCatalogue {
+
+    private static final int MAGIC = 0x53504443;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    public static final int RECORD_SIZE = 8 + Board.DECK_SIZE;
+    //A single mapped buffer cannot be larger than this
+    public static final int MAX_DEALS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    private static final int RECORDS_PER_WRITE = 4096;
+
+    private final MappedByteBuffer buffer;
+    private final int suitMode;
+    private final int firstDeal;
+    private final int size;
+
+    private DealCatalogue(MappedByteBuffer buffer) {
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Error! The file is not a deal catalogue.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Error! Version " + buffer.getInt(4) + " catalogues are not supported.");
+        }
+
+        this.buffer = buffer;
+        this.suitMode = buffer.getInt(8);
+        this.firstDeal = buffer.getInt(12);
+        this.size = buffer.getInt(16);
+
+        if ((long) HEADER_SIZE + (long) size * RECORD_SIZE > buffer.capacity()) {
+            throw new IllegalArgumentException("Error! The catalogue is missing some of its " + size + " deals.");
+        }
+    }
+
+    /**
+     * A method for turning a deal number into the seed the deck is shuffled from. The suit mode is part of the seed so
+     * that deal 1 of each mode is shuffled differently.
+     *
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param dealNumber The number of the deal, starting from 1
+     * @return The seed of the deal
+     */
+
+    public static long dealSeed(int suitMode, int dealNumber) {
+
+        if (!(suitMode == 1 || suitMode == 2 || suitMode == 4)) {
+            throw new IllegalArgumentException("Error! " + suitMode + " is not a valid amount of suits to be played.");
+        }
+        if (dealNumber < 1) {
+            throw new IllegalArgumentException("Error! " + dealNumber + " is not a valid deal number.");
+        }
+
+        return (long) suitMode << 32 | dealNumber;
+    }
+
+    /**
+     * A method that writes a run of numbered deals to a catalogue file, replacing the file if it already exists. The
+     * records are built in a buffer and written a block at a time.
+     *
+     * @param file The file to write
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param firstDeal The number of the first deal in the file
+     * @param count The amount of deals to write
+     * @throws IOException If the file cannot be written
+     */
+
+    public static void write(Path file, int suitMode, int firstDeal, int count) throws IOException {
+
+        if (count < 0 || count > MAX_DEALS) {
+            throw new IllegalArgumentException("Error! " + count + " is not a valid amount of deals.");
+        }
+        if ((long) firstDeal + count - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error! The deal numbers run past " + Integer.MAX_VALUE + ".");
+        }
+        dealSeed(suitMode, firstDeal);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer block = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_WRITE);
+            block.putInt(MAGIC).putInt(VERSION).putInt(suitMode).putInt(firstDeal).putInt(count);
+
+            byte[] deck = new byte[Board.DECK_SIZE];
+            for (int i = 0; i < count; i++) {
+
+                if (block.remaining() < RECORD_SIZE) {
+                    writeBlock(channel, block);
+                }
+
+                long seed = dealSeed(suitMode, firstDeal + i);
+                SpiderSolitaire.fillDeck(deck, suitMode);
+                SpiderSolitaire.shuffleDeck(deck, seed);
+                block.putLong(seed).put(deck);
+            }
+            writeBlock(channel, block);
+        }
+    }
+
+    private static void writeBlock(FileChannel channel, ByteBuffer block) throws IOException {
+
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+    }
+
+    /**
+     * A method for opening a catalogue file. The whole file is mapped into memory read-only, so the deals are paged in
+     * by the operating system as they are read.
+     *
+     * @param file The catalogue file
+     * @return The catalogue
+     * @throws IOException If the file cannot be read
+     */
+
+    public static DealCatalogue open(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Error! " + file + " is too large to be a deal catalogue.");
+            }
+            //The mapping stays valid once the channel is closed
+            return new DealCatalogue(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getSuitMode() {
+
+        return suitMode;
+    }
+
+    public int getFirstDeal() {
+
+        return firstDeal;
+    }
+
+    /**
+     * A method for returning the amount of deals in the catalogue.
+     *
+     * @return The amount of deals
+     */
+
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * A method for finding where a numbered deal is held in the catalogue.
+     *
+     * @param dealNumber The number of the deal
+     * @return The index of the deal's record
+     */
+
+    public int indexOf(int dealNumber) {
+
+        long index = (long) dealNumber - firstDeal;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error! Deal " + dealNumber + " is not in the catalogue.");
+        }
+
+        return (int) index;
+    }
+
+    /**
+     * A method for reading the seed of a deal in the catalogue.
+     *
+     * @param index The index of the deal's record
+     * @return The seed the deal was shuffled from
+     */
+
+    public long getSeed(int index) {
+
+        return buffer.getLong(recordOffset(index));
+    }
+
+    /**
+     * A method that copies the deck of a deal into an array, in the order the cards are dealt. Only absolute reads are
+     * made on the buffer, so decks can be read by several threads at once.
+     *
+     * @param index The index of the deal's record
+     * @param deck An array of 104 cards to be filled
+     */
+
+    public void readDeck(int index, byte[] deck) {
+
+        if (deck.length != Board.DECK_SIZE) {
+            throw new IllegalArgumentException("Error! A deck must have " + Board.DECK_SIZE + " cards.");
+        }
+
+        int offset = recordOffset(index) + 8;
+        for (int i = 0; i < Board.DECK_SIZE; i++) {
+            deck[i] = buffer.get(offset + i);
+        }
+    }
+
+    private int recordOffset(int index) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error! " + index + " is not a deal in the catalogue.");
+        }
+
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,38 @@
+package solitaire.spider;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <h1>solitaire.spider.DealEvent</h1>
+ * This is a Java Flight Recorder event for every deal made from the stock pile. The event is off by default.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@Name("solitaire.spider.Deal")
+@Label("Stock Deal")
+@Category("Spider Solitaire")
+@Description("A deal from the stock pile")
+@Enabled(false)
+@StackTrace(false)
+final class DealEvent extends Event {
+
+    @Label("Seed")
+    long seed;
+
+    @Label("Stock Left")
+    @Description("The amount of deals left in the stock pile after this one")
+    int stockLeft;
+
+    @Label("Tableau Cards")
+    @Description("The amount of cards on the tableau before the deal")
+    int tableauCards;
+}
@@ -18,10 +18,11 @@ import javax.swing.*;
  * @since 2018-06-11
  */
 
-public class GUI extends JComponent implements MouseListener {
+public class GUI extends JComponent implements MouseListener, GameView {
 
     private JFrame frame;
     private final ImageIcon icon;
+    private final CardImages cardImages;
 
     private static final int CARD_WIDTH = 73;
     private static final int CARD_HEIGHT = 97;
@@ -38,6 +39,8 @@ public class GUI extends JComponent implements MouseListener {
     public GUI(SpiderSolitaire game) {
 
         this.game = game;
+        //Attaches the GUI to the game so it is told about every change to the game
+        game.setView(this);
 
         frame = new JFrame("Tom Harwin's Spider Solitaire");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -50,12 +53,20 @@ public class GUI extends JComponent implements MouseListener {
 
         createMenuBar();
 
+        //Decodes every card image once, so the cards are drawn from memory on every paint
+        cardImages = CardImages.load();
+
         //Creates the program image icon
         URL iconUrl = getClass().getResource("/iconsmall.png");
         Image img = new ImageIcon(iconUrl).getImage();
         icon = new ImageIcon(img);
         frame.setIconImage(img);
 
+        //Creates the background, once the board has been laid out so it keeps its place above the background
+        frame.pack();
+        URL backgroundURL = getClass().getResource("/table.jpg");
+        frame.getContentPane().add(new ImagePanel(new ImageIcon(backgroundURL).getImage()));
+
         frame.pack();
         frame.setVisible(true);
         selectFunction();
@@ -72,11 +83,13 @@ public class GUI extends JComponent implements MouseListener {
         JMenuBar menuBar = new JMenuBar();
         JMenu menu = new JMenu("File");
         JMenuItem item1 = new JMenuItem("New Game");
+        JMenuItem item5 = new JMenuItem("Undo");
         JMenuItem item2 = new JMenuItem("Run Simulation");
         JMenuItem item3 = new JMenuItem("Stop Simulation");
         JMenuItem item4 = new JMenuItem("Exit");
         menuBar.add(menu);
         menu.add(item1);
+        menu.add(item5);
         menu.add(item2);
         menu.add(item3);
         menu.add(item4);
@@ -92,6 +105,16 @@ public class GUI extends JComponent implements MouseListener {
             }
         });
 
+        //Undoes the last move, unless the algorithm is playing
+        item5.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+
+                if (!game.getSortingAlgorithm().isRunning()) {
+                    game.undoMove();
+                }
+            }
+        });
+
         //Opens a dialogue for user to choose their simulation options
         item2.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
@@ -136,12 +159,12 @@ public class GUI extends JComponent implements MouseListener {
 
             case 0:
                 selectMode();
-                System.out.println("Play Game Selected");
+                game.log(Log.Level.DEBUG, "Play Game Selected");
                 break;
 
             case 1:
                 selectSimulation();
-                System.out.println("Run Simulation Selected");
+                game.log(Log.Level.DEBUG, "Run Simulation Selected");
                 break;
         }
     }
@@ -163,17 +186,17 @@ public class GUI extends JComponent implements MouseListener {
 
             case 0:
                 game.setSuitMode(1);
-                System.out.println("1 suit mode selected.");
+                game.log(Log.Level.DEBUG, "1 suit mode selected.");
                 break;
 
             case 1:
                 game.setSuitMode(2);
-                System.out.println("2 suit mode selected.");
+                game.log(Log.Level.DEBUG, "2 suit mode selected.");
                 break;
 
             case 2:
                 game.setSuitMode(4);
-                System.out.println("4 suit mode selected.");
+                game.log(Log.Level.DEBUG, "4 suit mode selected.");
                 break;
         }
 
@@ -192,7 +215,7 @@ public class GUI extends JComponent implements MouseListener {
 
         JPanel selectSimulation = new JPanel();
         JLabel iterationsLabel = new JLabel("Number of iterations");
-        SpinnerNumberModel spinner = new SpinnerNumberModel(1, 0, 100, 1);
+        SpinnerNumberModel spinner = new SpinnerNumberModel(1, 0, 10000, 1);
         JSpinner iterations = new JSpinner(spinner);
         JRadioButton setSuitMode1 = new JRadioButton("1 Suit");
         setSuitMode1.setActionCommand("1 Suit");
@@ -206,12 +229,14 @@ public class GUI extends JComponent implements MouseListener {
         buttonGroup.add(setSuitMode2);
         buttonGroup.add(setSuitMode4);
         JCheckBox showSimulation = new JCheckBox("Show Simulation");
+        JCheckBox stopEarly = new JCheckBox("Stop once the win rate is known to within 5%");
         selectSimulation.add(iterationsLabel);
         selectSimulation.add(iterations);
         selectSimulation.add(setSuitMode1);
         selectSimulation.add(setSuitMode2);
         selectSimulation.add(setSuitMode4);
         selectSimulation.add(showSimulation);
+        selectSimulation.add(stopEarly);
         selectSimulation.setLayout(new BoxLayout(selectSimulation, BoxLayout.PAGE_AXIS));
 
         int result = JOptionPane.showConfirmDialog(frame, selectSimulation,
@@ -224,6 +249,8 @@ public class GUI extends JComponent implements MouseListener {
             if (setSuitMode4.isSelected()) game.setSuitMode(4);
             if (showSimulation.isSelected()) game.getSortingAlgorithm().setSleepTime(1500);
             else game.getSortingAlgorithm().setSleepTime(50);
+            //Within 5% either side of the win rate, at 95% confidence
+            game.getSortingAlgorithm().setTargetWidth(stopEarly.isSelected() ? 0.1 : 0);
 
             unselect();
             repaint();
@@ -266,13 +293,17 @@ public class GUI extends JComponent implements MouseListener {
     public void simulationStatistics() {
 
         final JOptionPane statistics = new JOptionPane();
-        float winPercentage = (game.getSortingAlgorithm().getWinCount() * 100f / game.getSortingAlgorithm().getIterations());
+        //The algorithm may have stopped early, so the percentage is of the games that were actually played
+        int gamesPlayed = game.getSortingAlgorithm().getWinCount() + game.getSortingAlgorithm().getLossCount();
+        float winPercentage = (game.getSortingAlgorithm().getWinCount() * 100f / Math.max(1, gamesPlayed));
+        ConfidenceInterval winRate = game.getSortingAlgorithm().getWinRate();
         String[] options = {"Yes", "No"};
         int option = statistics.showOptionDialog(frame, "Algorithm ran for "
-                        + game.getSortingAlgorithm().getIterations() + " iteration(s).\n" +
+                        + gamesPlayed + " of " + game.getSortingAlgorithm().getIterations() + " iteration(s).\n" +
                 "Wins: " + game.getSortingAlgorithm().getWinCount() + "\n" +
                 "Losses: " + game.getSortingAlgorithm().getLossCount() + "\n" +
                 "Win percentage: " + winPercentage + "%\n" +
+                (winRate == null ? "" : "95% confidence interval: " + winRate + "\n") +
                         "Would you like to run the algorithm again?", "Tom Harwin's Spider Solitaire",
                 statistics.DEFAULT_OPTION, statistics.INFORMATION_MESSAGE, icon, options, options[0]);
 
@@ -287,6 +318,26 @@ public class GUI extends JComponent implements MouseListener {
         }
     }
 
+    /**
+     * A method that is called once the sorting algorithm has finished running and shows the simulation statistics.
+     *
+     */
+
+    public void simulationComplete() {
+
+        simulationStatistics();
+    }
+
+    /**
+     * A method that repaints the whole playing area straight away rather than waiting for the event queue.
+     *
+     */
+
+    public void paintImmediately() {
+
+        paintImmediately(getBounds());
+    }
+
     /**
      * A method that indicates which tableau stack is currently selected
      *
@@ -392,17 +443,10 @@ public class GUI extends JComponent implements MouseListener {
     @Override
     public void paintComponent(Graphics graphics) {
 
-        //Creates the background
-        URL backgroundURL = getClass().getResource("/table.jpg");
-        ImagePanel background = new ImagePanel(new ImageIcon(backgroundURL).getImage());
-        frame.getContentPane().add(background);
-        frame.pack();
-        frame.setVisible(true);
-
         //Create tableau display
         for (int i = 0; i < 10; i++){
 
-            Stack<Card> stack = game.getTableauStack(i);
+            java.util.List<Card> stack = game.getTableauStack(i);
             int offset = 0;
             for (int j = 0; j < stack.size(); j++) {
 
@@ -445,7 +489,7 @@ public class GUI extends JComponent implements MouseListener {
     }
 
     /**
-     * A method that draws card objects using the card image files in the directory path. If a card doesn't exist, a
+     * A method that draws card objects using the card images decoded when the GUI started. If a card doesn't exist, a
      * black border is drawn instead.
      *
      */
@@ -458,9 +502,7 @@ public class GUI extends JComponent implements MouseListener {
             graphics.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
         }
         else {
-            URL fileName = card.getFileName();
-            Image image = new ImageIcon(fileName).getImage();
-            graphics.drawImage(image, x, y, CARD_WIDTH, CARD_HEIGHT, null);
+            cardImages.draw(graphics, card, x, y);
         }
     }
 
@@ -503,7 +545,7 @@ public class GUI extends JComponent implements MouseListener {
             //If a blank area is clicked or one of the foundation stacks, unselect
             else if ((getStackHeight(col) < height) && (row < 4)) {
 
-                System.out.print("Unselected");
+                game.log(Log.Level.DEBUG, "Unselected.");
                 unselect();
             }
             //If the tableau area is clicked and the tableau is not currently selected, calculate the amount of selected
@@ -521,7 +563,7 @@ public class GUI extends JComponent implements MouseListener {
             }
         }
         else {
-            System.out.println("Mouse is disabled whilst algorithm is running");
+            game.log(Log.Level.INFO, "Mouse is disabled whilst algorithm is running");
         }
     }
 
@@ -596,7 +638,7 @@ public class GUI extends JComponent implements MouseListener {
     }
 
     /**
-     * A method that iterates through a stack and returns the number of face down cards in a stack.
+     * A method that returns the number of face down cards in a stack.
      *
      * @param column The column that corresponds to the tableau index
      * @return An integer value of the amount of face down cards
@@ -605,20 +647,11 @@ public class GUI extends JComponent implements MouseListener {
     @SuppressWarnings("Duplicates")
     public int getFaceDownCards(int column) {
 
-        int faceDownCounter = 0;
-        Stack<Card> stack = game.getTableauStack(column);
-        Iterator<Card> iterator = stack.iterator();
-        while (iterator.hasNext()){
-            Card card = iterator.next();
-            if (!card.isFaceUp()) {
-                faceDownCounter++;
-            }
-        }
-        return faceDownCounter;
+        return game.getBoard().countFaceDown(column);
     }
 
     /**
-     * A method that iterates through a stack and returns the number of face up cards in a stack.
+     * A method that returns the number of face up cards in a stack.
      *
      * @param column The column that corresponds to the tableau index
      * @return An integer value of the amount of face up cards
@@ -627,15 +660,6 @@ public class GUI extends JComponent implements MouseListener {
 
     public int getFaceUpCards(int column) {
 
-        int faceUpCounter = 0;
-        Stack<Card> stack = game.getTableauStack(column);
-        Iterator<Card> iterator = stack.iterator();
-        while (iterator.hasNext()){
-            Card card = iterator.next();
-            if (card.isFaceUp()) {
-                faceUpCounter++;
-            }
-        }
-        return faceUpCounter;
+        return game.getBoard().countFaceUp(column);
     }
 }
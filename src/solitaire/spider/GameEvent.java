@@ -0,0 +1,64 @@
+package solitaire.spider;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <h1>solitaire.spider.GameEvent</h1>
+ * This is a Java Flight Recorder event for a game, from the moment its player starts until the game is over. Like the
+ * other events of the game it is off by default, even whilst a recording is running, and has to be turned on in the
+ * settings of the recording. When it is off, making the event and checking it costs next to nothing.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@Name("solitaire.spider.Game")
+@Label("Game")
+@Category("Spider Solitaire")
+@Description("A game played from the deal to the end")
+@Enabled(false)
+@StackTrace(false)
+final class GameEvent extends Event {
+
+    @Label("Seed")
+    long seed;
+
+    @Label("Suit Mode")
+    int suitMode;
+
+    @Label("Won")
+    boolean won;
+
+    @Label("Moves")
+    @Description("The amount of moves made, including cards turned up and stock deals")
+    int moves;
+
+    @Label("Foundations")
+    int foundations;
+
+    /**
+     * A method that ends the event and commits it with the result of the game, if the event is on.
+     *
+     * @param game The game, as it was left when its player finished
+     * @param won Whether the game was won
+     */
+
+    void finish(SpiderSolitaire game, boolean won) {
+
+        if (shouldCommit()) {
+            this.seed = game.getSeed();
+            this.suitMode = game.getSuitMode();
+            this.won = won;
+            this.moves = game.getMoveLog().size();
+            this.foundations = game.getBoard().getFoundationCount();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.GameView</h1>
+ * This is an interface for anything that presents a game of spider solitaire to a player. A view holds which tableau
+ * stack the player currently has selected and is told whenever the game changes so it can redraw itself. The game
+ * itself only ever talks to its view through this interface, so the rules can be run without any windowing classes
+ * being loaded.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-06-11
+ */
+
+public interface GameView {
+
+    /**
+     * A method that indicates if the tableau is currently selected
+     *
+     * @return Returns true if the tableau is selected and false if not
+     */
+
+    boolean isTableauSelected();
+
+    /**
+     * A method that indicates which tableau stack is currently selected
+     *
+     * @return An integer value representing which tableau index is currently selected, or -1 if none is
+     */
+
+    int getSelectedStack();
+
+    /**
+     * A method for returning the amount of selected cards in a stack.
+     *
+     * @return An integer value of the amount of selected cards
+     */
+
+    int getSelectedCardAmount();
+
+    /**
+     * A method for setting the amount of selected cards in a stack.
+     *
+     * @param selectedCardAmount An integer value of the amount of selected cards
+     */
+
+    void setSelectedCardAmount(int selectedCardAmount);
+
+    /**
+     * A method that is called once a stack has been selected to remember which stack is currently selected
+     *
+     * @param column The column that corresponds to the tableau index
+     */
+
+    void selectStack(int column);
+
+    /**
+     * A method that deselects the playing area
+     *
+     */
+
+    void unselect();
+
+    /**
+     * A method that asks the view to redraw itself at some point after the game has changed.
+     *
+     */
+
+    void repaint();
+
+    /**
+     * A method that asks the view to redraw itself straight away after a move has been made.
+     *
+     */
+
+    void paintImmediately();
+
+    /**
+     * A method that is called once the final foundation has been filled by a player.
+     *
+     */
+
+    void gameComplete();
+
+    /**
+     * A method that is called once the sorting algorithm has finished running all of its iterations.
+     *
+     */
+
+    void simulationComplete();
+}
@@ -0,0 +1,122 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+
+/**
+ * <h1>solitaire.spider.HashTranspositionTable</h1>
+ * This is a class for a transposition table that holds the hashes in an open-addressed array of longs, so adding a
+ * position creates no objects. A hash of 0 marks an empty slot, so the position with a hash of 0 is stored as 1 (this
+ * can only make two positions look the same when one of them hashes to 1, which is as likely as any other collision).
+ * The table doubles in size whenever it is half full and keeps every position it is given, so it is only suitable for a
+ * single thread.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class HashTranspositionTable implements TranspositionTable {
+
+    private long[] table;
+    private int size;
+
+    public HashTranspositionTable(int capacity) {
+
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Error! " + capacity + " is not a valid capacity.");
+        }
+
+        this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+    }
+
+    public HashTranspositionTable() {
+
+        this(1 << 16);
+    }
+
+    @Override
+    public boolean add(long hash) {
+
+        if (hash == 0) {
+            hash = 1;
+        }
+        if (!insert(table, hash)) {
+            return false;
+        }
+
+        if (++size > table.length / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * A method for checking whether a position is in the table without adding it.
+     *
+     * @param hash The Zobrist hash of the position
+     * @return Returns true if the position is in the table
+     */
+
+    public boolean contains(long hash) {
+
+        if (hash == 0) {
+            hash = 1;
+        }
+
+        int mask = table.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[slot] != 0) {
+
+            if (table[slot] == hash) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+
+        int mask = table.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[slot] != 0) {
+
+            if (table[slot] == hash) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+        return true;
+    }
+
+    private void grow() {
+
+        long[] larger = new long[table.length * 2];
+        for (long hash : table) {
+            if (hash != 0) {
+                insert(larger, hash);
+            }
+        }
+        table = larger;
+    }
+
+    @Override
+    public long size() {
+
+        return size;
+    }
+
+    @Override
+    public long memoryUsed() {
+
+        return table.length * 8L;
+    }
+
+    @Override
+    public void clear() {
+
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+}
@@ -0,0 +1,61 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.HeadlessView</h1>
+ * This is a view for running a game of spider solitaire without a display, such as when the sorting algorithm is
+ * simulating games on a machine with no screen. It remembers the selected stack so the game can be played through
+ * stackClicked() exactly as it is from the GUI, but drawing and dialogue boxes are ignored.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-06-11
+ */
+
+public class HeadlessView implements GameView {
+
+    private int selectedStack = -1;
+    private int selectedCardAmount = 0;
+
+    public boolean isTableauSelected() {
+
+        return selectedStack != -1;
+    }
+
+    public int getSelectedStack() {
+
+        return selectedStack;
+    }
+
+    public int getSelectedCardAmount() {
+
+        return selectedCardAmount;
+    }
+
+    public void setSelectedCardAmount(int selectedCardAmount) {
+
+        this.selectedCardAmount = selectedCardAmount;
+    }
+
+    public void selectStack(int column) {
+
+        selectedStack = column;
+    }
+
+    public void unselect() {
+
+        selectedStack = -1;
+        selectedCardAmount = 0;
+    }
+
+    public void repaint() {
+    }
+
+    public void paintImmediately() {
+    }
+
+    public void gameComplete() {
+    }
+
+    public void simulationComplete() {
+    }
+}
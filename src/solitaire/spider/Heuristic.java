@@ -0,0 +1,76 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.Heuristic</h1>
+ * This is an enum of the eight heuristics of the sorting algorithm as move strategies. They are declared in the order
+ * the algorithm has always tried them in, which is the order of a new StrategyPipeline.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public enum Heuristic implements MoveStrategy {
+
+    MARRIAGE("Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.marriage();
+        }
+    },
+    SEQUENCE_MARRIAGE("Sequence Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.sequenceMarriage();
+        }
+    },
+    SPLIT_SEQUENCE_MARRIAGE("Split Sequence Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.splitSequenceMarriage();
+        }
+    },
+    REARRANGE_MARRIAGE("Rearrange Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.rearrangeMarriage();
+        }
+    },
+    DIFFERENT_SUIT_MARRIAGE("Different Suit Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.differentSuitMarriage();
+        }
+    },
+    DIFFERENT_SUIT_SEQUENCE_MARRIAGE("Different Suit Sequence Marriage") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.differentSuitSequenceMarriage();
+        }
+    },
+    REVEAL_CARDS("Reveal Cards") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.revealCards();
+        }
+    },
+    PREP_DEAL("Prep Deal") {
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+            return algorithm.prepDeal();
+        }
+    };
+
+    private final String name;
+
+    Heuristic(String name) {
+
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+
+        return name;
+    }
+}
@@ -0,0 +1,207 @@
+package solitaire.spider;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>solitaire.spider.HeuristicMetrics</h1>
+ * This is a class for the metrics of one heuristic in one suit mode, summed over every sorting algorithm in the JVM.
+ * Where a StrategyPipeline keeps the statistics of a single algorithm, which only its own thread may read, these are
+ * kept in counters that every thread of a SimulationRunner can add to at once and that can be read at any time, so a
+ * long run can be watched as it goes.
+ *
+ * The metrics of a heuristic are made, and registered with the platform MBean server, the first time the heuristic is
+ * called in a suit mode. The pipeline records every strategy it calls, by its name, along with the check the sorting
+ * algorithm makes after every move to keep cards on the tableau, under the name RETAIN_CARDS. A call is recorded
+ * without the calls made from inside it, such as the deal preparation made before a deal, so the metrics of a
+ * heuristic only measure its own work. The metrics can be turned off when the JVM starts with -Dspider.metrics=false.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class HeuristicMetrics implements HeuristicMetricsMXBean {
+
+    public static final String RETAIN_CARDS = "Retain Cards";
+    private static final String TYPE = "solitaire.spider:type=HeuristicMetrics";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("spider.metrics", "true"));
+    //The metrics of each suit mode by the name of the heuristic, for 1, 2 and 4 suits
+    private static final List<ConcurrentHashMap<String, HeuristicMetrics>> METRICS = List.of(
+            new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    private final int suitMode;
+    private final String heuristic;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder stockDeals = new LongAdder();
+
+    private HeuristicMetrics(int suitMode, String heuristic) {
+
+        this.suitMode = suitMode;
+        this.heuristic = heuristic;
+    }
+
+    public static boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * A method for turning the metrics on or off. Metrics that have already been made keep their counts.
+     *
+     * @param enabled Whether calls are recorded
+     */
+
+    public static void setEnabled(boolean enabled) {
+
+        HeuristicMetrics.enabled = enabled;
+    }
+
+    /**
+     * A method for finding the metrics of a heuristic in a suit mode, making and registering them if it is the first
+     * time the heuristic has been called in that mode.
+     *
+     * @param suitMode The mode being played (1, 2 or 4 suits)
+     * @param heuristic The name of the heuristic
+     * @return The metrics, or null if the metrics are turned off or the suit mode has not been set
+     */
+
+    public static HeuristicMetrics get(int suitMode, String heuristic) {
+
+        if (!enabled || !(suitMode == 1 || suitMode == 2 || suitMode == 4)) {
+            return null;
+        }
+
+        //Suit modes 1, 2 and 4 are kept at 0, 1 and 2
+        ConcurrentHashMap<String, HeuristicMetrics> metrics = METRICS.get(suitMode >> 1);
+        HeuristicMetrics found = metrics.get(heuristic);
+        return found != null ? found : metrics.computeIfAbsent(heuristic, name -> register(suitMode, name));
+    }
+
+    /**
+     * A method for returning the metrics of every heuristic that has been called, in every suit mode.
+     *
+     * @return A new list of the metrics
+     */
+
+    public static List<HeuristicMetrics> getAll() {
+
+        List<HeuristicMetrics> all = new ArrayList<>();
+        for (ConcurrentHashMap<String, HeuristicMetrics> metrics : METRICS) {
+            all.addAll(metrics.values());
+        }
+        return all;
+    }
+
+    private static HeuristicMetrics register(int suitMode, String heuristic) {
+
+        HeuristicMetrics metrics = new HeuristicMetrics(suitMode, heuristic);
+        try {
+            ObjectName name = new ObjectName(TYPE + ",suits=" + suitMode + ",name=" + ObjectName.quote(heuristic));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Error! The metrics of " + heuristic + " could not be registered.", e);
+        }
+        return metrics;
+    }
+
+    /**
+     * A method that records a call of the heuristic.
+     *
+     * @param moved Whether the call made a move
+     * @param time How long the call took in nanoseconds
+     * @param moveCount The amount of moves made in the call, not counting stock deals
+     * @param dealCount The amount of stock deals made in the call
+     */
+
+    public void record(boolean moved, long time, int moveCount, int dealCount) {
+
+        invocations.increment();
+        if (moved) {
+            successes.increment();
+        }
+        totalTime.add(time);
+        if (moveCount != 0) {
+            moves.add(moveCount);
+        }
+        if (dealCount != 0) {
+            stockDeals.add(dealCount);
+        }
+    }
+
+    @Override
+    public int getSuitMode() {
+
+        return suitMode;
+    }
+
+    @Override
+    public String getHeuristic() {
+
+        return heuristic;
+    }
+
+    @Override
+    public long getInvocations() {
+
+        return invocations.sum();
+    }
+
+    @Override
+    public long getSuccesses() {
+
+        return successes.sum();
+    }
+
+    @Override
+    public double getSuccessRate() {
+
+        long calls = invocations.sum();
+        return calls == 0 ? 0 : (double) successes.sum() / calls;
+    }
+
+    @Override
+    public long getTotalTime() {
+
+        return totalTime.sum();
+    }
+
+    @Override
+    public double getAverageTime() {
+
+        long calls = invocations.sum();
+        return calls == 0 ? 0 : (double) totalTime.sum() / calls;
+    }
+
+    @Override
+    public long getMoves() {
+
+        return moves.sum();
+    }
+
+    @Override
+    public long getStockDeals() {
+
+        return stockDeals.sum();
+    }
+
+    @Override
+    public void reset() {
+
+        invocations.reset();
+        successes.reset();
+        totalTime.reset();
+        moves.reset();
+        stockDeals.reset();
+    }
+}
@@ -0,0 +1,67 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.HeuristicMetricsMXBean</h1>
+ * This is the management interface of the metrics of one heuristic in one suit mode, which is published through JMX
+ * so that a running simulation can be watched in JConsole or VisualVM. Each set of metrics is registered under the
+ * name solitaire.spider:type=HeuristicMetrics,suits=(suit mode),name=(heuristic).
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public interface HeuristicMetricsMXBean {
+
+    int getSuitMode();
+
+    String getHeuristic();
+
+    /**
+     * @return The amount of times the heuristic has been called
+     */
+
+    long getInvocations();
+
+    /**
+     * @return The amount of calls that made a move
+     */
+
+    long getSuccesses();
+
+    /**
+     * @return The fraction of calls that made a move
+     */
+
+    double getSuccessRate();
+
+    /**
+     * @return The total time spent in the heuristic in nanoseconds
+     */
+
+    long getTotalTime();
+
+    /**
+     * @return The average time of a call in nanoseconds
+     */
+
+    double getAverageTime();
+
+    /**
+     * @return The amount of moves made by the heuristic, including cards turned up but not stock deals
+     */
+
+    long getMoves();
+
+    /**
+     * @return The amount of stock deals made by the heuristic
+     */
+
+    long getStockDeals();
+
+    /**
+     * Sets every count back to 0.
+     */
+
+    void reset();
+}
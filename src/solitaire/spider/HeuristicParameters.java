@@ -0,0 +1,101 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.HeuristicParameters</h1>
+ * This is a class for the constants the sorting algorithm's heuristics are built on, so that they can be tuned without
+ * changing the heuristics. The parameters are:
+ *
+ * The retain threshold, the amount of cards on the tableau at or below which the stock is dealt to stop the tableau
+ * from running out of cards before the stock does.
+ *
+ * Whether a marriage looks for the highest ranks first. Marrying a Queen onto a King before anything else keeps the
+ * longest runs together, whilst marrying the Aces first frees the smallest cards.
+ *
+ * The tie break, which decides which card a marriage is made from when more than one card of the rank being looked
+ * for can be moved.
+ *
+ * The parameters of a new algorithm are the defaults, which are the constants the algorithm has always used. A set of
+ * parameters cannot be changed once it has been made, so the same set can be shared by every thread of a run.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class HeuristicParameters {
+
+    /**
+     * The ways of choosing which of two stacks holding a card of the same rank a marriage is made from.
+     */
+
+    public enum TieBreak {
+
+        //The other stack is only chosen if it has no more face down cards and fewer sequences
+        STRICT,
+        //The stack with fewer face down cards is chosen, then the stack with fewer sequences
+        FACE_DOWN_FIRST,
+        //The stack with fewer sequences is chosen, then the stack with fewer face down cards
+        SEQUENCES_FIRST,
+        //The stack furthest to the right is always chosen
+        RIGHTMOST
+    }
+
+    public static final HeuristicParameters DEFAULT = new HeuristicParameters(22, true, TieBreak.STRICT);
+
+    private final int retainThreshold;
+    private final boolean highRanksFirst;
+    private final TieBreak tieBreak;
+
+    public HeuristicParameters(int retainThreshold, boolean highRanksFirst, TieBreak tieBreak) {
+
+        if (retainThreshold < 0 || retainThreshold > Board.DECK_SIZE) {
+            throw new IllegalArgumentException("Error! " + retainThreshold + " is not a valid retain threshold.");
+        }
+        if (tieBreak == null) {
+            throw new IllegalArgumentException("Error! The parameters need a tie break.");
+        }
+
+        this.retainThreshold = retainThreshold;
+        this.highRanksFirst = highRanksFirst;
+        this.tieBreak = tieBreak;
+    }
+
+    public int getRetainThreshold() {
+
+        return retainThreshold;
+    }
+
+    public boolean isHighRanksFirst() {
+
+        return highRanksFirst;
+    }
+
+    public TieBreak getTieBreak() {
+
+        return tieBreak;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+        if (!(other instanceof HeuristicParameters)) {
+            return false;
+        }
+        HeuristicParameters parameters = (HeuristicParameters) other;
+        return retainThreshold == parameters.retainThreshold && highRanksFirst == parameters.highRanksFirst &&
+                tieBreak == parameters.tieBreak;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return (retainThreshold * 31 + (highRanksFirst ? 1 : 0)) * 31 + tieBreak.hashCode();
+    }
+
+    @Override
+    public String toString() {
+
+        return "retain " + retainThreshold + ", " + (highRanksFirst ? "high" : "low") + " ranks first, " +
+                tieBreak.name().toLowerCase().replace('_', ' ') + " tie break";
+    }
+}
@@ -0,0 +1,135 @@
+package solitaire.spider;
+
+import java.io.PrintStream;
+
+/**
+ * <h1>solitaire.spider.Log</h1>
+ * This is a class for the messages the game and the sorting algorithm write as they play. Every message has a level
+ * and is only written if its level is enabled, so a batch of simulated games can be played without writing a line.
+ * The levels from quietest to loudest are:
+ *
+ * ERROR and WARN, for games that could not be played as asked, such as one abandoned at the move limit.
+ *
+ * INFO, for messages a person playing the game needs, such as an illegal move. This is the level by default.
+ *
+ * DEBUG, for every move, deal and foundation made.
+ *
+ * TRACE, for the start and end of every heuristic along with a count of the cards in play.
+ *
+ * Checking a level only reads a field, and a message built from several parts should be built inside an isEnabled()
+ * check so nothing is joined when the level is off. A single game can also be traced without turning up the level for
+ * every game, with SpiderSolitaire.setTraced(). The level can be set when the JVM starts with -Dspider.log=debug.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class Log {
+
+    /**
+     * The levels of a message, from quietest to loudest.
+     */
+
+    public enum Level {
+
+        OFF,
+        ERROR,
+        WARN,
+        INFO,
+        DEBUG,
+        TRACE
+    }
+
+    private static volatile Level level = parse(System.getProperty("spider.log"), Level.INFO);
+    private static volatile PrintStream output = System.out;
+
+    private Log() {
+    }
+
+    /**
+     * A method for reading a level from its name, ignoring case.
+     *
+     * @param name The name of the level, such as "debug", or null
+     * @param fallback The level returned if the name is null
+     * @return The level with the given name
+     */
+
+    public static Level parse(String name, Level fallback) {
+
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error! " + name + " is not a valid log level.");
+        }
+    }
+
+    public static Level getLevel() {
+
+        return level;
+    }
+
+    public static void setLevel(Level level) {
+
+        if (level == null) {
+            throw new IllegalArgumentException("Error! The log needs a level.");
+        }
+        Log.level = level;
+    }
+
+    /**
+     * A method for choosing where messages are written, which is the console by default.
+     *
+     * @param output The stream messages are written to
+     */
+
+    public static void setOutput(PrintStream output) {
+
+        if (output == null) {
+            throw new IllegalArgumentException("Error! The log needs an output.");
+        }
+        Log.output = output;
+    }
+
+    /**
+     * A method for checking whether messages of a level are written.
+     *
+     * @param messageLevel The level of the message
+     * @return Returns true if the message would be written
+     */
+
+    public static boolean isEnabled(Level messageLevel) {
+
+        return messageLevel.compareTo(level) <= 0 && messageLevel != Level.OFF;
+    }
+
+    /**
+     * A method that writes a message if its level is enabled.
+     *
+     * @param messageLevel The level of the message
+     * @param message The message, which should not be joined from parts unless the level has been checked first
+     */
+
+    public static void log(Level messageLevel, String message) {
+
+        if (isEnabled(messageLevel)) {
+            output.println(message);
+        }
+    }
+
+    /**
+     * A method that writes a message whatever the level, for a caller that has already checked it, such as a traced
+     * game.
+     *
+     * @param message The message to write
+     */
+
+    public static void write(String message) {
+
+        output.println(message);
+    }
+}
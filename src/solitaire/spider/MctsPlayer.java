@@ -0,0 +1,531 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>solitaire.spider.MctsPlayer</h1>
+ * This is a class for a player that chooses every move with a Monte Carlo tree search. Each rollout walks down a tree
+ * of moves from the current position, choosing the move that has done best so far with a bonus for moves that have
+ * been tried less (UCT), adds a new position to the tree and then plays on from it at random until the game ends or a
+ * move limit is reached. How far the game got is added back up the tree, and once the rollouts have run out the move
+ * that was tried the most is played. The tree only holds the moves the Solver would try, so once the stock is gone,
+ * moves that lead to the same position through a different empty column are not searched twice.
+ *
+ * The stock deal is not part of the tree, as short rollouts always favour the extra face up cards it brings. It is made
+ * once there are no moves left on the tableau, or once too many moves in a row have not turned up a card or completed
+ * a run, so the player cannot wander forever. Moves back to a position already played are never made.
+ *
+ * The rollouts are lightly guided: most of the time they choose at random from the moves that build a same-suit
+ * sequence or turn up a card, and otherwise from every legal move. A rollout scores 1 for a win and otherwise a
+ * fraction for the completed runs, face up cards and sorted cards it reached. The scores of different moves are close
+ * together, so the bonus for moves tried less is kept small.
+ *
+ * The rollouts for a move are shared between threads. Each thread grows its own tree on its own board from the same
+ * position, and the visits to each first move are added up across the trees before choosing (root parallelisation),
+ * so the threads never wait for each other. Each move is given a budget of rollouts, or a time budget instead if one is
+ * set. Moves are only repeatable when a single thread is used with a rollout budget. Like the solver, the rollouts
+ * see cards as they are turned up.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class MctsPlayer implements Player {
+
+    public static final int DEFAULT_ROLLOUTS = 1000;
+
+    //The stock is dealt once this many moves in a row have not turned up a card or completed a run
+    private static final int PROGRESS_LIMIT = 20;
+    private static final int ROLLOUT_LENGTH = 40;
+    private static final double EXPLORATION = 0.03;
+    //How many times in ten a rollout picks from the guided moves when there are any
+    private static final int GUIDANCE = 9;
+    private static final int DEALT_FACE_DOWN = Board.DECK_SIZE - Board.STOCK_SIZE * Board.STOCK_PILE_SIZE -
+            Board.TABLEAU_SIZE;
+
+    private final SpiderSolitaire game;
+    private final Board board;
+    private final int rolloutBudget;
+    private final int threadCount;
+    private long timeBudget;
+    private long seed;
+
+    private final SearchTree[] trees;
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+    private final HashTranspositionTable played = new HashTranspositionTable();
+    private ExecutorService executor;
+
+    private long rollouts;
+    private long searchTime;
+    private int movesChosen;
+
+    /**
+     * @param game The game to play
+     * @param rolloutBudget The amount of rollouts to run for every move
+     * @param threadCount The amount of threads to run the rollouts on
+     */
+
+    public MctsPlayer(SpiderSolitaire game, int rolloutBudget, int threadCount) {
+
+        if (rolloutBudget < 1) {
+            throw new IllegalArgumentException("Error! " + rolloutBudget + " is not a valid rollout budget.");
+        }
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Error! " + threadCount + " is not a valid amount of threads.");
+        }
+
+        this.game = game;
+        this.board = game.getBoard();
+        this.rolloutBudget = rolloutBudget;
+        this.threadCount = threadCount;
+        this.seed = new SplittableRandom().nextLong();
+
+        this.trees = new SearchTree[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            trees[i] = new SearchTree();
+        }
+    }
+
+    public MctsPlayer(SpiderSolitaire game) {
+
+        this(game, DEFAULT_ROLLOUTS, 1);
+    }
+
+    public int getRolloutBudget() {
+
+        return rolloutBudget;
+    }
+
+    public int getThreadCount() {
+
+        return threadCount;
+    }
+
+    public long getTimeBudget() {
+
+        return timeBudget;
+    }
+
+    /**
+     * A method for giving every move a fixed amount of time instead of a fixed amount of rollouts.
+     *
+     * @param timeBudget The time to search for each move in milliseconds, or 0 to use the rollout budget
+     */
+
+    public void setTimeBudget(long timeBudget) {
+
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Error! " + timeBudget + "ms is not a valid time budget.");
+        }
+
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * A method for setting the seed the rollouts are chosen from, so that a game played on one thread can be repeated.
+     *
+     * @param seed The seed of the rollouts
+     */
+
+    @Override
+    public void setSeed(long seed) {
+
+        this.seed = seed;
+    }
+
+    public long getRollouts() {
+
+        return rollouts;
+    }
+
+    public int getMovesChosen() {
+
+        return movesChosen;
+    }
+
+    /**
+     * A method for returning the time spent searching since the player was made.
+     *
+     * @return The time in nanoseconds
+     */
+
+    public long getSearchTime() {
+
+        return searchTime;
+    }
+
+    /**
+     * A method for returning how many rollouts have been run a second across every thread.
+     *
+     * @return The rollouts per second
+     */
+
+    public double getRolloutsPerSecond() {
+
+        return searchTime == 0 ? 0 : rollouts * 1e9 / searchTime;
+    }
+
+    @Override
+    public boolean playGame() throws InterruptedException {
+
+        played.clear();
+        played.add(board.getHash());
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount);
+        }
+
+        try {
+            int sinceProgress = 0;
+            for (int moveCount = 0; moveCount < MOVE_LIMIT && !board.isWon(); moveCount++) {
+
+                boolean stalled = sinceProgress >= PROGRESS_LIMIT && board.getStockCount() > 0;
+                int move = stalled && board.canDealStock() ? Move.deal() : chooseMove(stalled);
+                if (move < 0) {
+
+                    //Once there are no moves left on the tableau the stock is dealt, after filling any empty columns
+                    if (board.getStockCount() == 0) {
+                        break;
+                    }
+                    move = board.canDealStock() ? Move.deal() : chooseMove(true);
+                    if (move < 0) {
+                        break;
+                    }
+                }
+                int record = game.makeMove(move);
+                played.add(board.getHash());
+
+                if (Move.isDeal(record) || Move.hasFlag(record, Move.TURNED_ORIGIN | Move.FOUNDATION)) {
+                    sinceProgress = 0;
+                }
+                else {
+                    sinceProgress++;
+                }
+            }
+        }
+        finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+        return board.isWon();
+    }
+
+    /**
+     * A method that runs the rollouts for the current position and returns the move that was tried the most. The stock
+     * deal and moves back to a position that has already been played are left out.
+     *
+     * @param filling Whether only moves that fill an empty column without emptying another should be chosen from, so
+     *                the stock can be dealt
+     * @return The move to make, or -1 if there are no moves left
+     * @throws InterruptedException If the thread is interrupted whilst the rollouts are running
+     */
+
+    int chooseMove(boolean filling) throws InterruptedException {
+
+        int moveCount = 0;
+        int legalCount = Solver.orderMoves(board, moves, generator.generateMoves(board, moves), rootMoves, 0);
+        for (int i = 0; i < legalCount; i++) {
+
+            if (Move.isDeal(rootMoves[i]) || filling && (!board.isEmpty(Move.destination(rootMoves[i])) ||
+                    Move.cardCount(rootMoves[i]) == board.size(Move.origin(rootMoves[i])))) {
+                continue;
+            }
+
+            int record = board.applyMove(rootMoves[i]);
+            if (!played.contains(board.getHash())) {
+                rootMoves[moveCount++] = rootMoves[i];
+            }
+            board.undoMove(record);
+        }
+        if (moveCount <= 1) {
+            return moveCount == 0 ? -1 : rootMoves[0];
+        }
+
+        long startTime = System.nanoTime();
+        long deadline = timeBudget > 0 ? startTime + timeBudget * 1_000_000 : 0;
+        AtomicInteger remaining = new AtomicInteger(timeBudget > 0 ? Integer.MAX_VALUE : rolloutBudget);
+        //The rollouts are seeded from the position, so the same position always gets the same rollouts
+        long moveSeed = seed ^ board.getHash();
+        movesChosen++;
+
+        if (executor == null) {
+            rollouts += trees[0].search(moveCount, remaining, deadline, moveSeed);
+        }
+        else {
+            List<Callable<Integer>> searches = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+
+                SearchTree tree = trees[i];
+                long treeSeed = moveSeed + i;
+                int count = moveCount;
+                searches.add(() -> tree.search(count, remaining, deadline, treeSeed));
+            }
+            try {
+                for (Future<Integer> search : executor.invokeAll(searches)) {
+                    rollouts += search.get();
+                }
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("A rollout failed to complete.", e.getCause());
+            }
+        }
+        searchTime += System.nanoTime() - startTime;
+
+        int bestMove = -1;
+        long bestVisits = -1;
+        for (int i = 0; i < moveCount; i++) {
+
+            long visits = 0;
+            for (SearchTree tree : trees) {
+                visits += tree.rootVisits(i);
+            }
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                bestMove = rootMoves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * This is a search tree grown by one thread. The nodes are held in parallel arrays, with the children of a node
+     * next to each other, so growing the tree only creates objects when the arrays run out of room.
+     */
+
+    private class SearchTree {
+
+        private final Board work = new Board();
+        private final MoveGenerator generator = new MoveGenerator();
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private final int[] ordered = new int[MoveGenerator.MAX_MOVES];
+        private final int[] guided = new int[MoveGenerator.MAX_MOVES];
+        private SplittableRandom random;
+
+        private int nodeCount;
+        private int[] move = new int[1024];
+        //The index of a node's first child, or -1 if its children have not been added yet
+        private int[] firstChild = new int[1024];
+        private int[] childCount = new int[1024];
+        private int[] visits = new int[1024];
+        private double[] value = new double[1024];
+        private int[] path = new int[64];
+
+        /**
+         * A method that runs rollouts from the player's board until the shared budget or the time runs out.
+         *
+         * @param rootCount The amount of moves from the player's board to choose between
+         * @param remaining The rollouts left to run across every thread
+         * @param deadline The time to stop at, or 0 for no limit
+         * @param treeSeed The seed of this tree's rollouts
+         * @return The amount of rollouts run by this tree
+         */
+
+        int search(int rootCount, AtomicInteger remaining, long deadline, long treeSeed) {
+
+            random = new SplittableRandom(treeSeed);
+            nodeCount = 1;
+            firstChild[0] = -1;
+            visits[0] = 0;
+            value[0] = 0;
+            addChildren(0, rootMoves, rootCount);
+
+            int count = 0;
+            while (remaining.getAndDecrement() > 0 && (deadline == 0 || System.nanoTime() < deadline)) {
+                rollout();
+                count++;
+            }
+            return count;
+        }
+
+        int rootVisits(int index) {
+
+            return visits[firstChild[0] + index];
+        }
+
+        private void rollout() {
+
+            work.copyFrom(board);
+            int node = 0;
+            int depth = 0;
+            path[depth++] = 0;
+
+            //The tree is walked down by UCT until a node without children is reached
+            while (firstChild[node] >= 0 && childCount[node] > 0 && !work.isWon()) {
+
+                node = select(node);
+                work.applyMove(move[node]);
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = node;
+            }
+
+            //A node's children are added the second time it is reached, and one of them is played
+            if (firstChild[node] < 0 && visits[node] > 0 && !work.isWon()) {
+
+                //The deal is ordered last and is left out of the tree
+                int moveCount = Solver.orderMoves(work, moves, generator.generateMoves(work, moves), ordered, 0);
+                if (moveCount > 0 && Move.isDeal(ordered[moveCount - 1])) {
+                    moveCount--;
+                }
+                addChildren(node, ordered, moveCount);
+                if (childCount[node] > 0) {
+
+                    node = firstChild[node] + random.nextInt(childCount[node]);
+                    work.applyMove(move[node]);
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, depth * 2);
+                    }
+                    path[depth++] = node;
+                }
+            }
+
+            double reward = playOut();
+            for (int i = 0; i < depth; i++) {
+                visits[path[i]]++;
+                value[path[i]] += reward;
+            }
+        }
+
+        private int select(int node) {
+
+            double logVisits = Math.log(visits[node] + 1);
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+
+                if (visits[child] == 0) {
+                    return child;
+                }
+                double uct = value[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+                if (uct > bestValue) {
+                    bestValue = uct;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        private void addChildren(int node, int[] childMoves, int count) {
+
+            if (nodeCount + count > move.length) {
+
+                int capacity = Math.max(move.length * 2, nodeCount + count);
+                move = Arrays.copyOf(move, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                visits = Arrays.copyOf(visits, capacity);
+                value = Arrays.copyOf(value, capacity);
+            }
+
+            firstChild[node] = nodeCount;
+            childCount[node] = count;
+            for (int i = 0; i < count; i++, nodeCount++) {
+
+                move[nodeCount] = childMoves[i];
+                firstChild[nodeCount] = -1;
+                childCount[nodeCount] = 0;
+                visits[nodeCount] = 0;
+                value[nodeCount] = 0;
+            }
+        }
+
+        /**
+         * A method that plays on from the work board with lightly guided random moves and scores how far it got.
+         *
+         * @return The score of the rollout, from 0 to 1
+         */
+
+        private double playOut() {
+
+            for (int step = 0; step < ROLLOUT_LENGTH && !work.isWon(); step++) {
+
+                int moveCount = generator.generateMoves(work, moves);
+                if (moveCount == 0) {
+                    break;
+                }
+
+                int guidedCount = 0;
+                for (int i = 0; i < moveCount; i++) {
+                    if (isGuided(moves[i])) {
+                        guided[guidedCount++] = moves[i];
+                    }
+                }
+
+                //The deal is listed last and is only made once there is nothing else to do
+                int tableauCount = Move.isDeal(moves[moveCount - 1]) ? moveCount - 1 : moveCount;
+                if (guidedCount > 0 && random.nextInt(10) < GUIDANCE) {
+                    work.applyMove(guided[random.nextInt(guidedCount)]);
+                }
+                else {
+                    work.applyMove(moves[tableauCount == 0 ? moveCount - 1 : random.nextInt(tableauCount)]);
+                }
+            }
+            return reward(work);
+        }
+
+        /**
+         * A method that checks whether a move builds a same-suit sequence or turns up a face down card.
+         *
+         * @param candidate The move to check
+         * @return Returns true if the move should be preferred in a rollout
+         */
+
+        private boolean isGuided(int candidate) {
+
+            if (Move.isDeal(candidate)) {
+                return false;
+            }
+
+            int origin = Move.origin(candidate);
+            int destination = Move.destination(candidate);
+            int cardCount = Move.cardCount(candidate);
+            if (cardCount == work.countFaceUp(origin) && work.countFaceDown(origin) > 0) {
+                return true;
+            }
+            return !work.isEmpty(destination) && Board.suit(work.top(destination)) ==
+                    Board.suit(work.cardAt(origin, work.size(origin) - cardCount));
+        }
+    }
+
+    /**
+     * A method that scores how far a game has got, with most of the weight on completed runs.
+     *
+     * @param position The position to score
+     * @return The score, which is 1 for a won game
+     */
+
+    static double reward(Board position) {
+
+        if (position.isWon()) {
+            return 1;
+        }
+
+        int faceDown = 0;
+        int faceUp = 0;
+        int sequences = 0;
+        for (int i = 0; i < Board.TABLEAU_SIZE; i++) {
+            faceDown += position.countFaceDown(i);
+            faceUp += position.countFaceUp(i);
+            sequences += position.countSequences(i);
+        }
+        //The fewer sequences the face up cards are split into, the closer they are to being completed
+        double sorted = faceUp == 0 ? 1 : (double) (faceUp - sequences) / faceUp;
+        return 0.5 * position.getFoundationCount() / Board.FOUNDATION_SIZE +
+                0.3 * Math.max(0, DEALT_FACE_DOWN - faceDown) / DEALT_FACE_DOWN + 0.2 * sorted;
+    }
+}
@@ -0,0 +1,161 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.Move</h1>
+ * This is a class of helper methods for moves stored as a single int, in the same way as Board stores cards as bytes.
+ * A move is either a run of cards being moved from one tableau column to another, a stock deal or a face down card
+ * being turned up.
+ *
+ * Once a move has been made by Board.applyMove(), the int that is returned also records what else happened during the
+ * move: whether the completed run on the destination was sent to the foundation and whether a face down card was turned
+ * over on either column. This is everything Board.undoMove() needs to put the board back exactly as it was, so a move
+ * can be made and unmade without copying the board or creating any objects.
+ *
+ * Bits 0-3 hold the origin column, bits 4-7 the destination column and bits 8-14 the amount of cards moved. The flags
+ * are held in the bits above.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class Move {
+
+    private static final int COLUMN_MASK = 0x0F;
+    private static final int DESTINATION_SHIFT = 4;
+    private static final int COUNT_SHIFT = 8;
+    private static final int COUNT_MASK = 0x7F;
+
+    public static final int DEAL = 1 << 15;
+    public static final int TURN = 1 << 16;
+    public static final int TURNED_ORIGIN = 1 << 17;
+    public static final int TURNED_DESTINATION = 1 << 18;
+    public static final int FOUNDATION = 1 << 19;
+    //Every flag that is filled in by Board.applyMove() rather than by the caller
+    public static final int RESULT_FLAGS = TURNED_ORIGIN | TURNED_DESTINATION | FOUNDATION;
+
+    private Move() {
+
+    }
+
+    /**
+     * A method for creating a move of one or more cards from the top of one tableau column to another.
+     *
+     * @param origin The index of the tableau column the cards are taken from
+     * @param destination The index of the tableau column the cards are added to
+     * @param cardCount The amount of cards to be moved
+     * @return The move
+     */
+
+    public static int move(int origin, int destination, int cardCount) {
+
+        if (origin < 0 || origin >= Board.TABLEAU_SIZE || destination < 0 || destination >= Board.TABLEAU_SIZE) {
+            throw new IllegalArgumentException("Error! " + origin + " to " + destination + " is not a valid move.");
+        }
+        if (cardCount < 1 || cardCount > Board.COLUMN_CAPACITY) {
+            throw new IllegalArgumentException("Error! " + cardCount + " is not a valid amount of cards to move.");
+        }
+
+        return encode(origin, destination, cardCount);
+    }
+
+    /**
+     * A method for creating a move without checking it, for the move generator.
+     *
+     * @param origin The index of the tableau column the cards are taken from
+     * @param destination The index of the tableau column the cards are added to
+     * @param cardCount The amount of cards to be moved
+     * @return The move
+     */
+
+    static int encode(int origin, int destination, int cardCount) {
+
+        return origin | destination << DESTINATION_SHIFT | cardCount << COUNT_SHIFT;
+    }
+
+    /**
+     * A method for creating a deal of one card from the stock onto every tableau column.
+     *
+     * @return The move
+     */
+
+    public static int deal() {
+
+        return DEAL;
+    }
+
+    /**
+     * A method for creating a move that turns up the face down card on top of a tableau column.
+     *
+     * @param column The index of the tableau column
+     * @return The move
+     */
+
+    public static int turn(int column) {
+
+        if (column < 0 || column >= Board.TABLEAU_SIZE) {
+            throw new IllegalArgumentException("Error! " + column + " is not a valid tableau index.");
+        }
+
+        return TURN | column;
+    }
+
+    public static int origin(int move) {
+
+        return move & COLUMN_MASK;
+    }
+
+    public static int destination(int move) {
+
+        return (move >> DESTINATION_SHIFT) & COLUMN_MASK;
+    }
+
+    public static int cardCount(int move) {
+
+        return (move >> COUNT_SHIFT) & COUNT_MASK;
+    }
+
+    public static boolean isDeal(int move) {
+
+        return (move & DEAL) != 0;
+    }
+
+    public static boolean isTurn(int move) {
+
+        return (move & TURN) != 0;
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+
+        return (move & flag) != 0;
+    }
+
+    /**
+     * A method for describing a move, for printing.
+     *
+     * @param move The move
+     * @return A description of the move
+     */
+
+    public static String toString(int move) {
+
+        if (isDeal(move)) {
+            return "Deal";
+        }
+        if (isTurn(move)) {
+            return "Turn " + origin(move);
+        }
+
+        String description = cardCount(move) + " card(s) " + origin(move) + " to " + destination(move);
+        if (hasFlag(move, FOUNDATION)) {
+            description += ", foundation";
+        }
+        if (hasFlag(move, TURNED_DESTINATION)) {
+            description += ", turned " + destination(move);
+        }
+        if (hasFlag(move, TURNED_ORIGIN)) {
+            description += ", turned " + origin(move);
+        }
+        return description;
+    }
+}
@@ -0,0 +1,43 @@
+package solitaire.spider;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <h1>solitaire.spider.MoveEvent</h1>
+ * This is a Java Flight Recorder event for every move the sorting algorithm asks for, along with the heuristic that
+ * asked for it. A move that would undo the last move is turned into a stock deal instead, so not every event is a move
+ * that was made. The event is off by default, and no stack trace is taken, as the heuristic already says where the
+ * move came from and taking one for every move would slow a recorded run down by far more than the event itself.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+@Name("solitaire.spider.Move")
+@Label("Move")
+@Category("Spider Solitaire")
+@Description("A move asked for by the sorting algorithm")
+@Enabled(false)
+@StackTrace(false)
+final class MoveEvent extends Event {
+
+    @Label("Origin")
+    int origin;
+
+    @Label("Destination")
+    int destination;
+
+    @Label("Card Count")
+    int cardCount;
+
+    @Label("Heuristic")
+    @Description("The heuristic that asked for the move")
+    String heuristic;
+}
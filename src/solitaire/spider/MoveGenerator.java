@@ -0,0 +1,84 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+
+/**
+ * <h1>solitaire.spider.MoveGenerator</h1>
+ * This is a class for listing every legal move that can be made on a board. A move is legal if the cards being moved
+ * are face up and in a same-suit sequence and the destination is either empty or has a face up card on top that is one
+ * rank higher than the bottom card being moved. A stock deal is legal when there is stock left and no empty columns.
+ *
+ * The moves are written into an array supplied by the caller, so the same array can be reused for every position.
+ * Before looking for moves, the generator sorts the columns by the rank of their top card into its own table, so each
+ * length of sequence is matched straight to the columns it can go on rather than every pair of columns being checked.
+ * The table is reused, so no objects are created once the generator has been made. A generator must only be used by
+ * one thread at a time.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class MoveGenerator {
+
+    //Every sequence length from every column to every other column, plus a stock deal
+    public static final int MAX_MOVES = Board.TABLEAU_SIZE * Board.RUN_LENGTH * (Board.TABLEAU_SIZE - 1) + 1;
+
+    //A bit for every column with a face up card of the rank on top, with an extra rank above King that is always empty
+    private final int[] columnsByRank = new int[Board.RUN_LENGTH + 2];
+
+    /**
+     * A method that writes every legal move on a board into an array. Moves to an empty column are listed for every
+     * length of the sequence on top of the origin column. The stock deal, if it can be made, is listed last.
+     *
+     * @param board The board to find moves on
+     * @param moves An array of at least MAX_MOVES ints that the moves are written into
+     * @return The amount of moves written
+     */
+
+    public int generateMoves(Board board, int[] moves) {
+
+        if (moves.length < MAX_MOVES) {
+            throw new IllegalArgumentException("Error! The move buffer must hold at least " + MAX_MOVES + " moves.");
+        }
+
+        Arrays.fill(columnsByRank, 0);
+        int emptyColumns = 0;
+        for (int column = 0; column < Board.TABLEAU_SIZE; column++) {
+
+            if (board.isEmpty(column)) {
+                emptyColumns |= 1 << column;
+            }
+            else if (Board.isFaceUp(board.top(column))) {
+                columnsByRank[Board.rank(board.top(column))] |= 1 << column;
+            }
+        }
+
+        int count = 0;
+        for (int origin = 0; origin < Board.TABLEAU_SIZE; origin++) {
+
+            if (board.isEmpty(origin) || !Board.isFaceUp(board.top(origin))) {
+                continue;
+            }
+
+            int topRank = Board.rank(board.top(origin));
+            int sequenceLength = Math.min(board.sequenceLength(origin), Board.RUN_LENGTH + 1 - topRank);
+            for (int cardCount = 1; cardCount <= sequenceLength; cardCount++) {
+
+                //The sequence can go on any column with a card one rank above its bottom card, or on any empty column
+                int destinations = (columnsByRank[topRank + cardCount] | emptyColumns) & ~(1 << origin);
+                while (destinations != 0) {
+
+                    int destination = Integer.numberOfTrailingZeros(destinations);
+                    destinations &= destinations - 1;
+                    moves[count++] = Move.encode(origin, destination, cardCount);
+                }
+            }
+        }
+
+        if (emptyColumns == 0 && board.getStockCount() > 0) {
+            moves[count++] = Move.deal();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,105 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * <h1>solitaire.spider.MoveLog</h1>
+ * This is a class for keeping the moves that have been made in a game, so they can be undone in the reverse order. The
+ * moves are the ints returned by Board.applyMove() and are kept in an int array, which only grows when it is full, so
+ * recording a move does not create any objects.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class MoveLog {
+
+    private int[] moves;
+    private int size;
+
+    public MoveLog(int capacity) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Error! " + capacity + " is not a valid capacity.");
+        }
+
+        this.moves = new int[capacity];
+    }
+
+    public MoveLog() {
+
+        this(256);
+    }
+
+    /**
+     * A method for recording a move that has been made.
+     *
+     * @param move The move returned by Board.applyMove()
+     */
+
+    public void push(int move) {
+
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * A method for removing the last move that was made.
+     *
+     * @return The last move
+     * @throws EmptyStackException If no moves have been made, in the same way as Stack.pop()
+     */
+
+    public int pop() {
+
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
+        return moves[--size];
+    }
+
+    public int peek() {
+
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
+        return moves[size - 1];
+    }
+
+    /**
+     * A method for reading a move in the log.
+     *
+     * @param index The position of the move, where 0 is the first move of the game
+     * @return The move
+     */
+
+    public int get(int index) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error! " + index + " is not a move in the log.");
+        }
+
+        return moves[index];
+    }
+
+    public int size() {
+
+        return size;
+    }
+
+    public boolean isEmpty() {
+
+        return size == 0;
+    }
+
+    public void clear() {
+
+        size = 0;
+    }
+}
@@ -0,0 +1,34 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.MoveStrategy</h1>
+ * This is an interface for one of the ways the sorting algorithm looks for moves, such as a marriage or a deal
+ * preparation. A StrategyPipeline tries its strategies one after another until one of them makes a move, so the
+ * strategies an algorithm uses, and the order it tries them in, can be changed without changing the algorithm.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public interface MoveStrategy {
+
+    /**
+     * A method for returning the name of the strategy, as it is shown in reports.
+     *
+     * @return The name of the strategy
+     */
+
+    String getName();
+
+    /**
+     * A method that looks for moves with the strategy and makes any it finds. The moves are made through the
+     * algorithm, so the algorithm can stop a move from undoing the last one and can stop the game at its move limit.
+     *
+     * @param algorithm The algorithm playing the game
+     * @return Returns true if the strategy made a move
+     * @throws InterruptedException If the thread is interrupted whilst playing
+     */
+
+    boolean apply(SortingAlgorithm algorithm) throws InterruptedException;
+}
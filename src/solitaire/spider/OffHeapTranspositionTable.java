@@ -0,0 +1,226 @@
+package solitaire.spider;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <h1>solitaire.spider.OffHeapTranspositionTable</h1>
+ * This is a class for a transposition table that lives in a fixed block of memory outside the heap, so a long search
+ * runs with a flat memory ceiling and the table is never looked at by the garbage collector. The size of the block is
+ * given in bytes and the table never grows past it.
+ *
+ * The block is split into buckets of four entries, one cache line each, and a hash can only be stored in the bucket it
+ * maps to. Each entry holds the hash, the depth it was reached at and a referenced bit which is set whenever the
+ * position is reached again. Once a bucket is full a new position replaces one of its entries, in the same way as a
+ * clock: referenced entries are given a second chance and have their bit cleared, and of the entries left the deepest
+ * is replaced, as the shallow positions have the most searched below them.
+ *
+ * A position that has been replaced can be searched again, so a search using this table still gives the right answer
+ * but may take more nodes, and a node budget should be used as a replaced position on the current line of play can
+ * lead the search round in a loop. The table is only suitable for a single thread.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class OffHeapTranspositionTable implements TranspositionTable {
+
+    private static final int ENTRY_SIZE = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_SIZE = ENTRY_SIZE * BUCKET_ENTRIES;
+    private static final int DEPTH_OFFSET = 8;
+    private static final int REFERENCED_OFFSET = 12;
+    public static final long MAX_BYTES = 1 << 30;
+
+    private final ByteBuffer buffer;
+    private final int bucketMask;
+
+    private long size;
+    private long lookups;
+    private long hits;
+    private long evictions;
+
+    /**
+     * @param bytes The most memory the table may use, which is rounded down to a power of two
+     */
+
+    public OffHeapTranspositionTable(long bytes) {
+
+        if (bytes < BUCKET_SIZE || bytes > MAX_BYTES) {
+            throw new IllegalArgumentException("Error! " + bytes + " bytes is not a valid size for the table.");
+        }
+
+        this.buffer = ByteBuffer.allocateDirect((int) Long.highestOneBit(bytes)).order(ByteOrder.nativeOrder());
+        this.bucketMask = buffer.capacity() / BUCKET_SIZE - 1;
+    }
+
+    public OffHeapTranspositionTable() {
+
+        this(64 << 20);
+    }
+
+    @Override
+    public boolean add(long hash) {
+
+        return add(hash, 0);
+    }
+
+    @Override
+    public boolean add(long hash, int depth) {
+
+        //A hash of 0 marks an empty entry
+        if (hash == 0) {
+            hash = 1;
+        }
+        lookups++;
+
+        int bucket = ((int) (hash ^ (hash >>> 32)) & bucketMask) * BUCKET_SIZE;
+        int empty = -1;
+        for (int entry = bucket; entry < bucket + BUCKET_SIZE; entry += ENTRY_SIZE) {
+
+            long current = buffer.getLong(entry);
+            if (current == hash) {
+
+                hits++;
+                buffer.putInt(entry + REFERENCED_OFFSET, 1);
+                return false;
+            }
+            if (current == 0 && empty < 0) {
+                empty = entry;
+            }
+        }
+
+        if (empty >= 0) {
+            size++;
+        }
+        else {
+            empty = victim(bucket);
+            evictions++;
+        }
+
+        buffer.putLong(empty, hash);
+        buffer.putInt(empty + DEPTH_OFFSET, depth);
+        buffer.putInt(empty + REFERENCED_OFFSET, 0);
+        return true;
+    }
+
+    /**
+     * A method that chooses the entry of a full bucket to replace. Entries that have been reached again lose their
+     * referenced bit instead of being chosen, unless every entry has been reached again.
+     *
+     * @param bucket The offset of the bucket
+     * @return The offset of the entry to replace
+     */
+
+    private int victim(int bucket) {
+
+        int deepest = -1;
+        int deepestDepth = -1;
+        int deepestReferenced = -1;
+        int deepestReferencedDepth = -1;
+
+        for (int entry = bucket; entry < bucket + BUCKET_SIZE; entry += ENTRY_SIZE) {
+
+            int depth = buffer.getInt(entry + DEPTH_OFFSET);
+            if (buffer.getInt(entry + REFERENCED_OFFSET) != 0) {
+
+                buffer.putInt(entry + REFERENCED_OFFSET, 0);
+                if (depth > deepestReferencedDepth) {
+                    deepestReferenced = entry;
+                    deepestReferencedDepth = depth;
+                }
+            }
+            else if (depth > deepestDepth) {
+                deepest = entry;
+                deepestDepth = depth;
+            }
+        }
+
+        return deepest >= 0 ? deepest : deepestReferenced;
+    }
+
+    @Override
+    public long size() {
+
+        return size;
+    }
+
+    /**
+     * A method for returning how many positions the table can hold.
+     *
+     * @return The amount of entries
+     */
+
+    public long capacity() {
+
+        return (long) (bucketMask + 1) * BUCKET_ENTRIES;
+    }
+
+    @Override
+    public long memoryUsed() {
+
+        return buffer.capacity();
+    }
+
+    public long getLookups() {
+
+        return lookups;
+    }
+
+    public long getHits() {
+
+        return hits;
+    }
+
+    public long getEvictions() {
+
+        return evictions;
+    }
+
+    /**
+     * A method for returning the fraction of positions added that were already in the table.
+     *
+     * @return The hit rate, from 0 to 1
+     */
+
+    public double getHitRate() {
+
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * A method for returning the fraction of the table's entries that hold a position.
+     *
+     * @return The occupancy, from 0 to 1
+     */
+
+    public double getOccupancy() {
+
+        return (double) size / capacity();
+    }
+
+    /**
+     * A method that removes every position from the table and resets its counters. The memory is kept for reuse.
+     *
+     */
+
+    @Override
+    public void clear() {
+
+        for (int i = 0; i < buffer.capacity(); i += 8) {
+            buffer.putLong(i, 0);
+        }
+        size = 0;
+        lookups = 0;
+        hits = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("%d/%d positions (%.1f%% full), %.1f%% hits, %d evictions", size, capacity(),
+                getOccupancy() * 100, getHitRate() * 100, evictions);
+    }
+}
@@ -0,0 +1,269 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <h1>solitaire.spider.ParallelSolver</h1>
+ * This is a class for solving a single deal with every core at once. The search is the same depth-first search as the
+ * Solver, with the same move order, but it is split across a fork/join pool and all of the threads share one
+ * ConcurrentTranspositionTable, so a position searched by one thread is skipped by the others.
+ *
+ * Each task searches on its own board. Whenever the pool has no queued work for idle threads to steal, a task gives
+ * away the untried moves at the shallowest depth of its search as a new task, along with a copy of the board at that
+ * depth. The shallowest moves are given away because they have the most left to search under them. The search stops
+ * as soon as any task wins the game or the node budget runs out.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class ParallelSolver {
+
+    //How often a task adds its nodes to the total and checks whether it should give work away
+    private static final int CHECK_INTERVAL = 256;
+
+    private final long nodeBudget;
+    private final int threadCount;
+    private final TranspositionTable table;
+
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicReference<int[]> solution = new AtomicReference<>();
+    private volatile boolean stopped;
+
+    public ParallelSolver(long nodeBudget, int threadCount, TranspositionTable table) {
+
+        if (nodeBudget < 1) {
+            throw new IllegalArgumentException("Error! " + nodeBudget + " is not a valid node budget.");
+        }
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Error! " + threadCount + " is not a valid amount of threads.");
+        }
+
+        this.nodeBudget = nodeBudget;
+        this.threadCount = threadCount;
+        this.table = table;
+    }
+
+    public ParallelSolver(long nodeBudget, int threadCount) {
+
+        this(nodeBudget, threadCount, new ConcurrentTranspositionTable());
+    }
+
+    public ParallelSolver(long nodeBudget) {
+
+        this(nodeBudget, Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getThreadCount() {
+
+        return threadCount;
+    }
+
+    /**
+     * A method that searches for a way to win from a position using every thread of the solver. The board passed in is
+     * not changed. The node budget is shared by all of the threads, so a search can go slightly over it whilst the
+     * threads notice it has run out.
+     *
+     * @param start The position to solve
+     * @return The result of the search
+     */
+
+    public SolverResult solve(Board start) {
+
+        long startTime = System.nanoTime();
+        table.clear();
+        nodes.set(0);
+        solution.set(null);
+        stopped = false;
+
+        Board board = start.copy();
+        table.add(board.getHash());
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            pool.invoke(new SearchTask(board, new int[0], null));
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        SolverResult.Status status;
+        int[] moves = solution.get();
+        if (moves != null) {
+            status = SolverResult.Status.SOLVABLE;
+        }
+        else if (nodes.get() >= nodeBudget) {
+            status = SolverResult.Status.BUDGET_EXHAUSTED;
+        }
+        else {
+            status = SolverResult.Status.UNSOLVABLE;
+        }
+
+        return new SolverResult(status, nodes.get(), table.memoryUsed(), (System.nanoTime() - startTime) / 1_000_000,
+                moves != null ? moves : new int[0]);
+    }
+
+    /**
+     * This is a task that searches below one position. The moves to try from the position are either given to the
+     * task, when they have been given away by another task, or found by the task itself.
+     */
+
+    private class SearchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int[] path;
+        private final int[] firstMoves;
+
+        private final MoveGenerator generator = new MoveGenerator();
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private int[] moveStack = new int[MoveGenerator.MAX_MOVES * 4];
+        private int[] frameStart = new int[64];
+        private int[] frameCount = new int[64];
+        private int[] frameNext = new int[64];
+        private int[] frameMove = new int[64];
+
+        /**
+         * @param board The position to search below, which the task takes over
+         * @param path The moves that lead from the start of the game to the position
+         * @param firstMoves The moves to try from the position, or null if the task should find them
+         */
+
+        SearchTask(Board board, int[] path, int[] firstMoves) {
+
+            this.board = board;
+            this.path = path;
+            this.firstMoves = firstMoves;
+        }
+
+        @Override
+        protected void compute() {
+
+            List<SearchTask> children = new ArrayList<>();
+            int depth = 0;
+            long taskNodes = 0;
+
+            if (firstMoves != null) {
+
+                System.arraycopy(firstMoves, 0, moveStack, 0, firstMoves.length);
+                frameStart[0] = 0;
+                frameCount[0] = firstMoves.length;
+                frameNext[0] = 0;
+            }
+            else {
+                pushFrame(0, 0);
+            }
+
+            while (depth >= 0 && !stopped) {
+
+                if (board.isWon()) {
+
+                    int[] moves = Arrays.copyOf(path, path.length + depth);
+                    System.arraycopy(frameMove, 0, moves, path.length, depth);
+                    solution.compareAndSet(null, moves);
+                    stopped = true;
+                    break;
+                }
+
+                //Every so often the task adds its nodes to the total and gives work away if other threads are idle
+                if (taskNodes >= CHECK_INTERVAL) {
+
+                    if (nodes.addAndGet(taskNodes) >= nodeBudget) {
+                        stopped = true;
+                    }
+                    taskNodes = 0;
+                    if (getSurplusQueuedTaskCount() <= 0) {
+                        giveAwayWork(depth, children);
+                    }
+                }
+
+                if (frameNext[depth] == frameCount[depth]) {
+
+                    depth--;
+                    if (depth >= 0) {
+                        board.undoMove(frameMove[depth]);
+                    }
+                    continue;
+                }
+
+                int record = board.applyMove(moveStack[frameStart[depth] + frameNext[depth]++]);
+                taskNodes++;
+                if (!table.add(board.getHash(), path.length + depth + 1)) {
+                    board.undoMove(record);
+                    continue;
+                }
+
+                frameMove[depth] = record;
+                depth++;
+                pushFrame(depth, frameStart[depth - 1] + frameCount[depth - 1]);
+            }
+            nodes.addAndGet(taskNodes);
+
+            for (SearchTask child : children) {
+                child.join();
+            }
+        }
+
+        /**
+         * A method that hands the untried moves at the shallowest depth with more than one left to a new task.
+         *
+         * @param depth The current depth of the search
+         * @param children The tasks this task has given work to, which it waits for before finishing
+         */
+
+        private void giveAwayWork(int depth, List<SearchTask> children) {
+
+            for (int i = 0; i <= depth; i++) {
+
+                int remaining = frameCount[i] - frameNext[i];
+                if (remaining < 2) {
+                    continue;
+                }
+
+                //The board at depth i is found by undoing the moves made below it on a copy
+                Board copy = board.copy();
+                for (int j = depth - 1; j >= i; j--) {
+                    copy.undoMove(frameMove[j]);
+                }
+
+                int[] childPath = Arrays.copyOf(path, path.length + i);
+                System.arraycopy(frameMove, 0, childPath, path.length, i);
+                int start = frameStart[i] + frameNext[i];
+                SearchTask child = new SearchTask(copy, childPath,
+                        Arrays.copyOfRange(moveStack, start, start + remaining));
+                frameNext[i] = frameCount[i];
+
+                child.fork();
+                children.add(child);
+                return;
+            }
+        }
+
+        private void pushFrame(int depth, int start) {
+
+            if (depth == frameStart.length) {
+
+                frameStart = Arrays.copyOf(frameStart, depth * 2);
+                frameCount = Arrays.copyOf(frameCount, depth * 2);
+                frameNext = Arrays.copyOf(frameNext, depth * 2);
+                frameMove = Arrays.copyOf(frameMove, depth * 2);
+            }
+            if (start + MoveGenerator.MAX_MOVES > moveStack.length) {
+                moveStack = Arrays.copyOf(moveStack, Math.max(moveStack.length * 2, start + MoveGenerator.MAX_MOVES));
+            }
+
+            frameStart[depth] = start;
+            frameCount[depth] = Solver.orderMoves(board, moves, generator.generateMoves(board, moves), moveStack,
+                    start);
+            frameNext[depth] = 0;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h1>solitaire.spider.ParameterTuner</h1>
+ * This is a class for finding the heuristic parameters that win the most games. Every candidate set of parameters
+ * plays the same seeded deals with the sorting algorithm, using a SimulationRunner so that every processor is used. As
+ * each deal is played by every candidate, the candidates are compared on common random numbers: a deal that is
+ * unwinnable, or easy, is so for all of them, and the difference between two candidates is worked out game by game.
+ *
+ * The candidate that wins the most games is then played again against the default parameters on deals none of the
+ * candidates have seen. The best of many candidates is flattered by the deals it was chosen on, so the confidence
+ * intervals reported for it are worked out from the fresh deals instead. The tuner gives the runner it is made with
+ * its own player, so the runner should not be used for anything else whilst tuning.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class ParameterTuner {
+
+    public static final int[] RETAIN_THRESHOLDS = {10, 14, 18, 22, 26, 30, 34};
+
+    private final SimulationRunner runner;
+    private final int suitMode;
+    private final int games;
+
+    //The results of every candidate on the deals of the sweep, in the order the candidates were played
+    private final Map<HeuristicParameters, boolean[]> results = new LinkedHashMap<>();
+
+    public ParameterTuner(SimulationRunner runner, int suitMode, int games) {
+
+        if (games < 2) {
+            throw new IllegalArgumentException("Error! " + games + " is not a valid amount of games to tune over.");
+        }
+
+        this.runner = runner;
+        this.suitMode = suitMode;
+        this.games = games;
+    }
+
+    /**
+     * A method for returning every combination of the retain thresholds, the rank orders and the tie breaks.
+     *
+     * @return The candidates of a full sweep, starting with the defaults
+     */
+
+    public static List<HeuristicParameters> grid() {
+
+        List<HeuristicParameters> candidates = new ArrayList<>();
+        candidates.add(HeuristicParameters.DEFAULT);
+        for (int threshold : RETAIN_THRESHOLDS) {
+            for (boolean highRanksFirst : new boolean[] {true, false}) {
+                for (HeuristicParameters.TieBreak tieBreak : HeuristicParameters.TieBreak.values()) {
+
+                    HeuristicParameters candidate = new HeuristicParameters(threshold, highRanksFirst, tieBreak);
+                    if (!candidate.equals(HeuristicParameters.DEFAULT)) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * A method that plays every candidate on the same deals and returns the one that won the most games. The defaults
+     * are always played, so every candidate can be compared with them.
+     *
+     * @param candidates The sets of parameters to try
+     * @param seed The seed of the deals
+     * @return The candidate that won the most games, with the earliest candidate winning any tie
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public HeuristicParameters sweep(List<HeuristicParameters> candidates, long seed) throws InterruptedException {
+
+        results.clear();
+        results.put(HeuristicParameters.DEFAULT, play(HeuristicParameters.DEFAULT, seed));
+        for (HeuristicParameters candidate : candidates) {
+            if (!results.containsKey(candidate)) {
+                results.put(candidate, play(candidate, seed));
+            }
+        }
+
+        HeuristicParameters best = null;
+        for (HeuristicParameters candidate : results.keySet()) {
+            if (best == null || getWins(candidate) > getWins(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A method that plays a candidate and the defaults on fresh deals, to check a candidate chosen by a sweep.
+     *
+     * @param candidate The parameters to check
+     * @param seed The seed of the fresh deals, which should not overlap the deals of the sweep
+     * @return The interval of the candidate's win rate and of its difference to the defaults
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public ConfidenceInterval[] validate(HeuristicParameters candidate, long seed) throws InterruptedException {
+
+        boolean[] candidateResults = play(candidate, seed);
+        boolean[] defaultResults = play(HeuristicParameters.DEFAULT, seed);
+        return new ConfidenceInterval[] {
+                ConfidenceInterval.winRate(count(candidateResults), games, ConfidenceInterval.Z_95),
+                ConfidenceInterval.pairedDifference(candidateResults, defaultResults, ConfidenceInterval.Z_95)};
+    }
+
+    /**
+     * A method for returning how many candidates the last sweep played, including the defaults.
+     *
+     * @return The amount of candidates
+     */
+
+    public int getCandidateCount() {
+
+        return results.size();
+    }
+
+    public int getWins(HeuristicParameters candidate) {
+
+        return count(results.get(candidate));
+    }
+
+    /**
+     * A method for returning the interval of a candidate's win rate on the deals of the last sweep.
+     *
+     * @param candidate A candidate of the last sweep
+     * @return The interval of the win rate
+     */
+
+    public ConfidenceInterval getWinRate(HeuristicParameters candidate) {
+
+        return ConfidenceInterval.winRate(getWins(candidate), games, ConfidenceInterval.Z_95);
+    }
+
+    /**
+     * A method for returning the interval of the difference between a candidate's win rate and the defaults' on the
+     * deals of the last sweep.
+     *
+     * @param candidate A candidate of the last sweep
+     * @return The interval of the candidate's win rate minus the defaults'
+     */
+
+    public ConfidenceInterval getDifference(HeuristicParameters candidate) {
+
+        return ConfidenceInterval.pairedDifference(results.get(candidate), results.get(HeuristicParameters.DEFAULT),
+                ConfidenceInterval.Z_95);
+    }
+
+    /**
+     * A method that lists every candidate of the last sweep from the most games won to the fewest, with the intervals
+     * of its win rate and its difference to the defaults.
+     *
+     * @return The results of the sweep, one candidate to a line
+     */
+
+    public String report() {
+
+        List<HeuristicParameters> candidates = new ArrayList<>(results.keySet());
+        candidates.sort(Comparator.comparingInt(this::getWins).reversed());
+
+        StringBuilder builder = new StringBuilder();
+        for (HeuristicParameters candidate : candidates) {
+            ConfidenceInterval difference = getDifference(candidate);
+            builder.append(String.format("%-55s %5d/%d  %-24s %+6.1f (%+.1f to %+.1f)%n", candidate,
+                    getWins(candidate), games, getWinRate(candidate), difference.getEstimate() * 100,
+                    difference.getLower() * 100, difference.getUpper() * 100));
+        }
+        return builder.toString();
+    }
+
+    private boolean[] play(HeuristicParameters candidate, long seed) throws InterruptedException {
+
+        runner.setPlayer(game -> {
+            SortingAlgorithm algorithm = game.getSortingAlgorithm();
+            algorithm.setParameters(candidate);
+            return algorithm;
+        });
+        runner.run(suitMode, games, seed);
+        return runner.getResults();
+    }
+
+    private static int count(boolean[] won) {
+
+        int wins = 0;
+        for (boolean win : won) {
+            if (win) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+}
@@ -0,0 +1,43 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.Player</h1>
+ * This is an interface for anything that can play a dealt game of spider solitaire through to the end without a
+ * person, such as the sorting algorithm. A SimulationRunner can be given any kind of player, so different ways of
+ * playing can be compared over the same deals.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public interface Player {
+
+    /**
+     * The most moves any player makes in a game. Some deals would make a player move cards back and forth forever, so a
+     * game that reaches the limit is abandoned as a loss, and every player abandons a game at the same point so their
+     * results can be compared.
+     */
+
+    int MOVE_LIMIT = 2000;
+
+    /**
+     * A method that plays the game that has currently been dealt through to the end. The player does not deal a new
+     * game, so the same player can be used for many games one after another.
+     *
+     * @return Returns true if all of the foundations were filled and the game was won
+     * @throws InterruptedException If the thread is interrupted whilst playing
+     */
+
+    boolean playGame() throws InterruptedException;
+
+    /**
+     * A method for seeding the choices the player makes at random, so that a game played with the same seed is played
+     * the same way again. Players that make no choices at random ignore the seed.
+     *
+     * @param seed The seed of the next game the player plays
+     */
+
+    default void setSeed(long seed) {
+    }
+}
@@ -0,0 +1,415 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>solitaire.spider.SamplingPlayer</h1>
+ * This is a class for a player that plays fairly, using only what a person could see: the face up cards, the completed
+ * runs and the cards the deck was made from. The other players can see every face down card, so this player shows how
+ * much that is worth.
+ *
+ * Before every move the player works out which cards have not been seen and deals them at random into the face down
+ * and stock positions of a copy of the board, many times over. Each of these samples is a layout of the hidden cards
+ * that agrees with everything on show. Every move worth trying is made on every sample, along with the best move after
+ * it, and the move that scores best on average across the samples is played if it beats the best position played since
+ * the last deal. Otherwise the stock is dealt, after filling any empty columns. Positions are scored in the same way as
+ * the BeamSearchPlayer.
+ *
+ * The samples are shared between threads. Each thread has its own boards and arrays, and the shuffle of each sample is
+ * seeded from its number, so the move chosen is the same however many threads are used. No objects are created whilst a
+ * sample is made and scored. The real board is only used to make moves and to recognise positions that have already
+ * been played, and its face down cards are never read.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class SamplingPlayer implements Player {
+
+    public static final int DEFAULT_SAMPLES = 20;
+
+    //Every card byte, face down, is below this
+    private static final int CARD_CODES = 64;
+
+    private final SpiderSolitaire game;
+    private final Board board;
+    private final int sampleCount;
+    private final int threadCount;
+    private long seed;
+
+    private final Sampler[] samplers;
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+    private final HashTranspositionTable played = new HashTranspositionTable();
+    private final byte[] deck = new byte[Board.DECK_SIZE];
+    private final int[] cardCounts = new int[CARD_CODES];
+    private final byte[] unseen = new byte[Board.DECK_SIZE];
+    private int unseenCount;
+    private ExecutorService executor;
+
+    private long samples;
+    private long sampleTime;
+    private int movesChosen;
+    //The moves chosen in the game being played, which each move's samples are seeded from
+    private int gameMoves;
+
+    /**
+     * @param game The game to play
+     * @param sampleCount The amount of layouts of the hidden cards to try every move on
+     * @param threadCount The amount of threads to score the samples on
+     */
+
+    public SamplingPlayer(SpiderSolitaire game, int sampleCount, int threadCount) {
+
+        if (sampleCount < 1) {
+            throw new IllegalArgumentException("Error! " + sampleCount + " is not a valid amount of samples.");
+        }
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Error! " + threadCount + " is not a valid amount of threads.");
+        }
+
+        this.game = game;
+        this.board = game.getBoard();
+        this.sampleCount = sampleCount;
+        this.threadCount = threadCount;
+        this.seed = new SplittableRandom().nextLong();
+
+        this.samplers = new Sampler[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            samplers[i] = new Sampler();
+        }
+    }
+
+    public SamplingPlayer(SpiderSolitaire game) {
+
+        this(game, DEFAULT_SAMPLES, 1);
+    }
+
+    public int getSampleCount() {
+
+        return sampleCount;
+    }
+
+    public int getThreadCount() {
+
+        return threadCount;
+    }
+
+    /**
+     * A method for setting the seed the samples are shuffled from, so that a game can be repeated. The samples of each
+     * move are seeded from the seed and the number of the move in its game, so a game is played the same way whatever
+     * games the player has played before it.
+     *
+     * @param seed The seed of the samples
+     */
+
+    @Override
+    public void setSeed(long seed) {
+
+        this.seed = seed;
+    }
+
+    public long getSamples() {
+
+        return samples;
+    }
+
+    public int getMovesChosen() {
+
+        return movesChosen;
+    }
+
+    /**
+     * A method for returning the time spent making and scoring samples since the player was made.
+     *
+     * @return The time in nanoseconds
+     */
+
+    public long getSampleTime() {
+
+        return sampleTime;
+    }
+
+    /**
+     * A method for returning how many samples have been made and scored a second across every thread.
+     *
+     * @return The samples per second
+     */
+
+    public double getSamplesPerSecond() {
+
+        return sampleTime == 0 ? 0 : samples * 1e9 / sampleTime;
+    }
+
+    @Override
+    public boolean playGame() throws InterruptedException {
+
+        played.clear();
+        played.add(board.getHash());
+        gameMoves = 0;
+        int bestScore = BeamSearchPlayer.score(board);
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount);
+        }
+
+        try {
+            for (int moveCount = 0; moveCount < MOVE_LIMIT && !board.isWon(); moveCount++) {
+
+                int move = chooseMove(bestScore, false);
+                if (move >= 0) {
+                    game.makeMove(move);
+                    bestScore = Math.max(bestScore, BeamSearchPlayer.score(board));
+                }
+                else if (board.getStockCount() == 0) {
+                    break;
+                }
+                else if (board.canDealStock()) {
+                    game.makeMove(Move.deal());
+                    bestScore = BeamSearchPlayer.score(board);
+                }
+                else {
+                    //The stock cannot be dealt until the empty columns are filled
+                    move = chooseMove(Integer.MIN_VALUE, true);
+                    if (move < 0) {
+                        break;
+                    }
+                    game.makeMove(move);
+                }
+                played.add(board.getHash());
+            }
+        }
+        finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+        return board.isWon();
+    }
+
+    /**
+     * A method that scores every move worth trying across the samples and returns the best one. The stock deal and
+     * moves back to a position that has already been played are left out.
+     *
+     * @param target The average score a move must beat to be worth making
+     * @param filling Whether only moves that fill an empty column without emptying another should be chosen from
+     * @return The move to make, or -1 if there is no move worth making
+     * @throws InterruptedException If the thread is interrupted whilst the samples are being scored
+     */
+
+    int chooseMove(int target, boolean filling) throws InterruptedException {
+
+        int moveCount = 0;
+        int orderedCount = Solver.orderMoves(board, moves, generator.generateMoves(board, moves), rootMoves, 0);
+        for (int i = 0; i < orderedCount; i++) {
+
+            int move = rootMoves[i];
+            if (Move.isDeal(move) || filling && (!board.isEmpty(Move.destination(move)) ||
+                    Move.cardCount(move) == board.size(Move.origin(move)))) {
+                continue;
+            }
+
+            //A move that turns up a card or completes a run always leads somewhere new, and the card it turns up is
+            //not looked at
+            int record = board.applyMove(move);
+            if (Move.hasFlag(record, Move.RESULT_FLAGS) || !played.contains(board.getHash())) {
+                rootMoves[moveCount++] = move;
+            }
+            board.undoMove(record);
+        }
+        if (moveCount == 0) {
+            return -1;
+        }
+
+        long startTime = System.nanoTime();
+        findUnseenCards();
+        AtomicInteger nextSample = new AtomicInteger();
+        movesChosen++;
+        long moveSeed = seed + gameMoves++ * 0x9E3779B97F4A7C15L;
+
+        if (executor == null) {
+            samplers[0].score(moveCount, nextSample, moveSeed);
+        }
+        else {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Sampler sampler : samplers) {
+                int count = moveCount;
+                tasks.add(() -> {
+                    sampler.score(count, nextSample, moveSeed);
+                    return null;
+                });
+            }
+            try {
+                for (Future<Void> task : executor.invokeAll(tasks)) {
+                    task.get();
+                }
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("A sample failed to be scored.", e.getCause());
+            }
+        }
+        samples += sampleCount;
+        sampleTime += System.nanoTime() - startTime;
+
+        //The totals are whole numbers, so they add up to the same amount whichever thread scored each sample
+        int bestMove = -1;
+        long bestTotal = Long.MIN_VALUE;
+        int samplersUsed = executor == null ? 1 : threadCount;
+        for (int i = 0; i < moveCount; i++) {
+
+            long total = 0;
+            for (int j = 0; j < samplersUsed; j++) {
+                total += samplers[j].totals[i];
+            }
+            if (total > bestTotal) {
+                bestTotal = total;
+                bestMove = rootMoves[i];
+            }
+        }
+        return bestTotal > (long) target * sampleCount ? bestMove : -1;
+    }
+
+    /**
+     * A method that works out which cards have not been seen, by taking the face up cards and the completed runs away
+     * from the deck the game was dealt from.
+     *
+     */
+
+    private void findUnseenCards() {
+
+        SpiderSolitaire.fillDeck(deck, game.getSuitMode());
+        for (int i = 0; i < CARD_CODES; i++) {
+            cardCounts[i] = 0;
+        }
+        for (byte card : deck) {
+            cardCounts[card]++;
+        }
+
+        for (int i = 0; i < board.getFoundationCount(); i++) {
+            for (int rank = 1; rank <= Board.RUN_LENGTH; rank++) {
+                cardCounts[Board.card(rank, board.getFoundationSuit(i), false)]--;
+            }
+        }
+        for (int column = 0; column < Board.TABLEAU_SIZE; column++) {
+            for (int index = board.size(column) - board.countFaceUp(column); index < board.size(column); index++) {
+                cardCounts[Board.faceDown(board.cardAt(column, index))]--;
+            }
+        }
+
+        unseenCount = 0;
+        for (byte card = 0; card < CARD_CODES; card++) {
+
+            if (cardCounts[card] < 0) {
+                throw new IllegalStateException("Error! The cards on the board do not match the deck.");
+            }
+            for (int i = 0; i < cardCounts[card]; i++) {
+                unseen[unseenCount++] = card;
+            }
+        }
+        if (unseenCount != board.countHidden()) {
+            throw new IllegalStateException("Error! The cards on the board do not match the deck.");
+        }
+    }
+
+    /**
+     * This is the part of the player that makes and scores samples on one thread. Everything it needs is made once,
+     * so scoring a sample creates no objects.
+     */
+
+    private class Sampler {
+
+        private final Board sample = new Board();
+        private final byte[] hidden = new byte[Board.DECK_SIZE];
+        private final MoveGenerator generator = new MoveGenerator();
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private final int[] ordered = new int[MoveGenerator.MAX_MOVES];
+        private final long[] totals = new long[MoveGenerator.MAX_MOVES];
+
+        /**
+         * A method that makes and scores samples until every sample of the move has been taken by a thread.
+         *
+         * @param moveCount The amount of moves from the player's board to score
+         * @param nextSample The number of the next sample to make, shared by every thread
+         * @param moveSeed The seed of this move's samples
+         */
+
+        void score(int moveCount, AtomicInteger nextSample, long moveSeed) {
+
+            for (int i = 0; i < moveCount; i++) {
+                totals[i] = 0;
+            }
+
+            for (int number = nextSample.getAndIncrement(); number < sampleCount;
+                    number = nextSample.getAndIncrement()) {
+
+                shuffleHidden(moveSeed + number * 0xBF58476D1CE4E5B9L);
+                sample.copyFrom(board);
+                sample.replaceHiddenCards(hidden);
+
+                for (int i = 0; i < moveCount; i++) {
+
+                    int record = sample.applyMove(rootMoves[i]);
+                    totals[i] += lookAhead();
+                    sample.undoMove(record);
+                }
+            }
+        }
+
+        /**
+         * A method that shuffles the unseen cards into the hidden array with a Fisher-Yates shuffle. The random numbers
+         * come from a SplitMix64 generator held in a local variable, so no Random object is needed.
+         *
+         * @param state The seed of the shuffle
+         */
+
+        private void shuffleHidden(long state) {
+
+            System.arraycopy(unseen, 0, hidden, 0, unseenCount);
+            for (int i = unseenCount - 1; i > 0; i--) {
+
+                state += 0x9E3779B97F4A7C15L;
+                long z = (state ^ (state >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                z ^= z >>> 31;
+
+                int j = (int) (((z >>> 32) * (i + 1)) >>> 32);
+                byte card = hidden[i];
+                hidden[i] = hidden[j];
+                hidden[j] = card;
+            }
+        }
+
+        /**
+         * A method that scores the sample as it stands or after the best move that can be made next, whichever is
+         * higher.
+         *
+         * @return The score
+         */
+
+        private int lookAhead() {
+
+            int best = BeamSearchPlayer.score(sample);
+            int moveCount = Solver.orderMoves(sample, moves, generator.generateMoves(sample, moves), ordered, 0);
+            for (int i = 0; i < moveCount; i++) {
+
+                if (Move.isDeal(ordered[i])) {
+                    continue;
+                }
+                int record = sample.applyMove(ordered[i]);
+                best = Math.max(best, BeamSearchPlayer.score(sample));
+                sample.undoMove(record);
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package solitaire.spider;
+
+import java.util.function.Function;
+
+/**
+ * <h1>solitaire.spider.SequentialEstimator</h1>
+ * This is a class for finding out how often a player wins without playing more games than are needed. Rather than
+ * playing a set amount of games, the games are played in batches on a SimulationRunner and the confidence interval of
+ * the win rate is worked out after each batch. The run stops as soon as the interval is narrower than a target width,
+ * or once the most games allowed have been played.
+ *
+ * Two players can also be compared. Both play the same deals, so the difference between them is worked out game by
+ * game, and the run stops as soon as the players are known to be different or the difference between them is known to
+ * within the target width. Looking at the results after every batch gives a chance of stopping on a difference that is
+ * only luck every time, so the confidence of each look is raised to make up for the amount of looks the run could take
+ * (a Bonferroni correction). The chance of wrongly calling two equal players different is then no more than one minus
+ * the confidence, however many looks the run takes.
+ *
+ * The estimator gives the runner it is made with its own player, so the runner should not be used for anything else
+ * whilst it is running.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class SequentialEstimator {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    public static final int DEFAULT_MAX_GAMES = 10000;
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    /**
+     * The reasons a run can stop.
+     */
+
+    public enum Outcome {
+
+        //The interval is narrower than the target width
+        PRECISE,
+        //The interval of the difference between two players does not hold 0
+        DIFFERENT,
+        //The most games have been played before either of the above
+        MAX_GAMES
+    }
+
+    private final SimulationRunner runner;
+    private final int suitMode;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxGames = DEFAULT_MAX_GAMES;
+    private double confidence = DEFAULT_CONFIDENCE;
+
+    //The results of the last run
+    private int gamesPlayed;
+    private Outcome outcome;
+    private ConfidenceInterval interval;
+
+    public SequentialEstimator(SimulationRunner runner, int suitMode) {
+
+        this.runner = runner;
+        this.suitMode = suitMode;
+    }
+
+    /**
+     * A method for setting how many games are played between looks at the results. Smaller batches stop sooner, but
+     * keep fewer threads busy at the end of each batch and need a higher confidence for each look when comparing.
+     *
+     * @param batchSize The amount of games in each batch
+     */
+
+    public void setBatchSize(int batchSize) {
+
+        if (batchSize < 2) {
+            throw new IllegalArgumentException("Error! " + batchSize + " is not a valid batch size.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setMaxGames(int maxGames) {
+
+        if (maxGames < 2) {
+            throw new IllegalArgumentException("Error! " + maxGames + " is not a valid amount of games.");
+        }
+        this.maxGames = maxGames;
+    }
+
+    public void setConfidence(double confidence) {
+
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Error! " + confidence + " is not a valid confidence.");
+        }
+        this.confidence = confidence;
+    }
+
+    public int getGamesPlayed() {
+
+        return gamesPlayed;
+    }
+
+    public Outcome getOutcome() {
+
+        return outcome;
+    }
+
+    /**
+     * A method for returning the interval the last run stopped with.
+     *
+     * @return The interval of the win rate, or of the difference between the players
+     */
+
+    public ConfidenceInterval getInterval() {
+
+        return interval;
+    }
+
+    /**
+     * A method that plays batches of games until the interval of the player's win rate is narrower than the target
+     * width. Batch i is dealt from the seed plus the amount of games played before it, so the games are the same as a
+     * single run of the same length from the same seed.
+     *
+     * @param player Makes the player for each thread's game
+     * @param width The target width of the interval, as a fraction such as 0.05 for 5%
+     * @param seed The seed of the first game
+     * @return The interval of the win rate when the run stopped
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public ConfidenceInterval estimate(Function<SpiderSolitaire, ? extends Player> player, double width, long seed)
+            throws InterruptedException {
+
+        double z = ConfidenceInterval.z(confidence);
+        int wins = 0;
+        gamesPlayed = 0;
+        outcome = Outcome.MAX_GAMES;
+
+        runner.setPlayer(player);
+        while (gamesPlayed < maxGames) {
+
+            int batch = Math.min(batchSize, maxGames - gamesPlayed);
+            runner.run(suitMode, batch, seed + gamesPlayed);
+            wins += runner.getWinCount();
+            gamesPlayed += batch;
+
+            interval = ConfidenceInterval.winRate(wins, gamesPlayed, z);
+            if (interval.getWidth() <= width) {
+                outcome = Outcome.PRECISE;
+                break;
+            }
+        }
+        return interval;
+    }
+
+    /**
+     * A method that plays batches of the same deals with two players until the interval of the difference between
+     * their win rates no longer holds 0, or is narrower than the target width.
+     *
+     * @param first Makes the first player for each thread's game
+     * @param second Makes the second player for each thread's game
+     * @param width The target width of the interval of the difference, as a fraction
+     * @param seed The seed of the first game
+     * @return The interval of the first player's win rate minus the second player's when the run stopped
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public ConfidenceInterval compare(Function<SpiderSolitaire, ? extends Player> first,
+                                      Function<SpiderSolitaire, ? extends Player> second, double width, long seed)
+            throws InterruptedException {
+
+        //Each look is made at a higher confidence, so that all of the looks together keep the confidence asked for
+        int looks = (maxGames + batchSize - 1) / batchSize;
+        double z = ConfidenceInterval.z(1 - (1 - confidence) / looks);
+
+        boolean[] firstResults = new boolean[maxGames];
+        boolean[] secondResults = new boolean[maxGames];
+        gamesPlayed = 0;
+        outcome = Outcome.MAX_GAMES;
+
+        while (gamesPlayed < maxGames) {
+
+            int batch = Math.min(batchSize, maxGames - gamesPlayed);
+            runner.setPlayer(first);
+            runner.run(suitMode, batch, seed + gamesPlayed);
+            System.arraycopy(runner.getResults(), 0, firstResults, gamesPlayed, batch);
+            runner.setPlayer(second);
+            runner.run(suitMode, batch, seed + gamesPlayed);
+            System.arraycopy(runner.getResults(), 0, secondResults, gamesPlayed, batch);
+            gamesPlayed += batch;
+
+            interval = ConfidenceInterval.pairedDifference(firstResults, secondResults, gamesPlayed, z);
+            if (!interval.contains(0)) {
+                outcome = Outcome.DIFFERENT;
+                break;
+            }
+            if (interval.getWidth() <= width) {
+                outcome = Outcome.PRECISE;
+                break;
+            }
+        }
+        return interval;
+    }
+}
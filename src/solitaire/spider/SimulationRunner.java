@@ -0,0 +1,374 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * <h1>solitaire.spider.SimulationRunner</h1>
+ * This is a class for playing many games at once. Each thread in the pool is given its own headless game and player,
+ * so no game state is shared between threads. Each thread claims the next game that has not been played from a shared
+ * counter whenever it finishes one, so a thread that draws a long game does not hold up the others at the end of a run.
+ * Each thread only adds its wins and losses to the shared totals once it has finished, so the counts always add up to
+ * the amount of games that were played.
+ *
+ * Every run has a seed and game i of the run is dealt from the seed plus i, so any game can be dealt again with
+ * SpiderSolitaire.dealGame(getGameSeed(i)) no matter which thread played it. A run can also play every deal in a
+ * DealCatalogue, in which case the decks are read from the catalogue instead of being shuffled.
+ *
+ * The games are played by each game's sorting algorithm unless the runner is given another way of making a Player, in
+ * which case every thread makes its own player for its game. Before every game the player is given a seed drawn from
+ * the seed the game is dealt from, so a player that makes choices at random plays a seeded run the same way every
+ * time. Which thread plays a game depends on how long the games before it took, so a player that learns from the games
+ * it has played, such as an adaptive pipeline, only repeats a seeded run exactly with one thread. A GameListener can be
+ * told about every game as soon as it has been played, so results can be written out whilst a long run is still going.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class SimulationRunner {
+
+    /**
+     * A listener that is told about every game of a run as soon as it has been played. The listener is called by the
+     * thread that played the game, so it may be called by more than one thread at once.
+     */
+
+    @FunctionalInterface
+    public interface GameListener {
+
+        /**
+         * A method called once a game has been played, before the thread deals its next game.
+         *
+         * @param game The number of the game in the run, starting from 0
+         * @param played The game as it was left, which can be read until the method returns
+         * @param won Whether the game was won
+         * @param time How long the game took to play in nanoseconds
+         */
+
+        void gameFinished(int game, SpiderSolitaire played, boolean won, long time);
+    }
+
+    private final int threadCount;
+    private final AtomicInteger winCount = new AtomicInteger();
+    private final AtomicInteger lossCount = new AtomicInteger();
+    private long elapsedTime;
+    //Whether each game of the last run was won, written by whichever thread played it
+    private boolean[] results = new boolean[0];
+    private long seed;
+    private DealCatalogue catalogue;
+    //The number of the game in each run that is traced, or -1 if none are
+    private int tracedGame = -1;
+    private Function<SpiderSolitaire, ? extends Player> playerFactory = SpiderSolitaire::getSortingAlgorithm;
+    private GameListener listener;
+
+    public SimulationRunner(int threadCount) {
+
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Error! " + threadCount + " is not a valid amount of threads.");
+        }
+
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * A constructor for a runner that uses one thread for every processor available to the JVM.
+     *
+     */
+
+    public SimulationRunner() {
+
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getThreadCount() {
+
+        return threadCount;
+    }
+
+    /**
+     * A method for choosing how the games are played. The function is called once by every thread with that thread's
+     * game, so the player it returns is never shared between threads.
+     *
+     * @param playerFactory Makes the player for a game, such as BeamSearchPlayer::new
+     */
+
+    public void setPlayer(Function<SpiderSolitaire, ? extends Player> playerFactory) {
+
+        this.playerFactory = playerFactory;
+    }
+
+    /**
+     * A method for tracing one game of every run, so that every message written whilst playing it is written whatever
+     * the level of the log, without writing the messages of any other game.
+     *
+     * @param tracedGame The number of the game in the run, starting from 0, or -1 to trace none
+     */
+
+    public void setTracedGame(int tracedGame) {
+
+        if (tracedGame < -1) {
+            throw new IllegalArgumentException("Error! " + tracedGame + " is not a valid game to trace.");
+        }
+        this.tracedGame = tracedGame;
+    }
+
+    /**
+     * A method for finding a player by its name, for choosing a player from the command line.
+     *
+     * @param name One of sorting, adaptive, beam, mcts or sampling
+     * @return Makes the player for a game
+     */
+
+    public static Function<SpiderSolitaire, ? extends Player> player(String name) {
+
+        switch (name) {
+
+            case "sorting":
+                return SpiderSolitaire::getSortingAlgorithm;
+
+            case "adaptive":
+                return game -> {
+                    StrategyPipeline pipeline = new StrategyPipeline();
+                    pipeline.setAdaptive(true);
+                    SortingAlgorithm algorithm = game.getSortingAlgorithm();
+                    algorithm.setPipeline(pipeline);
+                    return algorithm;
+                };
+
+            case "beam":
+                return BeamSearchPlayer::new;
+
+            case "mcts":
+                return game -> new MctsPlayer(game, MctsPlayer.DEFAULT_ROLLOUTS, 1);
+
+            case "sampling":
+                return game -> new SamplingPlayer(game, SamplingPlayer.DEFAULT_SAMPLES, 1);
+
+            default:
+                throw new IllegalArgumentException("Error! " + name + " is not a known player.");
+        }
+    }
+
+    /**
+     * A method for setting the listener that is told about every game as soon as it has been played.
+     *
+     * @param listener The listener, or null for none
+     */
+
+    public void setListener(GameListener listener) {
+
+        this.listener = listener;
+    }
+
+    public int getWinCount() {
+
+        return winCount.get();
+    }
+
+    public int getLossCount() {
+
+        return lossCount.get();
+    }
+
+    public int getGamesPlayed() {
+
+        return winCount.get() + lossCount.get();
+    }
+
+    /**
+     * A method for returning whether each game of the last run was won. Two runs with the same seed play the same
+     * deals, so their results can be compared game by game.
+     *
+     * @return A new array holding true for every game of the last run that was won, in the order of the games
+     */
+
+    public boolean[] getResults() {
+
+        return results.clone();
+    }
+
+    /**
+     * A method for returning the seed of the last run.
+     *
+     * @return The seed the games of the last run were dealt from
+     */
+
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /**
+     * A method for returning the seed that a game of the last run was dealt from.
+     *
+     * @param game The number of the game in the run, starting from 0
+     * @return The seed to pass to SpiderSolitaire.dealGame() to deal the game again
+     */
+
+    public long getGameSeed(int game) {
+
+        return catalogue != null ? catalogue.getSeed(game) : seed + game;
+    }
+
+    /**
+     * A method for returning the seed the player of a game of the last run was given. It is drawn from the seed the
+     * game was dealt from, rather than being the same seed, so the player's choices are not tied to the shuffle.
+     *
+     * @param game The number of the game in the run, starting from 0
+     * @return The seed to pass to Player.setSeed() to play the game again the same way
+     */
+
+    public long getPlayerSeed(int game) {
+
+        return new SplittableRandom(getGameSeed(game)).nextLong();
+    }
+
+    /**
+     * A method for returning how long the last call to run() took.
+     *
+     * @return The wall clock time in milliseconds
+     */
+
+    public long getElapsedTime() {
+
+        return elapsedTime;
+    }
+
+    /**
+     * A method that plays a given number of games from a random seed. The seed can be read with getSeed() afterwards.
+     *
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param games The amount of games to play
+     * @throws InterruptedException If the calling thread is interrupted whilst waiting for the games to finish
+     */
+
+    public void run(int suitMode, int games) throws InterruptedException {
+
+        run(suitMode, games, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * A method that plays a given number of games with the runner's player, spread across the runner's threads. The
+     * method blocks until every game has been played. The win and loss counts are reset at the start of each run.
+     *
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param games The amount of games to play
+     * @param seed The seed of the run, which decides the deal of every game
+     * @throws InterruptedException If the calling thread is interrupted whilst waiting for the games to finish
+     */
+
+    public void run(int suitMode, int games, long seed) throws InterruptedException {
+
+        if (!(suitMode == 1 || suitMode == 2 || suitMode == 4)) {
+            throw new IllegalArgumentException("Error! " + suitMode + " is not a valid amount of suits to be played.");
+        }
+        if (games < 0) {
+            throw new IllegalArgumentException("Error! " + games + " is not a valid amount of games.");
+        }
+
+        this.seed = seed;
+        this.catalogue = null;
+        play(suitMode, games, (game, i) -> game.dealGame(seed + i));
+    }
+
+    /**
+     * A method that plays every deal in a catalogue with the runner's player, spread across the runner's threads.
+     *
+     * @param catalogue The catalogue of deals to be played
+     * @throws InterruptedException If the calling thread is interrupted whilst waiting for the games to finish
+     */
+
+    public void run(DealCatalogue catalogue) throws InterruptedException {
+
+        this.seed = 0;
+        this.catalogue = catalogue;
+        play(catalogue.getSuitMode(), catalogue.size(), (game, i) -> game.dealGame(catalogue, i));
+    }
+
+    private void play(int suitMode, int games, ObjIntConsumer<SpiderSolitaire> dealer) throws InterruptedException {
+
+        winCount.set(0);
+        lossCount.set(0);
+        results = new boolean[games];
+        long startTime = System.nanoTime();
+
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                workers.add(executor.submit(worker(nextGame, suitMode, games, dealer)));
+            }
+            //Waits for every worker so any exception thrown whilst playing is passed on to the caller
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated game failed to complete.", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        elapsedTime = (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    /**
+     * A method that creates the task for one thread of the runner. The task creates its own headless game and plays
+     * games claimed from the counter until every game has been claimed, before adding its results to the totals.
+     *
+     * @param nextGame The number of the next game to be claimed, shared by every thread of the run
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param games The total amount of games played by all threads
+     * @param dealer Deals a game, given its number in the run
+     * @return A task to be submitted to the thread pool
+     */
+
+    private Callable<Void> worker(AtomicInteger nextGame, int suitMode, int games,
+            ObjIntConsumer<SpiderSolitaire> dealer) {
+
+        return () -> {
+            SpiderSolitaire game = new SpiderSolitaire();
+            game.setSuitMode(suitMode);
+            Player player = playerFactory.apply(game);
+            GameListener gameListener = listener;
+
+            int wins = 0;
+            int losses = 0;
+            for (int i = nextGame.getAndIncrement(); i < games && !Thread.currentThread().isInterrupted();
+                    i = nextGame.getAndIncrement()) {
+                game.setTraced(i == tracedGame);
+                dealer.accept(game, i);
+                player.setSeed(getPlayerSeed(i));
+                GameEvent event = new GameEvent();
+                event.begin();
+                long startTime = System.nanoTime();
+                results[i] = player.playGame();
+                event.finish(game, results[i]);
+                if (gameListener != null) {
+                    gameListener.gameFinished(i, game, results[i], System.nanoTime() - startTime);
+                }
+                if (results[i]) {
+                    wins++;
+                }
+                else {
+                    losses++;
+                }
+            }
+            winCount.addAndGet(wins);
+            lossCount.addAndGet(losses);
+            return null;
+        };
+    }
+}
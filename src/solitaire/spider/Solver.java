@@ -0,0 +1,202 @@
+package solitaire.spider;
+
+import java.util.Arrays;
+
+/**
+ * <h1>solitaire.spider.Solver</h1>
+ * This is a class for finding out whether a deal can be won. Unlike the sorting algorithm, which plays one move at a
+ * time, the solver makes a depth-first search over every legal move, making and undoing moves on a single board. Every
+ * position reached is added to a transposition table by its Zobrist hash, and a position already in the table is not
+ * searched again, so the search finishes once every position that can be reached has been tried.
+ *
+ * The search keeps its own stack of moves rather than calling itself, so a long game cannot overflow the thread's
+ * stack. Once the stock is gone, moves to an empty column are only tried on the first empty column, as the others lead
+ * to the same positions with the columns in another order, and a whole column is never moved onto an empty column.
+ * Whilst there is stock left the columns are not interchangeable, as a deal puts its cards on the columns in order, so
+ * every empty column is tried. Moves that continue a same-suit sequence are tried first, then moves onto a card of
+ * another suit, then moves onto an empty column and the stock deal last.
+ *
+ * A solver can be given a budget of nodes, after which it gives up on the deal. A solver reuses its table and stacks
+ * between deals, so it must only be used by one thread at a time.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class Solver {
+
+    private final long nodeBudget;
+    private final TranspositionTable table;
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    //The moves still to try at every depth are kept one after another in the move stack, and each frame of the search
+    //remembers where its moves start, how many there are, which one is next and the move it made
+    private int[] moveStack = new int[MoveGenerator.MAX_MOVES * 4];
+    private int[] frameStart = new int[256];
+    private int[] frameCount = new int[256];
+    private int[] frameNext = new int[256];
+    private int[] frameMove = new int[256];
+
+    public Solver(long nodeBudget, TranspositionTable table) {
+
+        if (nodeBudget < 1) {
+            throw new IllegalArgumentException("Error! " + nodeBudget + " is not a valid node budget.");
+        }
+
+        this.nodeBudget = nodeBudget;
+        this.table = table;
+    }
+
+    public Solver(long nodeBudget) {
+
+        this(nodeBudget, new HashTranspositionTable());
+    }
+
+    /**
+     * A method that searches for a way to win from a position. The board passed in is not changed.
+     *
+     * @param start The position to solve
+     * @return The result of the search
+     */
+
+    public SolverResult solve(Board start) {
+
+        long startTime = System.nanoTime();
+        Board board = start.copy();
+        table.clear();
+        table.add(board.getHash());
+
+        long nodes = 0;
+        int depth = 0;
+        SolverResult.Status status = SolverResult.Status.UNSOLVABLE;
+        pushFrame(board, 0, 0);
+
+        while (depth >= 0) {
+
+            if (board.isWon()) {
+                status = SolverResult.Status.SOLVABLE;
+                break;
+            }
+            if (nodes >= nodeBudget) {
+                status = SolverResult.Status.BUDGET_EXHAUSTED;
+                break;
+            }
+
+            //Once every move from a position has been tried, the move that led to it is undone
+            if (frameNext[depth] == frameCount[depth]) {
+
+                depth--;
+                if (depth >= 0) {
+                    board.undoMove(frameMove[depth]);
+                }
+                continue;
+            }
+
+            int move = moveStack[frameStart[depth] + frameNext[depth]++];
+            int record = board.applyMove(move);
+            nodes++;
+            if (!table.add(board.getHash(), depth + 1)) {
+                board.undoMove(record);
+                continue;
+            }
+
+            frameMove[depth] = record;
+            depth++;
+            pushFrame(board, depth, frameStart[depth - 1] + frameCount[depth - 1]);
+        }
+
+        int[] solution = status == SolverResult.Status.SOLVABLE ? Arrays.copyOf(frameMove, depth) : new int[0];
+        long peakMemory = table.memoryUsed() + 4L * (moveStack.length + frameStart.length * 4);
+        return new SolverResult(status, nodes, peakMemory, (System.nanoTime() - startTime) / 1_000_000, solution);
+    }
+
+    /**
+     * A method that finds the moves from a position and places them on the move stack, in the order they will be tried.
+     *
+     * @param board The position
+     * @param depth The depth of the position in the search
+     * @param start Where the moves are placed on the move stack
+     */
+
+    private void pushFrame(Board board, int depth, int start) {
+
+        if (depth == frameStart.length) {
+
+            frameStart = Arrays.copyOf(frameStart, depth * 2);
+            frameCount = Arrays.copyOf(frameCount, depth * 2);
+            frameNext = Arrays.copyOf(frameNext, depth * 2);
+            frameMove = Arrays.copyOf(frameMove, depth * 2);
+        }
+        if (start + MoveGenerator.MAX_MOVES > moveStack.length) {
+            moveStack = Arrays.copyOf(moveStack, Math.max(moveStack.length * 2, start + MoveGenerator.MAX_MOVES));
+        }
+
+        frameStart[depth] = start;
+        frameCount[depth] = orderMoves(board, moves, generator.generateMoves(board, moves), moveStack, start);
+        frameNext[depth] = 0;
+    }
+
+    /**
+     * A method that copies the moves worth trying from a list of legal moves, in the order they should be tried.
+     * Same-suit moves come first, then other moves onto cards, then moves onto an empty column and then the deal. Once
+     * the stock is gone only the first empty column is tried, and never with a whole column.
+     *
+     * @param board The position the moves are made from
+     * @param moves The legal moves from the position
+     * @param moveCount The amount of legal moves
+     * @param ordered The array the moves are copied into
+     * @param start Where the moves are copied to in the array
+     * @return The amount of moves copied
+     */
+
+    static int orderMoves(Board board, int[] moves, int moveCount, int[] ordered, int start) {
+
+        int firstEmpty = -1;
+        for (int i = 0; i < Board.TABLEAU_SIZE && firstEmpty < 0; i++) {
+            if (board.isEmpty(i)) {
+                firstEmpty = i;
+            }
+        }
+
+        int count = 0;
+        for (int pass = 0; pass < 4; pass++) {
+            for (int i = 0; i < moveCount; i++) {
+                if (priority(board, moves[i], firstEmpty) == pass) {
+                    ordered[start + count++] = moves[i];
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A method for deciding when a move is tried.
+     *
+     * @param board The position
+     * @param move The move
+     * @param firstEmpty The index of the first empty column, or -1 if there are none
+     * @return The pass the move is tried in, or -1 if the move is never tried
+     */
+
+    private static int priority(Board board, int move, int firstEmpty) {
+
+        if (Move.isDeal(move)) {
+            return 3;
+        }
+
+        int origin = Move.origin(move);
+        int destination = Move.destination(move);
+        if (board.isEmpty(destination)) {
+            //A deal puts card i on column i, so which column holds which cards only stops mattering without stock
+            if (board.getStockCount() > 0) {
+                return 2;
+            }
+            return destination == firstEmpty && Move.cardCount(move) < board.size(origin) ? 2 : -1;
+        }
+
+        byte bottomCard = board.cardAt(origin, board.size(origin) - Move.cardCount(move));
+        return Board.suit(bottomCard) == Board.suit(board.top(destination)) ? 0 : 1;
+    }
+}
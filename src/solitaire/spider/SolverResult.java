@@ -0,0 +1,90 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.SolverResult</h1>
+ * This is a class for holding what a solver found out about a deal: whether it can be won, cannot be won or whether
+ * the solver ran out of its budget before finding out, along with how much work the search took. If the deal was
+ * solved, the moves of the solution are kept as well so the game can be replayed.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class SolverResult {
+
+    public enum Status {
+        SOLVABLE, UNSOLVABLE, BUDGET_EXHAUSTED
+    }
+
+    private final Status status;
+    private final long nodes;
+    private final long peakMemory;
+    private final long elapsedTime;
+    private final int[] solution;
+
+    public SolverResult(Status status, long nodes, long peakMemory, long elapsedTime, int[] solution) {
+
+        this.status = status;
+        this.nodes = nodes;
+        this.peakMemory = peakMemory;
+        this.elapsedTime = elapsedTime;
+        this.solution = solution;
+    }
+
+    public Status getStatus() {
+
+        return status;
+    }
+
+    /**
+     * A method for returning how many positions the solver reached, including positions it had already searched.
+     *
+     * @return The amount of nodes searched
+     */
+
+    public long getNodes() {
+
+        return nodes;
+    }
+
+    /**
+     * A method for returning the most memory the solver's tables and search stack used whilst solving the deal.
+     *
+     * @return The peak memory in bytes
+     */
+
+    public long getPeakMemory() {
+
+        return peakMemory;
+    }
+
+    /**
+     * A method for returning how long the solver took.
+     *
+     * @return The wall clock time in milliseconds
+     */
+
+    public long getElapsedTime() {
+
+        return elapsedTime;
+    }
+
+    /**
+     * A method for returning the moves that win the deal, in the form returned by Board.applyMove().
+     *
+     * @return The moves of the solution, or an empty array if the deal was not solved
+     */
+
+    public int[] getSolution() {
+
+        return solution.clone();
+    }
+
+    @Override
+    public String toString() {
+
+        return status + " nodes=" + nodes + " memory=" + peakMemory / 1024 + "KB time=" + elapsedTime + "ms" +
+                (status == Status.SOLVABLE ? " moves=" + solution.length : "");
+    }
+}
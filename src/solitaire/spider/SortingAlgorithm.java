@@ -1,9 +1,8 @@
 package solitaire.spider;
 
 import java.util.EmptyStackException;
-import java.util.Iterator;
 import java.util.Stack;
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <h1>solitaire.spider.SortingAlgorithm</h1>
@@ -16,27 +15,63 @@ import java.util.ArrayList;
  * @since 2018-07-06
  */
 
-public class SortingAlgorithm extends Thread {
+public class SortingAlgorithm extends Thread implements Player {
 
     private SpiderSolitaire game;
+    private final Board board;
     private Thread sortingAlgorithm;
-    private Boolean running;
+    private volatile boolean running;
     private int iterations;
     private int suitMode;
-    private int winCount;
-    private int lossCount;
+    //The counts are atomic so they can be read safely by the GUI whilst the algorithm's thread updates them
+    private final AtomicInteger winCount = new AtomicInteger();
+    private final AtomicInteger lossCount = new AtomicInteger();
     private int sleepTime = 0;
+    //When above 0, run() stops as soon as the 95% confidence interval of the win rate is no wider than this
+    private double targetWidth;
 
-    //These 3 variables are defined to remember the last move the algorithm made and stop the move being unmade hence
-    //causing an endless loop
-    private int lastOriginIndex = -1;
-    private int lastDestinationIndex = -1;
-    private int lastCardAmount = -1;
-    private Card lastCard;
+    //Some deals make the heuristics ask for the same move forever, so a game is abandoned as a loss once more than
+    //MOVE_LIMIT moves have been attempted in it
+    private int moveCount;
+
+    //Every call to a heuristic is one scan of the tableau, including the calls heuristics make to each other
+    private long scanCount;
+
+    //The last move the algorithm made is remembered to stop the move being unmade hence causing an endless loop
+    private final LastMove lastMove = new LastMove();
+    //The reversal being handled by prepDeal() when moveCards() is asked to undo the last move, or null if there is none
+    private Reversal reversal;
+    //The check made after every move to keep cards on the tableau, called through the pipeline so that it is measured
+    //like the heuristics, apart from the deal preparation it calls
+    private static final MoveStrategy RETAIN_CARDS = new MoveStrategy() {
+
+        @Override
+        public String getName() {
+
+            return HeuristicMetrics.RETAIN_CARDS;
+        }
+
+        @Override
+        public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+
+            boolean retained = algorithm.retainCards();
+            if (retained) {
+                algorithm.game.dealStock();
+            }
+            return retained;
+        }
+    };
+
+    //The heuristics tried on every turn, in the order they are tried
+    private StrategyPipeline pipeline = new StrategyPipeline();
+
+    //The constants the heuristics are built on
+    private HeuristicParameters parameters = HeuristicParameters.DEFAULT;
 
     public SortingAlgorithm(SpiderSolitaire game) {
 
         this.game = game;
+        this.board = game.getBoard();
     }
 
     public int getIterations() {
@@ -46,12 +81,51 @@ public class SortingAlgorithm extends Thread {
 
     public int getWinCount() {
 
-        return winCount;
+        return winCount.get();
     }
 
     public int getLossCount() {
 
-        return lossCount;
+        return lossCount.get();
+    }
+
+    public SpiderSolitaire getGame() {
+
+        return game;
+    }
+
+    public StrategyPipeline getPipeline() {
+
+        return pipeline;
+    }
+
+    /**
+     * A method for returning how many times the heuristics have scanned the tableau. Unlike the time they take, the
+     * count is the same every time the same game is played, so it can be used to compare their costs repeatably.
+     *
+     * @return The amount of heuristic calls made by the algorithm, including calls from one heuristic to another
+     */
+
+    public long getScanCount() {
+
+        return scanCount;
+    }
+
+    public HeuristicParameters getParameters() {
+
+        return parameters;
+    }
+
+    /**
+     * A method for returning the win rate of the games played by run() so far, with its 95% confidence interval.
+     *
+     * @return The interval of the win rate, or null if no games have been played
+     */
+
+    public ConfidenceInterval getWinRate() {
+
+        int games = winCount.get() + lossCount.get();
+        return games == 0 ? null : ConfidenceInterval.winRate(winCount.get(), games, ConfidenceInterval.Z_95);
     }
 
     public Thread getSortingAlgorithm() {
@@ -61,11 +135,7 @@ public class SortingAlgorithm extends Thread {
 
     public boolean isRunning() {
 
-        if (running) {
-            return true;
-        }
-        else
-            return false;
+        return running;
     }
 
     public void setIterations(int iterations) {
@@ -73,14 +143,69 @@ public class SortingAlgorithm extends Thread {
         this.iterations = iterations;
     }
 
+    /**
+     * A method for changing the heuristics the algorithm tries and the order it tries them in. The pipeline is used
+     * from the next turn on.
+     *
+     * @param pipeline The pipeline of move strategies to try on every turn
+     */
+
+    public void setPipeline(StrategyPipeline pipeline) {
+
+        if (pipeline == null) {
+            throw new IllegalArgumentException("Error! The algorithm needs a pipeline of strategies.");
+        }
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * A method for seeding the pipeline, so that an adaptive pipeline puts its strategies in the same order whenever
+     * the same game is played with the same seed. The cost of a strategy is then counted in tableau scans, not time.
+     *
+     * @param seed The seed of the next game
+     */
+
+    @Override
+    public void setSeed(long seed) {
+
+        pipeline.setSeed(seed);
+    }
+
+    /**
+     * A method for changing the constants the heuristics are built on. The parameters are used from the next turn on.
+     *
+     * @param parameters The parameters of the heuristics
+     */
+
+    public void setParameters(HeuristicParameters parameters) {
+
+        if (parameters == null) {
+            throw new IllegalArgumentException("Error! The algorithm needs a set of parameters.");
+        }
+        this.parameters = parameters;
+    }
+
     public void resetWinCount() {
 
-        this.winCount = 0;
+        winCount.set(0);
     }
 
     public void resetLossCount() {
 
-        this.lossCount = 0;
+        lossCount.set(0);
+    }
+
+    /**
+     * A method for making run() stop before it has played all of its iterations, once the win rate is known well
+     * enough that more games would not change the answer.
+     *
+     * @param targetWidth The width the 95% confidence interval of the win rate must shrink to, or 0 to always play
+     *                    every iteration
+     */
+
+    public void setTargetWidth(double targetWidth) {
+
+        this.targetWidth = targetWidth;
     }
 
     public void setSleepTime(int sleepTime) {
@@ -118,60 +243,98 @@ public class SortingAlgorithm extends Thread {
             for (int i = 0; i < iterations; i++) {
                 suitMode = game.getSuitMode();
                 game.dealGame();
-                System.out.println("***ALGORITHM BEGINS***");
-                System.out.println("No of iterations: " + iterations);
-                System.out.println("Suit mode: " + suitMode + " suit(s)");
-                System.out.println("Sleep time: " + sleepTime + "ms");
+                if (game.isLogged(Log.Level.DEBUG)) {
+                    Log.write("***ALGORITHM BEGINS***");
+                    Log.write("No of iterations: " + iterations);
+                    Log.write("Suit mode: " + suitMode + " suit(s)");
+                    Log.write("Sleep time: " + sleepTime + "ms");
+                }
 
+                GameEvent event = new GameEvent();
+                event.begin();
                 try {
-                    //The algorithm is ran in 6 cycles; each constitutes a deal. The initial game counts as a deal and
-                    //there are 5 stock deals
-                    for (int j = 5; j >= 0; j--) {
-                        //The order in which the moves are tried is as follows: Marriage, Sequence Marriage, Split
-                        //Sequence Marriage, Re-arrange Marriage, Reveal Cards and Deal Preparation
-                            while (marriage() || sequenceMarriage() || splitSequenceMarriage() ||
-                                    rearrangeMarriage() || differentSuitMarriage() || differentSuitSequenceMarriage() ||
-                                    revealCards() || prepDeal()) {
-
-                                //If there are 22 cards or less on the tableau and still cards to deal from the stock
-                                //pile, a deal is made from the stock pile to avoid a stalemate scenario
-                                if (retainCards()) {
-                                    game.dealStock();
-                                }
-                            }
-
-                        //If a deal has already been made after prepDeal() or retainCards(), then another deal does not
-                        //need to be made
-                        if (j > 0 && game.getStockCard(j - 1) == null) {
-
-                                break;
-                        }
-                        else {
-
-                            Thread.sleep(sleepTime);
-                            game.dealStock();
-                        }
-                    }
+                    event.finish(game, playGame());
                 }
                 catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
-                    System.out.println("Thread was interrupted. Failed to complete algorithm");
+                    game.log(Log.Level.WARN, "Thread was interrupted. Failed to complete algorithm");
                 }
 
                 //If all the foundations are filled, the game is won
                 if (game.getFoundationCard(7) != null) {
-                    winCount++;
+                    winCount.incrementAndGet();
                 }
                 else {
-                    lossCount++;
+                    lossCount.incrementAndGet();
+                }
+                game.log(Log.Level.DEBUG, "***ALGORITHM ENDS***");
+
+                //The rest of the iterations are not played once they would no longer change the win rate by much
+                if (targetWidth > 0 && getWinRate().getWidth() <= targetWidth) {
+                    break;
                 }
-                System.out.println("***ALGORITHM ENDS***");
             }
             game.endSortingAlgorithm();
             stopRunning();
         }
     }
 
+    /**
+     * A method that forgets everything the algorithm knows about the game it last played, so that the heuristics can
+     * be called on their own from a position that has been set up on the board, such as by a benchmark.
+     */
+
+    public void startGame() {
+
+        //The last move is forgotten so that a move from a previous game cannot be mistaken for one in this game
+        lastMove.forget();
+        moveCount = 0;
+    }
+
+    /**
+     * A method that plays the game that has currently been dealt through to the end. The game is played in 6 cycles;
+     * each constitutes a deal. The initial game counts as a deal and there are 5 stock deals. This method does not deal
+     * a new game or update the win/loss counts, so it can be used by a SimulationRunner to play many games at once.
+     *
+     * @return Returns true if all of the foundations were filled and the game was won
+     */
+
+    @Override
+    public boolean playGame() throws InterruptedException {
+
+        startGame();
+
+        try {
+            for (int j = 5; j >= 0; j--) {
+                //The heuristics are tried in the order of the pipeline, which by default is as follows: Marriage,
+                //Sequence Marriage, Split Sequence Marriage, Re-arrange Marriage, Different Suit Marriage, Different
+                //Suit Sequence Marriage, Reveal Cards and Deal Preparation
+                while (pipeline.apply(this)) {
+
+                    //If there are 22 cards or less on the tableau and still cards to deal from the stock
+                    //pile, a deal is made from the stock pile to avoid a stalemate scenario
+                    retainCardsAndDeal();
+                }
+
+                //If a deal has already been made after prepDeal() or retainCards(), then another deal does not
+                //need to be made
+                if (j > 0 && game.getStockCard(j - 1) == null) {
+
+                    break;
+                }
+                else {
+
+                    Thread.sleep(sleepTime);
+                    game.dealStock();
+                }
+            }
+        }
+        catch (MoveLimitException e) {
+            game.log(Log.Level.WARN, "Move limit reached. The game has been abandoned.");
+        }
+        return game.getFoundationCard(7) != null;
+    }
+
     /**
      * A method that moves one card onto another which is 1 higher in rank and of the same suit. This method starts from
      * the furthest right tableau index and works its way across the stacks from right to left as the stacks on the
@@ -186,22 +349,23 @@ public class SortingAlgorithm extends Thread {
     @SuppressWarnings("Duplicates")
     public boolean marriage() throws InterruptedException {
 
-        System.out.println("**MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**MARRIAGE STARTED**");
         boolean canMarriage = false;
 
-        //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1
+        //By default the method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1. If the
+        //parameters ask for the low ranks first, it will look for Aces to add to Twos and then increase in rank instead
         int rankToFind = 12;
         while (rankToFind > 0) {
 
+            int rank = parameters.isHighRanksFirst() ? rankToFind : 13 - rankToFind;
             try {
                 int priorityStack = -1;
                 boolean rankFound = false;
                 //Starts from the furthest right tableau index
                 for (int i = 9; i >= 0; i--) {
                     //A card is remembered if it is the rank to find and not in sequence.
-                    if (!game.getTableauStack(i).isEmpty() && game.getTableauStack(i).peek().getRank() == rankToFind &&
+                    if (!game.getTableauStack(i).isEmpty() && game.getTopCard(i).getRank() == rank &&
                             !isInSequence(i)) {
 
                         //If it is the first card found with that rank, it becomes the priority stack to make a marriage
@@ -212,13 +376,8 @@ public class SortingAlgorithm extends Thread {
                         }
                         //If it is not the first card, the amount of cards in sequence and the amount of face down cards
                         //must be less to prioritise a move that will make an empty stack more likely to appear
-                        else {
-                            if (countFaceDown(i) <= countFaceDown(priorityStack)) {
-                                if (countSequences(i) < countSequences(priorityStack)) {
-                                    priorityStack = i;
-                                }
-                            }
-
+                        else if (isBetterStack(i, priorityStack)) {
+                            priorityStack = i;
                         }
                     }
                 }
@@ -232,8 +391,8 @@ public class SortingAlgorithm extends Thread {
                             // the temporary card, the card is moved and the counters are reset so that any newly
                             // turned over card that was previously face down is included in the next iteration
                             if (!game.getTableauStack(j).isEmpty() &&
-                                    game.getTableauStack(j).peek().getRank() == rankToFind + 1 &&
-                                    game.getTableauStack(j).peek().getSuit().equals(game.getTableauStack(priorityStack).peek().getSuit())) {
+                                    game.getTopCard(j).getRank() == rank + 1 &&
+                                    game.getTopCard(j).getSuit().equals(game.getTopCard(priorityStack).getSuit())) {
 
                                     moveCards(priorityStack, j, 1);
                                     rankToFind = 13;
@@ -249,26 +408,24 @@ public class SortingAlgorithm extends Thread {
             }
             rankToFind--;
         }
-        System.out.println("**MARRIAGE ENDED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**MARRIAGE ENDED**");
         return canMarriage;
     }
 
     /**
-     * A method that moves one sequence of cards onto another which is 1 higher in rank and of the same suit. This
+     * A method that moves one sequence of cards onto another which is 1 higher in rank, whatever its suit. This
      * method starts from the furthest right tableau index and works its way across the stacks from right to left as the
      * stacks on the right have 1 less card on them and will create empty stacks more quickly (which is favourable).
-     * This method will only move cards of the same suit onto one another.
+     * Like differentSuitMarriage(), it makes one marriage at a time, so the same suit marriages are tried again after
+     * every move.
      *
-     * @return Returns true while a marriage can been made between two sequences of cards
+     * @return Returns true if a marriage was made between two sequences of cards
      */
 
     public boolean sequenceMarriage() throws InterruptedException {
 
-        System.out.println("**SEQUENCE MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**SEQUENCE MARRIAGE STARTED**");
         boolean canMarriage = false;
 
         //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1
@@ -283,18 +440,15 @@ public class SortingAlgorithm extends Thread {
                     //First we check if the origin tableau index is a sequence of one or more cards
                     if (isInSequence(i)) {
 
-                        //A new temporary stack is made and the sequence added
-                        Stack<Card> cardsToMove = removeCardSequence(i);
-                        int counter = cardsToMove.size();
+                        //The sequence is counted where it lies on the board
+                        int counter = countSequence(i);
                         boolean rankFound = false;
 
                         //If the final card in the sequence is equal to the rank to find,
-                        if (cardsToMove.peek().getRank() == rankToFind) {
+                        if (Board.rank(board.cardAt(i, board.size(i) - counter)) == rankToFind) {
 
                             rankFound = true;
                         }
-                        //The temporary stack is put back in its original place
-                        replaceCardSequence(cardsToMove, i);
 
                         if (rankFound) {
 
@@ -309,8 +463,8 @@ public class SortingAlgorithm extends Thread {
                                     // included in the next iteration
 
                                     if (!game.getTableauStack(j).isEmpty() &&
-                                            game.getTableauStack(j).peek().getRank() == rankToFind + 1 &&
-                                            game.getTableauStack(j).peek().getSuit().equals(game.getTableauStack(i).peek().getSuit()) ) {
+                                            game.getTopCard(j).getRank() == rankToFind + 1 &&
+                                            game.getTopCard(j).getSuit().equals(game.getTopCard(i).getSuit()) ) {
 
                                         moveCards(i, j, counter);
                                         rankToFind = 13;
@@ -327,9 +481,7 @@ public class SortingAlgorithm extends Thread {
             }
             rankToFind--;
         }
-        System.out.println("**SEQUENCE MARRIAGE FINISHED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**SEQUENCE MARRIAGE FINISHED**");
         return canMarriage;
     }
 
@@ -345,9 +497,8 @@ public class SortingAlgorithm extends Thread {
 
     public boolean splitSequenceMarriage() throws InterruptedException {
 
-        System.out.println("**SPLIT SEQUENCE MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**SPLIT SEQUENCE MARRIAGE STARTED**");
         boolean canMarriage = false;
 
         //The method will first look for a sequence on the tableau
@@ -358,43 +509,37 @@ public class SortingAlgorithm extends Thread {
                 if (isInSequence(i)) {
 
                     //The rank and suit of the top card of the sequence is stored
-                    int rankToFind = game.getTableauStack(i).peek().getRank();
-                    String suitToFind = game.getTableauStack(i).peek().getSuit();
+                    int rankToFind = Board.rank(board.top(i));
+                    int suitToFind = Board.suit(board.top(i));
 
                     //A second sequence is searched for which has cards of the same suit and a lower rank than the top
                     //card of the first sequence
                     for (int j = 9; j >= 0; j--) {
 
-                        if (isInSequence(j) && game.getTableauStack(j).peek().getRank() < rankToFind &&
-                                game.getTableauStack(j).peek().getSuit().equals(suitToFind)) {
+                        if (isInSequence(j) && Board.rank(board.top(j)) < rankToFind &&
+                                Board.suit(board.top(j)) == suitToFind) {
 
                             //The cards which are less than the rank to find in the second sequence are counted and
                             //moved to the first sequence
-                            Stack<Card> temporaryStack = new Stack<>();
-                            int counter = 0;
+                            int top = board.size(j) - 1;
+                            int counter = 1;
                             boolean canSplit = false;
 
-                            //Starting with the first card, the second sequence is popped to a temporary stack and the
-                            //cards are counted until we get to the card in the sequence equal in rank to the top card
-                            //of the first sequence stack
-                            temporaryStack.push(game.getTableauStack(j).pop());
-                            counter++;
-                            while (!game.getTableauStack(j).isEmpty() &&
-                                    game.getTableauStack(j).peek().getRank() < rankToFind &&
-                                    game.getTableauStack(j).peek().getRank() == temporaryStack.peek().getRank() + 1 &&
-                                    game.getTableauStack(j).peek().getSuit().equals(temporaryStack.peek().getSuit()) &&
-                                    game.getTableauStack(j).peek().isFaceUp()) {
-
-                                temporaryStack.push(game.getTableauStack(j).pop());
+                            //Starting with the first card, the second sequence is read down the column and the cards
+                            //are counted until we get to the card in the sequence equal in rank to the top card of the
+                            //first sequence stack
+                            while (counter <= top && Board.rank(board.cardAt(j, top - counter)) < rankToFind &&
+                                    Board.isInSequence(board.cardAt(j, top - counter + 1),
+                                            board.cardAt(j, top - counter))) {
+
                                 counter++;
                             }
                             //Checks to make sure the bottom card is one less in rank and the same suit
-                            if (temporaryStack.peek().getRank() == rankToFind - 1 &&
-                                    temporaryStack.peek().getSuit().equals(suitToFind)) {
+                            byte bottomCard = board.cardAt(j, top - counter + 1);
+                            if (Board.rank(bottomCard) == rankToFind - 1 && Board.suit(bottomCard) == suitToFind) {
 
                                 canSplit = true;
                             }
-                            replaceCardSequence(temporaryStack, j);
                             //If splitting the second sequence and moving to the first sequence would form a longer
                             //sequence then the move is made
                             if (isStackTaller(j, i, counter) && canSplit) {
@@ -411,9 +556,7 @@ public class SortingAlgorithm extends Thread {
 
             }
         }
-        System.out.println("**SPLIT SEQUENCE MARRIAGE FINISHED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**SPLIT SEQUENCE MARRIAGE FINISHED**");
         return canMarriage;
     }
 
@@ -428,9 +571,8 @@ public class SortingAlgorithm extends Thread {
 
     public boolean rearrangeMarriage() throws InterruptedException {
 
-        System.out.println("**REARRANGE MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**REARRANGE MARRIAGE STARTED**");
         boolean canMarriage = false;
 
         //The method will first look for an empty stack. If one is not found, the method cannot run and returns false
@@ -445,31 +587,28 @@ public class SortingAlgorithm extends Thread {
                         //If there are 2 or more sequences/cards out of sequence
                         if (countSequences(j) >= 2) {
 
-                            Stack<Card> firstStack = removeCardSequence(j);
-                            int firstStackSize = firstStack.size();
-                            int firstStackRank = firstStack.peek().getRank();
+                            //The two sequences on top of the stack are measured where they lie on the board
+                            int firstStackSize = countSequence(j);
+                            int firstStackBottom = board.size(j) - firstStackSize;
+                            int firstStackRank = Board.rank(board.cardAt(j, firstStackBottom));
 
-                            Stack<Card> secondStack = removeCardSequence(j);
-                            int secondStackSize = secondStack.size();
-                            int secondStackRank = secondStack.peek().getRank();
-                            String secondStackSuit = secondStack.peek().getSuit();
+                            int secondStackSize = board.sequenceLength(j, firstStackBottom - 1);
+                            int secondStackBottom = firstStackBottom - secondStackSize;
+                            int secondStackRank = Board.rank(board.cardAt(j, secondStackBottom));
+                            int secondStackSuit = Board.suit(board.cardAt(j, secondStackBottom));
 
                             int unavailableCardRank = 0;
-                            if (!game.getTableauStack(j).isEmpty()) {
-                                unavailableCardRank = game.getTableauStack(j).peek().getRank();
+                            if (secondStackBottom > 0) {
+                                unavailableCardRank = Board.rank(board.cardAt(j, secondStackBottom - 1));
                             }
 
-                            replaceCardSequence(secondStack, j);
-                            replaceCardSequence(firstStack, j);
-
-
                             if (firstStackRank == unavailableCardRank - 1) {
 
                                 for (int k = 0; k < 10; k++) {
 
                                     //If a marriage can be made with the second stack
-                                    if (game.getTableauStack(k).peek().getRank() == secondStackRank + 1 &&
-                                            game.getTableauStack(k).peek().getSuit().equals(secondStackSuit)) {
+                                    if (Board.rank(board.top(k)) == secondStackRank + 1 &&
+                                            Board.suit(board.top(k)) == secondStackSuit) {
 
                                         //Moves first card/sequence to the empty stack
                                         moveCards(j, i, firstStackSize);
@@ -489,32 +628,31 @@ public class SortingAlgorithm extends Thread {
                 }
             }
         }
-        System.out.println("**REARRANGE MARRIAGE FINISHED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**REARRANGE MARRIAGE FINISHED**");
         return canMarriage;
     }
 
     /**
      * A method that moves one card onto another which is 1 higher in rank and of different suit. This method starts from
      * the furthest right tableau index and works its way across the stacks from right to left as the stacks on the
-     * right have 1 less card on them and will create empty stacks more quickly (which is favourable). This method will
-     * only move cards of different suits onto each other when a same suit marriage can't be completed.
+     * right have 1 less card on them and will create empty stacks more quickly (which is favourable). The pipeline
+     * tries this method after the same suit marriages, so it only moves cards of different suits onto each other when
+     * a same suit marriage can't be completed. It makes one marriage at a time, so the same suit marriages are tried
+     * again after every move.
      *
-     * @return Returns true while a marriage can been made between two cards of different suits
+     * @return Returns true if a marriage was made between two cards of different suits
      */
 
     @SuppressWarnings("Duplicates")
     public boolean differentSuitMarriage() throws InterruptedException {
 
-        System.out.println("**DIFFERENT SUIT MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**DIFFERENT SUIT MARRIAGE STARTED**");
         boolean canMarriage = false;
-            //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1
+            //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1. Once a
+            //marriage has been made the method returns, so the pipeline tries the same suit marriages first again
             int rankToFind = 12;
-            while (rankToFind > 0 && !marriage() && !sequenceMarriage() && !splitSequenceMarriage() &&
-                !rearrangeMarriage()) {
+            while (rankToFind > 0 && !canMarriage) {
 
                 try {
                         int priorityStack = -1;
@@ -522,7 +660,7 @@ public class SortingAlgorithm extends Thread {
                         //Starts from the furthest right tableau index
                         for (int i = 9; i >= 0; i--) {
                             //A card is remembered if it is the rank to find and not in sequence.
-                            if (!game.getTableauStack(i).isEmpty() && game.getTableauStack(i).peek().getRank() == rankToFind &&
+                            if (!game.getTableauStack(i).isEmpty() && game.getTopCard(i).getRank() == rankToFind &&
                                     !isInSequence(i) && !isInOrder(i)) {
 
                                 //If it is the first card found with that rank, it becomes the priority stack to make a marriage
@@ -533,13 +671,8 @@ public class SortingAlgorithm extends Thread {
                                 }
                                 //If it is not the first card, the amount of cards in sequence and the amount of face down cards
                                 //must be less to prioritise a move that will make an empty stack more likely to appear
-                                else {
-                                    if (countFaceDown(i) <= countFaceDown(priorityStack)) {
-                                        if (countSequences(i) < countSequences(priorityStack)) {
-                                            priorityStack = i;
-                                        }
-                                    }
-
+                                else if (isBetterStack(i, priorityStack)) {
+                                    priorityStack = i;
                                 }
                             }
                         }
@@ -549,17 +682,15 @@ public class SortingAlgorithm extends Thread {
 
                                 //This loop will not do anything more once a marriage has been made
                                 if (!marriageMade) {
-                                    //If there is another card on the tableau that is 1 higher in rank and the same suit as
-                                    // the temporary card, the card is moved and the counters are reset so that any newly
-                                    // turned over card that was previously face down is included in the next iteration
+                                    //If there is another card on the tableau that is 1 higher in rank, the card is moved
                                     if (!game.getTableauStack(j).isEmpty() &&
-                                            game.getTableauStack(j).peek().getRank() == rankToFind + 1) {
+                                            game.getTopCard(j).getRank() == rankToFind + 1) {
 
-                                        moveCards(priorityStack, j, 1);
-                                        rankToFind = 13;
-                                        priorityStack = -1;
+                                        //The marriage is counted before the move, as a move that completes
+                                        //the last run empties the board and ends in an EmptyStackException
                                         marriageMade = true;
                                         canMarriage = true;
+                                        moveCards(priorityStack, j, 1);
                                     }
                                 }
                             }
@@ -569,57 +700,53 @@ public class SortingAlgorithm extends Thread {
                     }
                     rankToFind--;
             }
-            System.out.println("** DIFFERENT SUIT MARRIAGE FINISHED**");
-            System.out.println("**CARDS IN PLAY**");
-            cardsInPlay();
+            traceCards("**DIFFERENT SUIT MARRIAGE FINISHED**");
         return canMarriage;
     }
 
     /**
-     * A method that moves one sequence of cards onto another which is 1 higher in rank and of the same suit. This
+     * A method that moves one sequence of cards onto another which is 1 higher in rank, whatever its suit. This
      * method starts from the furthest right tableau index and works its way across the stacks from right to left as the
      * stacks on the right have 1 less card on them and will create empty stacks more quickly (which is favourable).
-     * This method will only move cards of the same suit onto one another.
+     * Like differentSuitMarriage(), it makes one marriage at a time, so the same suit marriages are tried again after
+     * every move.
      *
-     * @return Returns true while a marriage can been made between two sequences of cards
+     * @return Returns true if a marriage was made between two sequences of cards
      */
 
     public boolean differentSuitSequenceMarriage() throws InterruptedException {
 
-        System.out.println("**DIFFERENT SUIT SEQUENCE MARRIAGE STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**DIFFERENT SUIT SEQUENCE MARRIAGE STARTED**");
         boolean canMarriage = false;
 
-        //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1
+        //The method will first look for Queens to add to Kings, and will then decrease in rank 1 by 1. Once a marriage
+        //has been made the method returns, so the pipeline tries the same suit marriages first again
         int rankToFind = 12;
-        while (rankToFind > 0 && !marriage() && !sequenceMarriage() && !splitSequenceMarriage() &&
-                !rearrangeMarriage()) {
+        while (rankToFind > 0 && !canMarriage) {
 
             //Starts from the furthest right tableau index
-            for (int i = 9; i >= 0; i--) {
+            for (int i = 9; i >= 0 && !canMarriage; i--) {
 
                 try {
 
                     //First we check if the origin tableau index is a sequence of one or more cards
                     if (isInSequence(i)) {
 
-                        //A new temporary stack is made and the sequence added
-                        Stack<Card> cardsToMove = removeCardSequence(i);
-                        int counter = cardsToMove.size();
+                        //The sequence is counted where it lies on the board
+                        int counter = countSequence(i);
+                        int bottomIndex = board.size(i) - counter;
                         int hiddenCardRank = 0;
-                        if (!game.getTableauStack(i).isEmpty()) {
-                            hiddenCardRank = game.getTableauStack(i).peek().getRank();
+                        if (bottomIndex > 0) {
+                            hiddenCardRank = Board.rank(board.cardAt(i, bottomIndex - 1));
                         }
                         boolean rankFound = false;
 
                         //If the final card in the sequence is equal to the rank to find,
-                        if (cardsToMove.peek().getRank() == rankToFind && hiddenCardRank != rankToFind + 1) {
+                        if (Board.rank(board.cardAt(i, bottomIndex)) == rankToFind && hiddenCardRank != rankToFind + 1) {
 
                             rankFound = true;
                         }
-                        //The temporary stack is put back in its original place
-                        replaceCardSequence(cardsToMove, i);
 
                         if (rankFound) {
 
@@ -628,18 +755,16 @@ public class SortingAlgorithm extends Thread {
 
                                 //This loop will not do anything more once a marriage has been made
                                 if (!marriageMade) {
-                                    //If there is another card on the tableau that is 1 higher in rank and the same suit
-                                    // as the card on top of the temporary stack, the stack is moved and the loops are
-                                    // reset so that any newly turned over card that was previously face down is
-                                    // included in the next iteration
-
+                                    //If there is another card on the tableau that is 1 higher in rank than the card
+                                    //at the bottom of the sequence, the sequence is moved
                                     if (!game.getTableauStack(j).isEmpty() &&
-                                            game.getTableauStack(j).peek().getRank() == rankToFind + 1) {
+                                            game.getTopCard(j).getRank() == rankToFind + 1) {
 
-                                        moveCards(i, j, counter);
-                                        rankToFind = 13;
+                                        //The marriage is counted before the move, as a move that completes
+                                        //the last run empties the board and ends in an EmptyStackException
                                         marriageMade = true;
                                         canMarriage = true;
+                                        moveCards(i, j, counter);
                                     }
                                 }
                             }
@@ -651,9 +776,7 @@ public class SortingAlgorithm extends Thread {
             }
             rankToFind--;
         }
-        System.out.println("**DIFFERENT SUIT SEQUENCE MARRIAGE FINISHED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**DIFFERENT SUIT SEQUENCE MARRIAGE FINISHED**");
         return canMarriage;
     }
 
@@ -667,7 +790,8 @@ public class SortingAlgorithm extends Thread {
 
     public boolean revealCards() throws InterruptedException {
 
-        System.out.println("**REVEAL CARDS STARTED**");
+        scanCount++;
+        trace("**REVEAL CARDS STARTED**");
         boolean canReveal = false;
         //Looks through each tableau index to see if any are empty stacks
         for (int i = 0; i < 10; i++) {
@@ -691,17 +815,18 @@ public class SortingAlgorithm extends Thread {
                             //face down cards
                             int faceDownCounter = countFaceDown(j);
                             int sequenceCounter = countSequences(j);
-                            Stack<Card> temporaryStack = removeCardSequence(j);
+                            int topSequenceSize = countSequence(j);
+                            int bottomIndex = board.size(j) - topSequenceSize;
 
                             //If it is not a different suit sequence
-                            if (!game.getTableauStack(j).isEmpty() &&
-                                    temporaryStack.peek().getRank() != game.getTableauStack(j).peek().getRank() - 1) {
+                            if (bottomIndex > 0 && Board.rank(board.cardAt(j, bottomIndex)) !=
+                                    Board.rank(board.cardAt(j, bottomIndex - 1)) - 1) {
                                 //If this is the first iteration
                                 if (sequenceSize == 0 && sequenceCounter > 1) {
                                     priorityStack = j;
                                     faceDownCount = faceDownCounter;
                                     sequenceCount = sequenceCounter;
-                                    sequenceSize = temporaryStack.size();
+                                    sequenceSize = topSequenceSize;
                                 }
                                 //If the amount of sequences/cards out of sequence is lower than the previous best and
                                 //if the amount of face down cards in the stack is also lower, the current stack becomes
@@ -711,11 +836,10 @@ public class SortingAlgorithm extends Thread {
                                         priorityStack = j;
                                         faceDownCount = faceDownCounter;
                                         sequenceCount = sequenceCounter;
-                                        sequenceSize = temporaryStack.size();
+                                        sequenceSize = topSequenceSize;
                                     }
                                 }
                             }
-                            replaceCardSequence(temporaryStack, j);
                         }
                         if (j == 9 && sequenceSize > 0) {
 
@@ -730,7 +854,7 @@ public class SortingAlgorithm extends Thread {
                 }
             }
         }
-        System.out.println("**REVEAL CARDS FINISHED**");
+        trace("**REVEAL CARDS FINISHED**");
         return canReveal;
     }
 
@@ -746,9 +870,8 @@ public class SortingAlgorithm extends Thread {
 
     public boolean prepDeal() throws InterruptedException {
 
-        System.out.println("**PREP DEAL STARTED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        scanCount++;
+        traceCards("**PREP DEAL STARTED**");
         boolean prepDone = false;
 
         //Looks through each tableau index to see if any are empty stacks
@@ -777,13 +900,11 @@ public class SortingAlgorithm extends Thread {
                                     //The second iteration looks for cards/sequences not on a face down card
                                     if (onFaceDown(k) && j == 0 || !onFaceDown(k) && j == 1) {
                                         //If the card is in a sequence, the bottom card on the sequence is checked
-                                        Stack<Card> temporarySequence = removeCardSequence(k);
-                                        int tempRank = temporarySequence.peek().getRank();
-                                        int tempSize = temporarySequence.size();
-                                        replaceCardSequence(temporarySequence, k);
+                                        int tempSize = countSequence(k);
+                                        int tempRank = Board.rank(board.cardAt(k, board.size(k) - tempSize));
 
                                         if (tempRank == rankToFind && game.getTableauStack(k).size() > tempSize &&
-                                                tempRank != game.getTableauStack(k).peek().getRank() - 1 ) {
+                                                tempRank != game.getTopCard(k).getRank() - 1 ) {
 
                                             moveCards(k, i, tempSize);
                                             rankToFind = 0;
@@ -795,9 +916,9 @@ public class SortingAlgorithm extends Thread {
                                     //If the card is not in a sequence, the rank of the card is checked
                                     else {
 
-                                        if (game.getTableauStack(k).peek().getRank() == rankToFind &&
+                                        if (game.getTopCard(k).getRank() == rankToFind &&
                                                 game.getTableauStack(k).size() > 1 && onFaceDown(k) && j == 0 ||
-                                                game.getTableauStack(k).peek().getRank() == rankToFind &&
+                                                game.getTopCard(k).getRank() == rankToFind &&
                                                         game.getTableauStack(k).size() > 1 && !onFaceDown(k) && j == 1) {
 
                                             //Moves the cards and exits the loop
@@ -832,23 +953,19 @@ public class SortingAlgorithm extends Thread {
                             //Skips over the empty stack(s) to find stacks in sequence
                             if (!game.getTableauStack(j).isEmpty() && isInSequence(j)) {
 
-                                Stack<Card> temporarySequence = removeCardSequence(j);
-                                int tempRank = temporarySequence.peek().getRank();
-                                int tempSize = temporarySequence.size();
+                                int tempSize = countSequence(j);
+                                int bottomIndex = board.size(j) - tempSize;
+                                int tempRank = Board.rank(board.cardAt(j, bottomIndex));
 
                                 //If there is a card or a sequence of cards underneath and the bottom card of
-                                //the removed sequence is the rank to find and there is no different suit sequence
-                                if (!game.getTableauStack(j).isEmpty() && tempRank == rankToFind &&
-                                        tempRank != game.getTableauStack(j).peek().getRank() - 1) {
-                                    replaceCardSequence(temporarySequence, j);
+                                //the sequence is the rank to find and there is no different suit sequence
+                                if (bottomIndex > 0 && tempRank == rankToFind &&
+                                        tempRank != Board.rank(board.cardAt(j, bottomIndex - 1)) - 1) {
                                     moveCards(j, i, (tempSize));
                                     rankToFind = 0;
                                     j = -1;
                                     prepDone = true;
                                 }
-                                else {
-                                    replaceCardSequence(temporarySequence, j);
-                                }
                             }
                         }
                         rankToFind--;
@@ -872,10 +989,8 @@ public class SortingAlgorithm extends Thread {
                             //Skips over the empty stack(s) to find stacks in sequence
                             if (!game.getTableauStack(j).isEmpty() && isInSequence(j)) {
 
-                                Stack<Card> temporarySequence = removeCardSequence(j);
-                                int tempRank = temporarySequence.peek().getRank();
-                                int tempSize = temporarySequence.size();
-                                replaceCardSequence(temporarySequence, j);
+                                int tempSize = countSequence(j);
+                                int tempRank = Board.rank(board.cardAt(j, board.size(j) - tempSize));
 
                                 if (tempRank == rankToFind) {
 
@@ -911,12 +1026,43 @@ public class SortingAlgorithm extends Thread {
         }
         catch (EmptyStackException e) {
         }
-        System.out.println("**PREP DEAL FINISHED**");
-        System.out.println("**CARDS IN PLAY**");
-        cardsInPlay();
+        traceCards("**PREP DEAL FINISHED**");
         return prepDone;
     }
 
+    /**
+     * A method that decides whether a marriage should be made from a stack rather than the priority stack, when both
+     * have a card of the rank being looked for on top. The choice is made by the tie break of the parameters, which by
+     * default only chooses the stack if it has no more face down cards and fewer sequences/cards out of sequence.
+     *
+     * @param index The index of the tableau stack that has been found
+     * @param priorityStack The index of the tableau stack the marriage would be made from so far
+     * @return Returns true if the marriage should be made from the stack that has been found
+     */
+
+    public boolean isBetterStack(int index, int priorityStack) {
+
+        int faceDown = countFaceDown(index);
+        int priorityFaceDown = countFaceDown(priorityStack);
+        int sequences = countSequences(index);
+        int prioritySequences = countSequences(priorityStack);
+
+        switch (parameters.getTieBreak()) {
+
+            case FACE_DOWN_FIRST:
+                return faceDown < priorityFaceDown || faceDown == priorityFaceDown && sequences < prioritySequences;
+
+            case SEQUENCES_FIRST:
+                return sequences < prioritySequences || sequences == prioritySequences && faceDown < priorityFaceDown;
+
+            case RIGHTMOST:
+                return false;
+
+            default:
+                return faceDown <= priorityFaceDown && sequences < prioritySequences;
+        }
+    }
+
     /**
      * A method that determines whether or not a card is part of a same-suit sequence. The method returns true if the
      * card underneath the top card of a tableau stack is of the same suit as the top card and one higher in rank.
@@ -927,19 +1073,7 @@ public class SortingAlgorithm extends Thread {
 
     public boolean isInSequence(int index) {
 
-        boolean isInSequence = false;
-        if (game.getTableauStack(index).size() >= 2) {
-
-            Card tempCard = game.getTableauStack(index).pop();
-
-            if (game.getTableauStack(index).peek().getRank() == tempCard.getRank() + 1 &&
-                    game.getTableauStack(index).peek().getSuit().equals(tempCard.getSuit())
-                    && game.getTableauStack(index).peek().isFaceUp()) {
-                isInSequence = true;
-            }
-            game.getTableauStack(index).push(tempCard);
-        }
-        return isInSequence;
+        return board.sequenceLength(index) >= 2;
     }
 
     /**
@@ -953,16 +1087,15 @@ public class SortingAlgorithm extends Thread {
     public boolean isInOrder(int index) {
 
         boolean isInOrder = false;
-        if (game.getTableauStack(index).size() >= 2) {
-
-            Card tempCard = game.getTableauStack(index).pop();
+        int size = board.size(index);
+        if (size >= 2) {
 
-            if (game.getTableauStack(index).peek().getRank() == tempCard.getRank() + 1 &&
-                    !game.getTableauStack(index).peek().getSuit().equals(tempCard.getSuit())
-                    && game.getTableauStack(index).peek().isFaceUp()) {
+            byte topCard = board.cardAt(index, size - 1);
+            byte nextCard = board.cardAt(index, size - 2);
+            if (Board.rank(nextCard) == Board.rank(topCard) + 1 && Board.suit(nextCard) != Board.suit(topCard)
+                    && Board.isFaceUp(nextCard)) {
                 isInOrder = true;
             }
-            game.getTableauStack(index).push(tempCard);
         }
         return isInOrder;
     }
@@ -980,15 +1113,15 @@ public class SortingAlgorithm extends Thread {
         Stack<Card> temporaryStack = new Stack<>();
         //Moves the first card to the temporary stack
         if (!game.getTableauStack(index).isEmpty()) {
-            temporaryStack.push(game.getTableauStack(index).pop());
+            temporaryStack.push(Card.valueOf(board.pop(index)));
         }
         //Subsequent cards card then moved if they are in sequence, of the same suit and face up
         while (!game.getTableauStack(index).isEmpty() &&
-                game.getTableauStack(index).peek().getRank() == temporaryStack.peek().getRank() + 1 &&
-                game.getTableauStack(index).peek().getSuit().equals(temporaryStack.peek().getSuit())
-                && game.getTableauStack(index).peek().isFaceUp()) {
+                game.getTopCard(index).getRank() == temporaryStack.peek().getRank() + 1 &&
+                game.getTopCard(index).getSuit().equals(temporaryStack.peek().getSuit())
+                && game.getTopCard(index).isFaceUp()) {
 
-            temporaryStack.push(game.getTableauStack(index).pop());
+            temporaryStack.push(Card.valueOf(board.pop(index)));
         }
 
         return temporaryStack;
@@ -1005,7 +1138,7 @@ public class SortingAlgorithm extends Thread {
 
         while (!temporaryStack.isEmpty()) {
 
-            game.getTableauStack(index).push(temporaryStack.pop());
+            board.push(index, temporaryStack.pop().getCode());
         }
     }
 
@@ -1018,10 +1151,7 @@ public class SortingAlgorithm extends Thread {
 
     public int countSequence(int index) {
 
-        Stack<Card> temporaryStack = removeCardSequence(index);
-        int count = temporaryStack.size();
-        replaceCardSequence(temporaryStack, index);
-        return count;
+        return board.sequenceLength(index);
     }
 
     /**
@@ -1033,26 +1163,7 @@ public class SortingAlgorithm extends Thread {
 
     public int countOrder(int index) {
 
-        int count = 0;
-        Stack<Card> temporaryStack = new Stack<>();
-        //Moves the first card to the temporary stack
-        if (!game.getTableauStack(index).isEmpty()) {
-            temporaryStack.push(game.getTableauStack(index).pop());
-            count++;
-        }
-        //Subsequent cards card then moved if they are in sequence, of the same suit and face up
-        while (!game.getTableauStack(index).isEmpty() &&
-                game.getTableauStack(index).peek().getRank() == temporaryStack.peek().getRank() + 1 &&
-                game.getTableauStack(index).peek().isFaceUp()) {
-
-            temporaryStack.push(game.getTableauStack(index).pop());
-            count++;
-        }
-        //Returns the cards after counting
-        while (!temporaryStack.isEmpty()) {
-            game.getTableauStack(index).push((temporaryStack.pop()));
-        }
-        return count;
+        return board.orderLength(index);
     }
 
     /**
@@ -1065,17 +1176,7 @@ public class SortingAlgorithm extends Thread {
 
     public int countSequences(int index) {
 
-        ArrayList<Stack<Card>> sequences = new ArrayList<>();
-
-        while (!game.getTableauStack(index).isEmpty() && game.getTableauStack(index).peek().isFaceUp()) {
-            sequences.add(removeCardSequence(index));
-        }
-        int sequenceCount = sequences.size();
-
-        for (int i = sequences.size(); i >= 1; i--) {
-            replaceCardSequence(sequences.remove(i - 1), index);
-        }
-        return sequenceCount;
+        return board.countSequences(index);
     }
 
     /**
@@ -1092,45 +1193,31 @@ public class SortingAlgorithm extends Thread {
 
     public boolean isStackTaller(int originIndex, int destinationIndex, int cardsToMove) {
 
-        boolean isStackTaller = true;
+        int originSize = board.size(originIndex);
+        if (cardsToMove > originSize) {
+            throw new EmptyStackException();
+        }
 
-        Stack<Card> temporaryStack = new Stack<>();
         int originCounter = 0;
         int destinationCounter = 0;
+        //The bottom card of the stack to move, which the cards underneath in both stacks are compared against
+        byte bottomCard = board.cardAt(originIndex, originSize - cardsToMove);
 
-        //Temporarily removes the cards to be moved so the origin and destination stack can be compared
-        for (int i = 0; i < cardsToMove; i++) {
-
-            temporaryStack.push(game.getTableauStack(originIndex).pop());
-        }
         //Checks the first card underneath the stack to move from the origin index and if it is in sequence, counts the
         //amount of cards in that sequence
-        if (!game.getTableauStack(originIndex).isEmpty() &&
-                game.getTableauStack(originIndex).peek().getRank() == temporaryStack.peek().getRank() + 1 &&
-                game.getTableauStack(originIndex).peek().getSuit().equals(temporaryStack.peek().getSuit())
-                && game.getTableauStack(originIndex).peek().isFaceUp()) {
+        if (originSize > cardsToMove &&
+                Board.isInSequence(bottomCard, board.cardAt(originIndex, originSize - cardsToMove - 1))) {
 
-            originCounter = countSequence(originIndex);
+            originCounter = board.sequenceLength(originIndex, originSize - cardsToMove - 1);
         }
         //Checks the first card underneath from the destination index and if it is in sequence, counts the amount of
         //cards in that sequence
-        if (!game.getTableauStack(destinationIndex).isEmpty() &&
-                game.getTableauStack(destinationIndex).peek().getRank() == temporaryStack.peek().getRank() + 1 &&
-                game.getTableauStack(destinationIndex).peek().getSuit().equals(temporaryStack.peek().getSuit())
-                && game.getTableauStack(destinationIndex).peek().isFaceUp()) {
+        if (!board.isEmpty(destinationIndex) && Board.isInSequence(bottomCard, board.top(destinationIndex))) {
 
-            destinationCounter = countSequence(destinationIndex);
-        }
-        //Puts the cards to move back onto the origin index
-        while (!temporaryStack.isEmpty()) {
-
-            game.getTableauStack(originIndex).push(temporaryStack.pop());
+            destinationCounter = board.sequenceLength(destinationIndex);
         }
 
-        if (originCounter >= destinationCounter) {
-            isStackTaller = false;
-        }
-        return isStackTaller;
+        return originCounter < destinationCounter;
     }
 
     /**
@@ -1146,11 +1233,38 @@ public class SortingAlgorithm extends Thread {
 
     public void moveCards(int originIndex, int destinationIndex, int cardAmount) throws InterruptedException {
 
+        //Every attempt counts towards the limit, as the heuristics can keep asking for a move that is never made
+        if (++moveCount > MOVE_LIMIT) {
+            throw new MoveLimitException();
+        }
+
+        MoveEvent event = new MoveEvent();
+        if (event.isEnabled()) {
+            MoveStrategy strategy = pipeline.getCurrentStrategy();
+            event.origin = originIndex;
+            event.destination = destinationIndex;
+            event.cardCount = cardAmount;
+            event.heuristic = strategy != null ? strategy.getName() : null;
+            event.commit();
+        }
+
         //If the move to be made will reverse the last move that was made and the stock pile has cards on it, a stock
         //deal will be made.
-        if (originIndex == lastDestinationIndex && destinationIndex == lastOriginIndex &&
-                cardAmount == lastCardAmount && game.getTableauStack(originIndex).peek() == lastCard) {
-            prepDeal();
+        if (lastMove.isUndoneBy(originIndex, destinationIndex, cardAmount, board)) {
+            //prepDeal() always plays the same way from the same position, so if it asks to undo the same move from the
+            //position it was called from, it would keep asking until the stack overflows or the move limit is reached
+            long hash = board.getHash();
+            if (reversal != null && reversal.hash == hash && reversal.move.isSameAs(lastMove)) {
+                throw new MoveLimitException();
+            }
+            Reversal outer = reversal;
+            reversal = new Reversal(hash, lastMove);
+            try {
+                pipeline.applyNested(Heuristic.PREP_DEAL, this);
+            }
+            finally {
+                reversal = outer;
+            }
             game.dealStock();
         }
         else {
@@ -1165,13 +1279,12 @@ public class SortingAlgorithm extends Thread {
                 game.stackClicked(destinationIndex, cardAmount);
                 //Turns up the face down card after a move has been made
                 faceUpCards();
-                cardsInPlay();
+                if (game.isLogged(Log.Level.TRACE)) {
+                    cardsInPlay();
+                }
             } catch (EmptyStackException e) {
             }
-            lastOriginIndex = originIndex;
-            lastDestinationIndex = destinationIndex;
-            lastCardAmount = cardAmount;
-            lastCard = game.getTableauStack(destinationIndex).peek();
+            lastMove.remember(originIndex, destinationIndex, cardAmount, board);
         }
     }
 
@@ -1192,14 +1305,28 @@ public class SortingAlgorithm extends Thread {
     public boolean retainCards() throws InterruptedException {
 
         boolean retainCards = false;
-        //If there are 22 cards or less on the tableau and still cards in the stock pile
-        if (countTableau() <= 22 && game.getStockCard(0) != null) {
-            prepDeal();
+        //If there are 22 cards or less (or the retain threshold of the parameters) on the tableau and still cards in the
+        //stock pile
+        if (countTableau() <= parameters.getRetainThreshold() && game.getStockCard(0) != null) {
+            pipeline.applyNested(Heuristic.PREP_DEAL, this);
             retainCards = true;
         }
         return retainCards;
     }
 
+    /**
+     * A method that deals from the stock pile once retainCards() has prepared for a deal. The check is recorded in the
+     * heuristic metrics under the name RETAIN_CARDS, without the moves of the deal preparation, which are recorded as
+     * its own.
+     *
+     * @throws InterruptedException If the thread is interrupted whilst playing
+     */
+
+    private void retainCardsAndDeal() throws InterruptedException {
+
+        pipeline.applyNested(RETAIN_CARDS, this);
+    }
+
     /**
      * A method that turns up any face down cards prior to a move being made. Cards are often left face down once a
      * full sequence that was built on top of a face down card has been moved to one of the foundation stacks.
@@ -1209,10 +1336,7 @@ public class SortingAlgorithm extends Thread {
     public void faceUpCards() {
 
         for (int i = 0; i < 10; i++) {
-            if (!game.getTableauStack(i).isEmpty() &&
-                    !game.getTableauStack(i).peek().isFaceUp()) {
-                game.getTableauStack(i).peek().turnUp();
-            }
+            game.turnUpCard(i);
         }
     }
 
@@ -1237,19 +1361,9 @@ public class SortingAlgorithm extends Thread {
      * @return Returns true if one card or a sequence of cards is on top of a face down card
      */
 
-    @SuppressWarnings("Duplicates")
     public int countFaceDown(int index) {
 
-        int faceDownCounter = 0;
-        Stack<Card> stack = game.getTableauStack(index);
-        Iterator<Card> iterator = stack.iterator();
-        while (iterator.hasNext()){
-            Card card = iterator.next();
-            if (!card.isFaceUp()) {
-                faceDownCounter++;
-            }
-        }
-        return faceDownCounter;
+        return board.countFaceDown(index);
     }
 
     /**
@@ -1260,14 +1374,8 @@ public class SortingAlgorithm extends Thread {
 
     public boolean onFaceDown(int index) {
 
-        boolean onFaceDown = false;
-        Stack<Card> temporaryStack = removeCardSequence(index);
-        if (!game.getTableauStack(index).isEmpty()) {
-
-            onFaceDown = !game.getTableauStack(index).peek().isFaceUp();
-        }
-        replaceCardSequence(temporaryStack, index);
-        return onFaceDown;
+        int cardsBeneath = board.size(index) - board.sequenceLength(index);
+        return cardsBeneath > 0 && !Board.isFaceUp(board.cardAt(index, cardsBeneath - 1));
     }
 
     /**
@@ -1290,7 +1398,36 @@ public class SortingAlgorithm extends Thread {
     }
 
     /**
-     * **DEBUGGING METHOD** A method that counts all the cards in play to see if any have gone missing
+     * A method that writes a heuristic's banner if the game is traced or the log is at TRACE. The banner is a constant,
+     * so nothing is built when it is not written.
+     *
+     * @param banner The banner to write, such as "**MARRIAGE STARTED**"
+     */
+
+    private void trace(String banner) {
+
+        game.log(Log.Level.TRACE, banner);
+    }
+
+    /**
+     * A method that writes a heuristic's banner followed by a count of the cards in play, which walks every stack and
+     * so is only made if the game is traced or the log is at TRACE.
+     *
+     * @param banner The banner to write
+     */
+
+    private void traceCards(String banner) {
+
+        if (game.isLogged(Log.Level.TRACE)) {
+            Log.write(banner);
+            Log.write("**CARDS IN PLAY**");
+            cardsInPlay();
+        }
+    }
+
+    /**
+     * **DEBUGGING METHOD** A method that counts all the cards in play to see if any have gone missing and writes the
+     * count to the log, whatever its level.
      *
      */
 
@@ -1308,11 +1445,104 @@ public class SortingAlgorithm extends Thread {
         for (int i = 0; i < 5; i++) {
             cardCount += game.getStockStack(i).size();
         }
-        System.out.println(cardCount + " cards in play.");
+        Log.write(cardCount + " cards in play.");
         return cardCount;
     }
 
+    /**
+     * The last move made by moveCards(), kept so that a heuristic cannot undo it straight away. The move is remembered
+     * by the card on top of its destination and the size of the destination, rather than by a Card object, as cards
+     * read from the board are shared between every card of the same rank, suit and face. Between two moves the board
+     * is only changed by stock deals, which make every column longer, so a move is only undone while the card it moved
+     * is still on top.
+     */
+
+    private static final class LastMove {
+
+        private int originIndex;
+        private int destinationIndex;
+        private int cardAmount;
+        private byte card;
+        private int destinationSize;
+
+        LastMove() {
+
+            forget();
+        }
+
+        LastMove(LastMove other) {
+
+            originIndex = other.originIndex;
+            destinationIndex = other.destinationIndex;
+            cardAmount = other.cardAmount;
+            card = other.card;
+            destinationSize = other.destinationSize;
+        }
+
+        void forget() {
+
+            originIndex = -1;
+            destinationIndex = -1;
+            cardAmount = -1;
+            card = 0;
+            destinationSize = -1;
+        }
+
+        //The card is read last, as a move that completes a run can leave the destination empty. The indexes are still
+        //remembered and the EmptyStackException is passed on to the heuristic, as it always has been
+        void remember(int originIndex, int destinationIndex, int cardAmount, Board board) {
+
+            this.originIndex = originIndex;
+            this.destinationIndex = destinationIndex;
+            this.cardAmount = cardAmount;
+            destinationSize = board.size(destinationIndex);
+            card = board.top(destinationIndex);
+        }
+
+        //The origin column is only looked at once the indexes match, as it may be empty
+        boolean isUndoneBy(int originIndex, int destinationIndex, int cardAmount, Board board) {
+
+            return originIndex == this.destinationIndex && destinationIndex == this.originIndex &&
+                    cardAmount == this.cardAmount && board.top(originIndex) == card &&
+                    board.size(originIndex) == destinationSize;
+        }
+
+        boolean isSameAs(LastMove other) {
+
+            return originIndex == other.originIndex && destinationIndex == other.destinationIndex &&
+                    cardAmount == other.cardAmount && card == other.card && destinationSize == other.destinationSize;
+        }
+    }
+
+    /**
+     * The position and last move from which prepDeal() was called to stop the last move being undone.
+     */
+
+    private static final class Reversal {
 
+        private final long hash;
+        private final LastMove move;
 
+        Reversal(long hash, LastMove move) {
 
+            this.hash = hash;
+            this.move = new LastMove(move);
+        }
+    }
+
+    /**
+     * An exception thrown by moveCards() once a game has gone on for too many moves. It unwinds whichever heuristic
+     * is running back to playGame(), which then treats the game as lost. It is public so that code which applies the
+     * heuristics itself, rather than through playGame(), can tell an abandoned game from a real failure.
+     */
+
+    public static final class MoveLimitException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MoveLimitException() {
+
+            super("The move limit has been reached.", null, false, false);
+        }
+    }
 }
@@ -23,48 +23,50 @@ import java.util.*;
 
 public class SpiderSolitaire {
 
+    //The suits of the packs of each suit mode, in the order createDeck() gives them
+    private static final int[] ONE_SUIT = {Card.SPADES};
+    private static final int[] TWO_SUITS = {Card.SPADES, Card.HEARTS};
+    private static final int[] FOUR_SUITS = {Card.CLUBS, Card.SPADES, Card.HEARTS, Card.DIAMONDS};
+
     private static SpiderSolitaire game;
-    private Stack<Card>[] tableau;
-    private Stack<Card>[] foundation;
-    private Stack<Card>[] stock;
+    private final Board board = new Board();
+    private final ColumnView[] tableau;
+    private final byte[] deck = new byte[Board.DECK_SIZE];
+    private final MoveLog moveLog = new MoveLog();
+    private final SplittableRandom seedSource = new SplittableRandom();
+    private long seed;
     private int suitMode = 0;
-    private int stockCount = 0;
-    private GUI gui;
+    //Whether every message of this game is written, whatever the level of the log
+    private boolean traced;
+    private GameView view;
     private SortingAlgorithm sortingAlgorithm;
 
     public static void main(String[] args) {
 
-        getInstance();
+        //The GUI attaches itself to the game as its view
+        new GUI(getInstance());
     }
 
-    private SpiderSolitaire() {
-
-        //Creates 10 tableau stacks
-        tableau = (Stack<Card>[]) new Stack[10];
-        for (int i = 0; i < tableau.length; i++) {
-
-            tableau[i] = new Stack<>();
-        }
+    /**
+     * A constructor for a game that has no display. The game runs headless until a view such as the GUI is attached
+     * with setView(), which means the rules can be played on a machine without a screen.
+     *
+     */
 
-        //Creates 8 foundation stacks
-        foundation = (Stack<Card>[]) new Stack[8];
-        for (int i = 0; i < foundation.length; i++) {
+    public SpiderSolitaire() {
 
-            foundation[i] = new Stack<>();
-        }
-
-        //Creates 5 stock stacks
-        stock = (Stack<Card>[]) new Stack[5];
-        for (int i = 0; i < stock.length; i++) {
+        //Creates 10 tableau views, each of which reads a column of the board
+        tableau = new ColumnView[10];
+        for (int i = 0; i < tableau.length; i++) {
 
-            stock[i] = new Stack<>();
+            tableau[i] = new ColumnView(board, i);
         }
 
         //Creates the Sorting Algorithm
         this.sortingAlgorithm = new SortingAlgorithm(this);
 
-        //Creates the GUI
-        this.gui = new GUI(this);
+        //The game is headless until a view is attached
+        this.view = new HeadlessView();
     }
 
     /**
@@ -83,14 +85,108 @@ public class SpiderSolitaire {
     }
 
     /**
-     * A method for returning a tableau stack of a given index.
+     * A method for attaching a view to the game. The view is told whenever the game changes and holds the player's
+     * current selection.
+     *
+     * @param view The view to attach, such as the GUI or a HeadlessView
+     *
+     */
+
+    public void setView(GameView view) {
+
+        if (view == null) {
+            throw new IllegalArgumentException("Error! A game must have a view.");
+        }
+
+        this.view = view;
+    }
+
+    /**
+     * A method for returning the view that is attached to the game.
+     *
+     * @return The GameView the game reports changes to
+     *
+     */
+
+    public GameView getView() {
+
+        return view;
+    }
+
+    /**
+     * A method for returning the compact board that holds the state of the game.
+     *
+     * @return The Board of the game
+     *
+     */
+
+    public Board getBoard() {
+
+        return board;
+    }
+
+    /**
+     * A method for returning the log of the moves made in the current game.
+     *
+     * @return The MoveLog of the game
+     *
+     */
+
+    public MoveLog getMoveLog() {
+
+        return moveLog;
+    }
+
+    /**
+     * A method for making a move and recording it in the move log so it can be undone. If the move completes a run, the
+     * run is added to the foundation.
+     *
+     * @param move A move created by the Move class
+     * @return The move with flags recording what happened
+     *
+     */
+
+    public int makeMove(int move) {
+
+        int record = board.applyMove(move);
+        moveLog.push(record);
+
+        if (Move.hasFlag(record, Move.FOUNDATION)) {
+            log(Log.Level.DEBUG, "Foundation stack formed.");
+            checkGameComplete();
+        }
+        return record;
+    }
+
+    /**
+     * A method for undoing the last move that was made in the game.
+     *
+     * @return Returns true if a move was undone and false if no moves have been made
+     *
+     */
+
+    public boolean undoMove() {
+
+        if (moveLog.isEmpty()) {
+            return false;
+        }
+
+        board.undoMove(moveLog.pop());
+        view.unselect();
+        view.repaint();
+        return true;
+    }
+
+    /**
+     * A method for returning a tableau stack of a given index. The list is a read-only view of the game's board, from
+     * the bottom card to the top card, which always shows the stack as it is now.
      *
      * @param index An integer value representing the index of the tableau stack.
-     * @return A stack of cards from the tableau playing area.
+     * @return A list of cards from the tableau playing area.
      *
      */
 
-    public Stack<Card> getTableauStack(int index) {
+    public List<Card> getTableauStack(int index) {
 
         if (index < 0 || index > 9) {
             throw new IllegalArgumentException("Error! " + index + " is not a valid tableau index.");
@@ -100,7 +196,26 @@ public class SpiderSolitaire {
     }
 
     /**
-     * A method for returning a stock stack of a given index.
+     * A method for getting the card on top of a tableau stack.
+     *
+     * @param index An integer value representing the index of the tableau stack.
+     * @return A card object from the top of the tableau stack.
+     * @throws EmptyStackException If the tableau stack is empty
+     *
+     */
+
+    public Card getTopCard(int index) {
+
+        if (index < 0 || index > 9) {
+            throw new IllegalArgumentException("Error! " + index + " is not a valid tableau index.");
+        }
+
+        return Card.valueOf(board.top(index));
+    }
+
+    /**
+     * A method for returning a stock stack of a given index. The stack is a copy of the stock pile, so changing it
+     * does not change the game.
      *
      * @param index An integer value representing the index of the stock stack.
      * @return A stack of cards from the stock pile.
@@ -113,7 +228,13 @@ public class SpiderSolitaire {
             throw new IllegalArgumentException("Error! " + index + " is not a valid stock index.");
         }
 
-        return stock[index];
+        Stack<Card> pile = new Stack<>();
+        if (index < board.getStockCount()) {
+            for (int i = 0; i < Board.STOCK_PILE_SIZE; i++) {
+                pile.push(Card.valueOf(board.stockCardAt(index, i)));
+            }
+        }
+        return pile;
     }
 
     /**
@@ -126,13 +247,17 @@ public class SpiderSolitaire {
 
     public Card getStockCard(int index) {
 
-        if (stock[index].isEmpty()) {
+        if (index < 0 || index > 4) {
+            throw new IllegalArgumentException("Error! " + index + " is not a valid stock index.");
+        }
+
+        if (index >= board.getStockCount()) {
 
             return null;
         }
         else {
 
-            return stock[index].peek();
+            return Card.valueOf(board.stockCardAt(index, Board.STOCK_PILE_SIZE - 1));
         }
     }
 
@@ -150,13 +275,14 @@ public class SpiderSolitaire {
             throw new IllegalArgumentException("Error! " + index + " is not a valid foundation index.");
         }
 
-        if (foundation[index].isEmpty()) {
+        if (index >= board.getFoundationCount()) {
 
             return null;
         }
         else {
 
-            return foundation[index].peek();
+            //The Ace is the last card added to a foundation and so is the card on top
+            return Card.valueOf(Board.card(1, board.getFoundationSuit(index), true));
         }
     }
 
@@ -200,6 +326,28 @@ public class SpiderSolitaire {
         this.suitMode = suitAmount;
     }
 
+    /**
+     * A method for turning over the card on top of a tableau stack if it is facing down.
+     *
+     * @param index An integer value representing the index of the tableau stack.
+     * @return Returns true if a card was turned over
+     *
+     */
+
+    public boolean turnUpCard(int index) {
+
+        if (index < 0 || index > 9) {
+            throw new IllegalArgumentException("Error! " + index + " is not a valid tableau index.");
+        }
+
+        if (board.isEmpty(index) || Board.isFaceUp(board.top(index))) {
+            return false;
+        }
+
+        makeMove(Move.turn(index));
+        return true;
+    }
+
     /**
      * A method for starting the sorting algorithm.
      *
@@ -227,7 +375,7 @@ public class SpiderSolitaire {
 
     public void endSortingAlgorithm() {
 
-        gui.simulationStatistics();
+        view.simulationComplete();
     }
 
     /**
@@ -303,308 +451,309 @@ public class SpiderSolitaire {
     }
 
     /**
-     * A method for shuffling a deck of cards so their order is arbitrary. This method creates a new stack and will
-     * remove cards 1 by 1 from the ArrayList passed in a random order and push them onto the stack.
+     * A method for filling an array with the 104 cards used in the game, face down and in the same order as
+     * createDeck(). No Card objects are created.
      *
-     * @param deck An ArrayList of cards
-     * @return A Stack of shuffled cards
+     * @param deck An array of 104 cards to be filled
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
      *
      */
 
-    public Stack<Card> shuffleDeck(ArrayList<Card> deck) {
+    public static void fillDeck(byte[] deck, int suitMode) {
 
-        Stack<Card> shuffledDeck = new Stack<>();
+        int[] suits;
+        switch (suitMode) {
 
-        //Selects a card at random from the deck of cards and pushes it onto the shuffled deck stack
-        while (deck.size() > 0) {
-            int index = (int) (Math.random() * deck.size());
-            shuffledDeck.push(deck.remove(index));
-        }
+            case 1:
+                suits = ONE_SUIT;
+                break;
 
-        return shuffledDeck;
-    }
+            case 2:
+                suits = TWO_SUITS;
+                break;
 
-    /**
-     * A method for dealing a deck of cards onto the playing board (tableau). The first four stacks have five cards
-     * whilst the other six only have four cards. The remaining cards form the stock pile which is split into 5 piles.
-     * Any cards from a previous game are disposed of.
-     *
-     */
+            case 4:
+                suits = FOUR_SUITS;
+                break;
 
-    public void dealGame() {
-
-        //The created deck of cards is shuffled and forms a temporary stock pile
-        Stack<Card> tempStock = shuffleDeck(createDeck(suitMode));
+            default:
+                throw new IllegalArgumentException("Error! " + suitMode +
+                        " is not a valid amount of suits to be played.");
+        }
 
-        for (int i = 0; i < tableau.length; i++) {
+        //Each of the 8 packs of 13 cards takes its suit in turn, so every suit has the same amount of packs
+        for (int i = 0; i < 8; i++) {
 
-            tableau[i] = new Stack<>();
-            //The first 4 stacks have 6 cards
-            if (i < 4) {
-                for (int j = 0; j < 6; j++) {
-                    tableau[i].push(tempStock.pop());
-                }
+            int suit = suits[i * suits.length / 8];
+            for (int j = 1; j <= 13; j++) {
+                deck[i * 13 + j - 1] = Board.card(j, suit, false);
             }
-            //The last 6 stacks only have 5 cards
-            else {
-                for (int j = 0; j < 5; j++) {
-                    tableau[i].push(tempStock.pop());
-                }
-            }
-            //Turns the last card over so it is face up
-            tableau[i].peek().turnUp();
         }
+    }
 
-        stockCount = 0;
-        //The stock pile is split into 5 new piles
-        for (int i = 0; i < 5; i++) {
-
-            stock[i] = new Stack<>();
+    /**
+     * A method for shuffling a deck of cards in place with a Fisher-Yates shuffle. The same seed always gives the same
+     * order, which is what allows a game to be dealt again.
+     *
+     * @param deck An array of cards to be shuffled
+     * @param seed The seed of the shuffle
+     *
+     */
 
-            for (int j = 0; j < 10; j++){
-                stock[i].push(tempStock.pop());
-            }
-            stockCount++;
-        }
+    public static void shuffleDeck(byte[] deck, long seed) {
 
-        //Refreshes the foundation stacks in case a previous game has been played
-        for (int i = 0; i < foundation.length; i++) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = deck.length - 1; i > 0; i--) {
 
-            foundation[i] = new Stack<>();
+            int j = random.nextInt(i + 1);
+            byte card = deck[i];
+            deck[i] = deck[j];
+            deck[j] = card;
         }
-
-        System.out.println("Game dealt.");
     }
 
     /**
-     * A method for dealing a single card face up on top of each tableau stack. This method is used when the user clicks
-     * on the stock pile and there are cards left in the stock pile. The stock pile can only be dealt from when all
-     * of the tableau stacks have at least 1 card on them. There are enough cards for 5 dealings from the
-     * stock pile.
+     * A method for shuffling a deck of cards from a seed and pushing them onto a new stack. The cards are put in the
+     * same order as shuffleDeck(byte[], long) puts the cards of the same deck, so a deck from createDeck() shuffled
+     * from a seed matches the game dealt from that seed.
+     *
+     * @param deck An ArrayList of at most 128 cards, which is emptied
+     * @param seed The seed of the shuffle
+     * @return A Stack of shuffled cards
      *
      */
 
-    public void dealStock() {
-
-        boolean canDealStock = true;
+    public static Stack<Card> shuffleDeck(ArrayList<Card> deck, long seed) {
 
-        //If there are any empty stacks on the tableau, you cannot deal from the stock
-        for (Stack<Card> stack:tableau){
-            if (stack.isEmpty()) {
-
-                canDealStock = false;
-            }
+        if (deck.size() > Byte.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Error! A deck of " + deck.size() + " cards is too large to shuffle.");
         }
 
-        if (!canDealStock){
-            System.out.println("You cannot deal from the stock whilst there are empty tableau stacks.");
+        //The positions of the cards are shuffled as bytes, so both shuffles move the cards the same way
+        byte[] order = new byte[deck.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (byte) i;
         }
+        shuffleDeck(order, seed);
 
-        else if (stockCount == 0) {
-            System.out.println("The stock pile is empty.");
+        Stack<Card> shuffledDeck = new Stack<>();
+        for (byte position : order) {
+            shuffledDeck.push(deck.get(position & 0xFF));
         }
+        deck.clear();
 
-        else {
-            for (int i = 0; i < tableau.length; i++) {
-                tableau[i].push(stock[stockCount - 1].pop());
-                tableau[i].peek().turnUp();
-            }
-            stockCount--;
-            System.out.println("Stock dealt.");
-            gui.repaint();
-        }
+        return shuffledDeck;
     }
 
     /**
-     * A method for checking that a selected stack of cards can be moved to another stack (ie. the cards run
-     * sequentially and are of the same suit). If the amount of cards to be moved is 1 then no checks need to take
-     * place. The cards are one by one moved to a temporary stack with each card to be moved being checked against the
-     * last card. A running counter ensures that the method returns true if all the cards to be moved are in order and
-     * of the same suit. The cards are then put back onto the indexed tableau stack and the removeCards() method can be
-     * called. Whilst an Iterator would be best used here, Java's Iterator class does not abide by the Last In First Out
-     * (LIFO) properties of the Stack data structure and so it could be iterating over face down cards.
+     * A method for dealing a new game from a random seed. The seed can be read with getSeed() so the game can be dealt
+     * again later.
      *
-     * @param index The tableau index of where the cards will be removed from
-     * @param cardCount The amount of cards to be removed from the top of the stack
-     * @return A temporary stack of cards in reverse order
      */
 
-    private boolean canRemoveCards(int index, int cardCount) {
-
-        //Creates a new temporary stack of cards so that the stack of cards to be moved can be iterated through and
-        //checked one by one
-        Stack<Card> cardsToMove = new Stack<>();
-        int counter = 0;
+    public void dealGame() {
 
-        //If the tableau index has no cards there is nothing to be removed
-        if (tableau[index].isEmpty()) {
+        dealGame(seedSource.nextLong());
+    }
 
-            return false;
-        }
+    /**
+     * A method for dealing a deck of cards onto the playing board (tableau). The first four stacks have six cards
+     * whilst the other six only have five cards. The remaining cards form the stock pile which is split into 5 piles.
+     * Any cards from a previous game are disposed of. The deck is shuffled from the seed, so dealing the same seed in
+     * the same suit mode always gives the same game.
+     *
+     * @param seed The seed used to shuffle the deck
+     *
+     */
 
-        //If there is just 1 card to be moved, no checks are made and so no cards need to be temporarily removed
-        if (cardCount == 1) {
+    public void dealGame(long seed) {
 
-            counter++;
-        }
+        fillDeck(deck, suitMode);
+        shuffleDeck(deck, seed);
+        dealDeck(seed);
+    }
 
-        //If there are multiple cards to be moved...
-        else {
+    /**
+     * A method for dealing a numbered game of the current suit mode. Each suit mode has its own numbered deals,
+     * starting from deal 1.
+     *
+     * @param dealNumber The number of the deal
+     *
+     */
 
-            //No comparisons need to be made on the first card
-            cardsToMove.push(tableau[index].pop());
-            counter++;
+    public void dealNumberedGame(int dealNumber) {
 
-            for (int i = 0; i < cardCount - 1; i++) {
+        dealGame(DealCatalogue.dealSeed(suitMode, dealNumber));
+    }
 
-                //Checks that the next card from the same tableau stack is 1 higher in rank, the same suit and face up
-                if ((cardsToMove.peek().getRank() + 1 == tableau[index].peek().getRank()) &&
-                        (cardsToMove.peek().getSuit().equals(tableau[index].peek().getSuit())) &&
-                        (tableau[index].peek().isFaceUp())) {
+    /**
+     * A method for dealing a game that has been read from a deal catalogue, without shuffling. The game's suit mode is
+     * changed to the suit mode of the catalogue.
+     *
+     * @param catalogue The catalogue to read the deal from
+     * @param index The index of the deal in the catalogue
+     *
+     */
 
-                    //Removes the compared card so the next card can be peeked at and compared
-                    cardsToMove.push(tableau[index].pop());
-                    counter++;
-                }
-            }
+    public void dealGame(DealCatalogue catalogue, int index) {
 
-            //Once all comparisons have been made, the cards are put back one by one onto their original stack
-            for (int i = 0; i < cardCount; i++) {
+        catalogue.readDeck(index, deck);
+        setSuitMode(catalogue.getSuitMode());
+        dealDeck(catalogue.getSeed(index));
+    }
 
-                tableau[index].push(cardsToMove.pop());
-            }
+    private void dealDeck(long seed) {
 
-        }
+        board.deal(deck);
+        moveLog.clear();
+        this.seed = seed;
+        //A selection left over from the last game would turn the first click of this game into a move
+        view.unselect();
 
-        //If the amount of cards to be moved matches the amount that were successfully compared, the method returns true
-        return (cardCount == counter);
+        log(Log.Level.DEBUG, "Game dealt.");
     }
 
     /**
-     * A method for removing a selected stack of cards ready to move to another stack. The cards are removed from the
-     * tableau stack and added to a new temporary stack ready to be moved. The cards are stacked in reverse order with
-     * the highest rank card at the top so they are ready to be popped off in the correct order onto the new stack.
+     * A method for tracing this game, so that every message it and its sorting algorithm write is written whatever
+     * the level of the log. Other games, such as those on other threads of a SimulationRunner, are not traced.
      *
-     * @param index The tableau index of where the cards will be removed from
-     * @param cardCount The amount of cards to be removed from the top of the stack
-     * @return A temporary stack of cards in reverse order, ready to be placed onto a new stack
+     * @param traced Whether the game is traced
      */
 
-    private Stack<Card> removeCards(int index, int cardCount) {
+    public void setTraced(boolean traced) {
 
-        //Creates a new temporary stack of cards to be moved to a different tableau index
-        Stack<Card> cardsToMove = new Stack<>();
-
-            for (int i = 0; i < cardCount; i++){
+        this.traced = traced;
+    }
 
-                    cardsToMove.push(tableau[index].pop());
-                }
+    public boolean isTraced() {
 
-        return cardsToMove;
+        return traced;
     }
 
     /**
-     * A method for checking if a single selected card or a stack of cards can be added to another stack.
+     * A method for checking whether a message of a level is written for this game. A message that is joined from
+     * parts should only be built once this has returned true.
      *
-     * @param cardsToAdd A stack which may contain 1 or more cards to be added to a tableau index
-     * @param index The index of the tableau where the cards are to be added
-     * @return Returns true if the stack can be added and false if it can't
+     * @param level The level of the message
+     * @return Returns true if the game is traced or the level is enabled
      */
 
-    private boolean canAddToStack(Stack<Card> cardsToAdd, int index) {
+    public boolean isLogged(Log.Level level) {
 
-        boolean canAddToStack = false;
-        Card tempCard = cardsToAdd.peek();
+        return traced || Log.isEnabled(level);
+    }
 
-        //If the destination stack is empty, the cards can always be moved
-        if (tableau[index].isEmpty()) {
+    /**
+     * A method that writes a message of this game if it is traced or the level is enabled.
+     *
+     * @param level The level of the message
+     * @param message The message to write
+     */
 
-            canAddToStack = true;
-        }
-        //If the card on top of the destination stack has a rank 1 higher than the card on the bottom of the stack to
-        // move, then the cards can be added regardless of suit
-        if (tempCard.getRank() + 1 == tableau[index].peek().getRank()) {
+    public void log(Log.Level level, String message) {
 
-            canAddToStack = true;
+        if (isLogged(level)) {
+            Log.write(message);
         }
-
-        return canAddToStack;
     }
 
     /**
-     * A method for adding a stack of cards to another stack on the tableau.
+     * A method for returning the seed of the game that was last dealt.
+     *
+     * @return The seed that the current game was shuffled from
      *
-     * @param cardsToAdd A stack which may contain 1 or more cards to be added to a tableau index
-     * @param index The index of the tableau where the cards are to be added
      */
 
-    private void addToStack(Stack<Card> cardsToAdd, int index) {
-
-        while(!cardsToAdd.isEmpty()) {
+    public long getSeed() {
 
-                tableau[index].push(cardsToAdd.pop());
-        }
-        //Each time one card (or more) is moved from one tableau stack to another, a check is made to see if a full run
-        //of cards has been completed on the destination tableau stack
-        canAddToFoundation(index);
+        return seed;
     }
 
     /**
-     * A method for checking if a stack of cards has the ranks 1-13 and can be added to the foundation. If a stack can
-     * be added to the foundation then the addToFoundation() method is called and it is automatically added.
+     * A method for dealing a single card face up on top of each tableau stack. This method is used when the user clicks
+     * on the stock pile and there are cards left in the stock pile. The stock pile can only be dealt from when all
+     * of the tableau stacks have at least 1 card on them. There are enough cards for 5 dealings from the
+     * stock pile.
      *
-     * @param index The index of the tableau where the cards are to be taken from and added to the foundation
-     * @return Returns true if a stack of cards can be added and false if the stack can't
      */
 
-    private boolean canAddToFoundation(int index) {
+    public void dealStock() {
 
-        //Creates a new stack for a full run of cards, ace to king
-        Stack<Card> temporaryStack = new Stack<>();
+        if (board.getStockCount() == 0) {
+            log(Log.Level.DEBUG, "The stock pile is empty.");
+        }
 
-        for (int i = 1; i < 14; i++) {
+        //If there are any empty stacks on the tableau, you cannot deal from the stock
+        else if (!board.canDealStock()){
+            log(Log.Level.INFO, "You cannot deal from the stock whilst there are empty tableau stacks.");
+        }
 
-            if (tableau[index].size() > 0) {
-                //The first card only needs to be an ace, the suit doesn't matter
-                if (tableau[index].peek().getRank() == i && i == 1 && temporaryStack.isEmpty()) {
+        else {
+            DealEvent event = new DealEvent();
+            if (event.isEnabled()) {
+                event.seed = seed;
+                event.stockLeft = board.getStockCount() - 1;
+                for (int i = 0; i < 10; i++) {
+                    event.tableauCards += board.size(i);
+                }
+                event.commit();
+            }
+            makeMove(Move.deal());
+            log(Log.Level.DEBUG, "Stock dealt.");
+            view.repaint();
+        }
+    }
 
-                    temporaryStack.push(tableau[index].pop());
+    /**
+     * A method for checking that a selected stack of cards can be moved to another stack (ie. the cards run
+     * sequentially, are face up and are of the same suit). If the amount of cards to be moved is 1 then no checks need
+     * to take place. The cards are read from the board where they lie, so nothing is removed whilst checking.
+     *
+     * @param index The tableau index of where the cards will be removed from
+     * @param cardCount The amount of cards to be removed from the top of the stack
+     * @return Returns true if the cards can be moved
+     */
 
-                }
-                //Each card after the ace has to match the suit of the ace so that all cards to be added to the foundation
-                //are of the same suit
-                else if ((tableau[index].peek().getRank() == i) && !temporaryStack.isEmpty()) {
+    private boolean canRemoveCards(int index, int cardCount) {
 
-                    if (tableau[index].peek().getSuit().equals(temporaryStack.peek().getSuit()) &&
-                            temporaryStack.peek().getRank() + 1 == tableau[index].peek().getRank()) {
+        return board.canRemoveCards(index, cardCount);
+    }
 
-                        temporaryStack.push(tableau[index].pop());
-                    }
-                }
-            }
-        }
-        //Checks if the newly created stack has 13 cards in it. If it does, the cards are added to a foundation stack
-        if (temporaryStack.size() == 13) {
+    /**
+     * A method for checking if a single selected card or a stack of cards can be added to another stack. The cards
+     * can always be added to an empty stack, otherwise the card on top of the destination stack must be 1 higher in
+     * rank than the bottom card to be moved, regardless of suit.
+     *
+     * @param originIndex The index of the tableau where the cards are to be taken from
+     * @param cardCount The amount of cards to be moved
+     * @param index The index of the tableau where the cards are to be added
+     * @return Returns true if the stack can be added and false if it can't
+     */
 
-            addToFoundation(temporaryStack);
-            System.out.println("Foundation stack formed.");
-            return true;
-        }
-        //If the newly created stack has less than 13 cards, they are returned to the tableau
-        else {
+    private boolean canAddToStack(int originIndex, int cardCount, int index) {
 
-            while (temporaryStack.size() > 0) {
+        return board.canAddCards(originIndex, cardCount, index);
+    }
 
-                tableau[index].push(temporaryStack.pop());
-            }
+    /**
+     * A method for moving a stack of cards from one stack to another on the tableau. Any face down card left on top of
+     * the origin stack is turned up.
+     *
+     * @param originIndex The index of the tableau where the cards are to be taken from
+     * @param cardCount The amount of cards to be moved
+     * @param index The index of the tableau where the cards are to be added
+     */
 
-            return false;
-        }
+    private void addToStack(int originIndex, int cardCount, int index) {
+
+        //Each time one card (or more) is moved from one tableau stack to another, a full run of cards completed on the
+        //destination tableau stack is added to the foundation
+        makeMove(Move.move(originIndex, index, cardCount));
     }
 
     /**
-     * A method for checking if a stack of cards has the ranks 1-13 and can be added to the foundation. If a stack can
-     * be added to the foundation then it is added.
+     * A method for adding a completed stack of cards to the foundation. If a stack can be added to the foundation then
+     * it is added and the stack is emptied.
      *
      * @param completedStack A stack of cards of the same suit in a run of rank 1-13 that will be added to the foundation
      */
@@ -613,24 +762,25 @@ public class SpiderSolitaire {
 
         if (completedStack.size() == 13) {
 
-            //Iterates through the foundation to find an empty foundation to unload the completed stack to
-            for (int i = 0; i < foundation.length; i++) {
+            board.addFoundation(Card.suitIndex(completedStack.peek().getSuit()));
+            completedStack.clear();
+            checkGameComplete();
+        }
+        else throw new IllegalArgumentException("The completed stack must have 13 cards");
+    }
 
-                if (foundation[i].isEmpty()) {
+    /**
+     * A method that tells the view the game has been won once the final foundation is filled, unless the sorting
+     * algorithm is playing.
+     *
+     */
 
-                    while (!completedStack.isEmpty()) {
+    private void checkGameComplete() {
 
-                        foundation[i].push(completedStack.pop());
-                    }
-                }
-            }
-            //If the final foundation is filled, the game is complete
-            if (foundation[7].size() == 13 && !sortingAlgorithm.isRunning()) {
+        if (board.isWon() && !sortingAlgorithm.isRunning()) {
 
-                gui.gameComplete();
-            }
+            view.gameComplete();
         }
-        else throw new IllegalArgumentException("The completed stack must have 13 cards");
     }
 
     /**
@@ -644,76 +794,70 @@ public class SpiderSolitaire {
 
     public void stackClicked(int index, int selectedCardAmount) {
 
-        System.out.print("Stack at index " + index + " clicked. ");
+        if (isLogged(Log.Level.DEBUG)) {
+            Log.write("Stack at index " + index + " clicked.");
+        }
 
         //If the selected stack is empty and the tableau is not selected, nothing happens
-        if (tableau[index].isEmpty() && !gui.isTableauSelected()) {
-
-            try {
-                System.out.println("Empty stack selected.");
-                gui.unselect();
-            }
-            catch (EmptyStackException e) {
+        if (board.isEmpty(index) && !view.isTableauSelected()) {
 
-            }
+            log(Log.Level.DEBUG, "Empty stack selected.");
+            view.unselect();
         }
         //If the selected stack is empty and the tableau is selected, , the cards are moved
-        else if (tableau[index].isEmpty() && gui.isTableauSelected()) {
+        else if (board.isEmpty(index) && view.isTableauSelected()) {
 
-            try {
-                //If the cards from the original pile can be moved, they are removed and added to a temporary stack
-                if (canRemoveCards(gui.getSelectedStack(), gui.getSelectedCardAmount())) {
+            //If the cards from the original pile can be moved, they are moved to the empty stack
+            if (canRemoveCards(view.getSelectedStack(), view.getSelectedCardAmount())) {
 
-                    Stack<Card> cardToMove = removeCards(gui.getSelectedStack(), gui.getSelectedCardAmount());
-                    addToStack(cardToMove, index);
-                }
-                System.out.println(selectedCardAmount + " card(s) moved to stack at index " + index + ".");
-                gui.unselect();
+                addToStack(view.getSelectedStack(), view.getSelectedCardAmount(), index);
             }
-            catch (EmptyStackException e) {
-
+            if (isLogged(Log.Level.DEBUG)) {
+                Log.write(selectedCardAmount + " card(s) moved to stack at index " + index + ".");
             }
+            view.unselect();
         }
         //If the card on top of the clicked pile is face down and there is not a card selected, the card is turned over
-        else if ((!tableau[index].peek().isFaceUp()) && (!gui.isTableauSelected())) {
+        else if ((!Board.isFaceUp(board.top(index))) && (!view.isTableauSelected())) {
 
-            tableau[index].peek().turnUp();
-            System.out.println("Card turned up.");
+            makeMove(Move.turn(index));
+            log(Log.Level.DEBUG, "Card turned up.");
         }
         //If the card on top of the clicked pile is face down and there is a card selected, the selected card is
         // deselected
-        else if ((!tableau[index].peek().isFaceUp()) && (gui.isTableauSelected())) {
+        else if ((!Board.isFaceUp(board.top(index))) && (view.isTableauSelected())) {
 
-            gui.unselect();
-            System.out.println("Stack has been deselected.");
+            view.unselect();
+            log(Log.Level.DEBUG, "Stack has been deselected.");
         }
         //If the pile selected is the one currently selected, the pile is unselected
-        else if ((gui.isTableauSelected()) && (gui.getSelectedStack() == index)) {
+        else if ((view.isTableauSelected()) && (view.getSelectedStack() == index)) {
 
-            gui.unselect();
-            System.out.println("Stack " + index + " has been deselected.");
+            view.unselect();
+            if (isLogged(Log.Level.DEBUG)) {
+                Log.write("Stack " + index + " has been deselected.");
+            }
         }
         //If a different pile is selected than the one currently selected
-        else if ((gui.isTableauSelected()) && (gui.getSelectedStack() != index)) {
-
-            //If the cards from the original pile can be moved, they are removed and added to a temporary stack
-            if (canRemoveCards(gui.getSelectedStack(), gui.getSelectedCardAmount())) {
+        else if ((view.isTableauSelected()) && (view.getSelectedStack() != index)) {
 
-                Stack<Card> cardToMove = removeCards(gui.getSelectedStack(), gui.getSelectedCardAmount());
+            //If the cards from the original pile can be moved...
+            if (canRemoveCards(view.getSelectedStack(), view.getSelectedCardAmount())) {
 
                 //If the cards to be moved can be added to the destination stack, they are added
-                if (canAddToStack(cardToMove, index)) {
+                if (canAddToStack(view.getSelectedStack(), view.getSelectedCardAmount(), index)) {
 
-                    addToStack(cardToMove, index);
-                    gui.unselect();
-                    System.out.println(selectedCardAmount + " card(s) moved to stack at index " + index + ".");
+                    addToStack(view.getSelectedStack(), view.getSelectedCardAmount(), index);
+                    view.unselect();
+                    if (isLogged(Log.Level.DEBUG)) {
+                        Log.write(selectedCardAmount + " card(s) moved to stack at index " + index + ".");
+                    }
                 }
-                //If the cards cannot be moved, they are returned to their original stack
+                //If the cards cannot be moved, they stay on their original stack
                 else {
 
-                    addToStack(cardToMove, gui.getSelectedStack());
-                    gui.unselect();
-                    System.out.println("Illegal move.");
+                    view.unselect();
+                    log(Log.Level.INFO, "Illegal move.");
                 }
             }
         }
@@ -721,51 +865,22 @@ public class SpiderSolitaire {
         //amount of cards selected is allowed (ie. they run sequentially in rank and are of the same suit)
         else {
 
+            view.setSelectedCardAmount(selectedCardAmount);
+
             //If there is only 1 card selected, no checks need to be made
-            if (selectedCardAmount == 1) {
+            if (selectedCardAmount == 1 || canRemoveCards(index, selectedCardAmount)) {
 
-                gui.setSelectedCardAmount(selectedCardAmount);
-                System.out.println(gui.getSelectedCardAmount() + " card(s) selected.");
-                gui.selectStack(index);
+                if (isLogged(Log.Level.DEBUG)) {
+                    Log.write(view.getSelectedCardAmount() + " card(s) selected.");
+                }
+                view.selectStack(index);
             }
-
             else {
 
-                gui.setSelectedCardAmount(selectedCardAmount);
-                Stack<Card> temporaryStack = new Stack<>();
-                temporaryStack.push(tableau[index].pop());
-
-                for (int i = 1; i < selectedCardAmount; i++) {
-
-                    if ((temporaryStack.peek().getRank() + 1 == tableau[index].peek().getRank()) &&
-                            (temporaryStack.peek().getSuit().equals(tableau[index].peek().getSuit()))) {
-
-                        temporaryStack.push(tableau[index].pop());
-                    }
-
-                }
-
-                //If the amount of cards popped to the temporary stack is equal to the amount of selected cards then the
-                //stack is selected
-                if (temporaryStack.size() == selectedCardAmount) {
-
-                    System.out.println(gui.getSelectedCardAmount() + " card(s) selected.");
-                    gui.selectStack(index);
-                }
-                else {
-
-                    System.out.println("You cannot select a card unless all cards on top of it are decreasing by 1 in " +
-                            "rank and of the same suit");
-                }
-
-                //The cards are then put back onto the tableau index from the temporary stack
-                while (temporaryStack.size() > 0) {
-
-                    tableau[index].push(temporaryStack.pop());
-                }
+                log(Log.Level.DEBUG, "You cannot select a card unless all cards on top of it are decreasing by 1 " +
+                        "in rank and of the same suit");
             }
         }
-        gui.paintImmediately(gui.getBounds());
+        view.paintImmediately();
     }
 }
-
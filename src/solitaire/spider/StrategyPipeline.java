@@ -0,0 +1,475 @@
+package solitaire.spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * <h1>solitaire.spider.StrategyPipeline</h1>
+ * This is a class for the chain of move strategies a sorting algorithm tries on every turn. The strategies are tried
+ * in order until one of them makes a move, and the turn ends there, so a strategy later in the chain is only tried
+ * when none before it could move. Any strategy can be disabled to leave it out of the chain and the chain can be put
+ * in any order. A new pipeline holds the eight heuristics in the order the algorithm has always tried them in.
+ *
+ * The pipeline keeps how many times each strategy was tried, how many times it made a move and how long it took, so
+ * the strategies that cost the most for the moves they make can be found. The time is measured around every call,
+ * including the calls that are ended by the move limit. A strategy called from inside another, such as the deal
+ * preparation made before a deal, is counted as a call of its own and not as part of the call it was made from. A
+ * pipeline must only be used by one thread at a time. Every call is also added to the HeuristicMetrics of the
+ * strategy, which sum the calls of every pipeline in the JVM.
+ *
+ * An adaptive pipeline puts its strategies back in order every few turns. When each strategy either finds a move or
+ * not, trying them in falling order of the chance of a move divided by the cost of a call finds a move for the least
+ * cost, so that is the order used. Both are weighted towards the latest calls, so the order follows how the game is
+ * going. Now and then a strategy is moved to the front at random, so one that was pushed to the back is tried often
+ * enough for its statistics to stay up to date. Without a seed the cost of a call is the time it takes. With a seed the
+ * cost is the amount of tableau scans it makes instead, and the strategies moved to the front are drawn from the seed,
+ * so a run with the same seed plays every game the same way.
+ *
+ * A strategy can be pinned to keep its place when the others are put back in order. The order changes which moves are
+ * made as well as how long they take to find, and deal preparation fills the empty columns that the marriages would
+ * have used, so it is pinned to the end of a new pipeline. Since each strategy is measured without the strategies
+ * called from inside it, the seeded adaptive order has not found moves for fewer scans than the fixed order: with 1
+ * suit it wins as many games for more scans, and with 2 suits it wins fewer. A new pipeline is therefore not adaptive.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public class StrategyPipeline {
+
+    //How many turns go by between the strategies being put back in order when the pipeline is adaptive
+    private static final int REORDER_INTERVAL = 32;
+    //How much of its weight a call keeps every time the strategy is called again
+    private static final double DECAY = 0.98;
+    //The chance of a strategy being moved to the front when the strategies are put back in order
+    private static final double EXPLORATION = 0.05;
+    //A strategy that has not been called yet counts as making one move for one unit of cost, so it is tried early
+    private static final double PRIOR_HITS = 1.0;
+    private static final double PRIOR_COST = 1.0;
+
+    private Stage[] stages;
+
+    private boolean adaptive;
+    private boolean seeded;
+    private SplittableRandom random = new SplittableRandom();
+    private int turns;
+    //The strategy being called, or null between calls
+    private MoveStrategy current;
+    //What the calls made from inside the call being measured have cost so far, so it can be taken off that call
+    private long nestedTime;
+    private long nestedScans;
+    private int nestedMoves;
+    private int nestedDeals;
+
+    public StrategyPipeline(MoveStrategy... strategies) {
+
+        stages = new Stage[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+
+            if (strategies[i] == null) {
+                throw new IllegalArgumentException("Error! A pipeline cannot hold a null strategy.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (stages[j].strategy == strategies[i]) {
+                    throw new IllegalArgumentException("Error! " + strategies[i].getName() +
+                            " is in the pipeline more than once.");
+                }
+            }
+            stages[i] = new Stage(strategies[i]);
+        }
+    }
+
+    /**
+     * A constructor for a pipeline of the eight heuristics in their usual order, all enabled and with deal preparation
+     * pinned to the end.
+     *
+     */
+
+    public StrategyPipeline() {
+
+        this(Heuristic.values());
+        setPinned(Heuristic.PREP_DEAL, true);
+    }
+
+    /**
+     * A method for returning the strategies in the order they are tried, including any that are disabled.
+     *
+     * @return A new list of the strategies
+     */
+
+    public List<MoveStrategy> getStrategies() {
+
+        List<MoveStrategy> strategies = new ArrayList<>(stages.length);
+        for (Stage stage : stages) {
+            strategies.add(stage.strategy);
+        }
+        return strategies;
+    }
+
+    /**
+     * A method that changes the order the strategies are tried in. The new order must hold every strategy of the
+     * pipeline exactly once. The statistics and whether each strategy is enabled are kept.
+     *
+     * @param order The strategies of the pipeline in their new order
+     */
+
+    public void setOrder(MoveStrategy... order) {
+
+        if (order.length != stages.length) {
+            throw new IllegalArgumentException("Error! The order must hold all " + stages.length + " strategies.");
+        }
+
+        Stage[] reordered = new Stage[stages.length];
+        for (int i = 0; i < order.length; i++) {
+
+            Stage stage = find(order[i]);
+            for (int j = 0; j < i; j++) {
+                if (reordered[j] == stage) {
+                    throw new IllegalArgumentException("Error! " + order[i].getName() +
+                            " is in the order more than once.");
+                }
+            }
+            reordered[i] = stage;
+        }
+        stages = reordered;
+    }
+
+    /**
+     * A method for turning the adaptive order on or off. When it is turned off, the strategies stay in the order they
+     * were last put in.
+     *
+     * @param adaptive Whether the strategies are put back in order as the pipeline learns their costs
+     */
+
+    public void setAdaptive(boolean adaptive) {
+
+        this.adaptive = adaptive;
+    }
+
+    public boolean isAdaptive() {
+
+        return adaptive;
+    }
+
+    /**
+     * A method for setting the seed of the adaptive order, so that a run can be repeated. Once a pipeline has a seed,
+     * the cost of a call is counted in tableau scans instead of time.
+     *
+     * @param seed The seed the strategies to move to the front are drawn from
+     */
+
+    public void setSeed(long seed) {
+
+        this.seeded = true;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * A method for keeping a strategy in its place when the pipeline puts its strategies back in order.
+     *
+     * @param strategy A strategy of the pipeline
+     * @param pinned Whether the strategy keeps its place in the order
+     */
+
+    public void setPinned(MoveStrategy strategy, boolean pinned) {
+
+        find(strategy).pinned = pinned;
+    }
+
+    public boolean isPinned(MoveStrategy strategy) {
+
+        return find(strategy).pinned;
+    }
+
+    public void setEnabled(MoveStrategy strategy, boolean enabled) {
+
+        find(strategy).enabled = enabled;
+    }
+
+    public boolean isEnabled(MoveStrategy strategy) {
+
+        return find(strategy).enabled;
+    }
+
+    /**
+     * A method for returning how many times a strategy has been tried since the statistics were last reset.
+     *
+     * @param strategy A strategy of the pipeline
+     * @return The amount of calls
+     */
+
+    public long getCalls(MoveStrategy strategy) {
+
+        return find(strategy).calls;
+    }
+
+    /**
+     * A method for returning how many of a strategy's calls made a move.
+     *
+     * @param strategy A strategy of the pipeline
+     * @return The amount of calls that made a move
+     */
+
+    public long getHits(MoveStrategy strategy) {
+
+        return find(strategy).hits;
+    }
+
+    /**
+     * A method for returning how long a strategy has spent in its calls.
+     *
+     * @param strategy A strategy of the pipeline
+     * @return The total time in nanoseconds
+     */
+
+    public long getTime(MoveStrategy strategy) {
+
+        return find(strategy).time;
+    }
+
+    /**
+     * A method for returning how many tableau scans a strategy has made in its calls.
+     *
+     * @param strategy A strategy of the pipeline
+     * @return The amount of scans
+     */
+
+    public long getScans(MoveStrategy strategy) {
+
+        return find(strategy).scans;
+    }
+
+    /**
+     * A method for returning the strategy that is being called, so that a move can be traced back to the strategy
+     * that asked for it.
+     *
+     * @return The strategy being called, the innermost if one was called from inside another, or null if none is
+     */
+
+    public MoveStrategy getCurrentStrategy() {
+
+        return current;
+    }
+
+    /**
+     * A method that resets the statistics of every strategy, along with what the adaptive order has learned about
+     * them.
+     *
+     */
+
+    public void resetStatistics() {
+
+        for (Stage stage : stages) {
+            stage.calls = 0;
+            stage.hits = 0;
+            stage.time = 0;
+            stage.scans = 0;
+            stage.recentHits = 0;
+            stage.recentCost = 0;
+        }
+        turns = 0;
+    }
+
+    /**
+     * A method that tries the enabled strategies in order until one of them makes a move.
+     *
+     * @param algorithm The algorithm playing the game
+     * @return Returns true if a strategy made a move
+     * @throws InterruptedException If the thread is interrupted whilst playing
+     */
+
+    public boolean apply(SortingAlgorithm algorithm) throws InterruptedException {
+
+        if (adaptive && ++turns % REORDER_INTERVAL == 0) {
+            reorder();
+        }
+
+        for (Stage stage : stages) {
+
+            if (stage.enabled && call(stage.strategy, stage, algorithm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A method that calls a strategy from inside the call of another, for the moves that have to be made whatever the
+     * pipeline holds, such as filling the empty columns before a deal. The call is counted as one of the strategy's
+     * own, and its time, scans, moves and deals are taken off the call it was made from, so every strategy is only
+     * measured for its own work.
+     *
+     * @param strategy The strategy to call, which does not need to be in the pipeline
+     * @param algorithm The algorithm playing the game
+     * @return Returns true if the strategy made a move
+     * @throws InterruptedException If the thread is interrupted whilst playing
+     */
+
+    boolean applyNested(MoveStrategy strategy, SortingAlgorithm algorithm) throws InterruptedException {
+
+        return call(strategy, stageOf(strategy), algorithm);
+    }
+
+    private boolean call(MoveStrategy strategy, Stage stage, SortingAlgorithm algorithm) throws InterruptedException {
+
+        SpiderSolitaire game = algorithm.getGame();
+        HeuristicMetrics metrics = HeuristicMetrics.get(game.getSuitMode(), strategy.getName());
+        //The cost of the calls made from inside this one is kept apart from that of the call this one was made from
+        long outerTime = nestedTime;
+        long outerScans = nestedScans;
+        int outerMoves = nestedMoves;
+        int outerDeals = nestedDeals;
+        nestedTime = 0;
+        nestedScans = 0;
+        nestedMoves = 0;
+        nestedDeals = 0;
+
+        boolean moved = false;
+        MoveStrategy caller = current;
+        int startMoves = game.getMoveLog().size();
+        int startStock = game.getBoard().getStockCount();
+        long startScans = algorithm.getScanCount();
+        long startTime = System.nanoTime();
+        current = strategy;
+        try {
+            moved = strategy.apply(algorithm);
+        }
+        finally {
+            current = caller;
+            long time = System.nanoTime() - startTime;
+            long scans = algorithm.getScanCount() - startScans;
+            int deals = startStock - game.getBoard().getStockCount();
+            int moves = game.getMoveLog().size() - startMoves - deals;
+            if (metrics != null) {
+                metrics.record(moved, time - nestedTime, moves - nestedMoves, deals - nestedDeals);
+            }
+            if (stage != null) {
+                stage.record(moved, time - nestedTime, scans - nestedScans, seeded);
+            }
+            nestedTime = outerTime + time;
+            nestedScans = outerScans + scans;
+            nestedMoves = outerMoves + moves;
+            nestedDeals = outerDeals + deals;
+        }
+        return moved;
+    }
+
+    /**
+     * A method that puts the strategies in falling order of their recent moves per unit of cost, then moves one of
+     * them to the front now and then. The sort is stable, so strategies that are equally good keep their order.
+     */
+
+    private void reorder() {
+
+        for (Stage stage : stages) {
+            stage.priority = (stage.recentHits + PRIOR_HITS) / (stage.recentCost + PRIOR_COST);
+        }
+
+        //Only the strategies that are not pinned are sorted, into the places they already hold
+        int[] places = new int[stages.length];
+        int count = 0;
+        for (int i = 0; i < stages.length; i++) {
+            if (!stages[i].pinned) {
+                places[count++] = i;
+            }
+        }
+
+        for (int i = 1; i < count; i++) {
+
+            Stage stage = stages[places[i]];
+            int j = i - 1;
+            while (j >= 0 && stages[places[j]].priority < stage.priority) {
+                stages[places[j + 1]] = stages[places[j]];
+                j--;
+            }
+            stages[places[j + 1]] = stage;
+        }
+
+        if (count > 1 && random.nextDouble() < EXPLORATION) {
+
+            int chosen = random.nextInt(count);
+            Stage stage = stages[places[chosen]];
+            for (int i = chosen; i > 0; i--) {
+                stages[places[i]] = stages[places[i - 1]];
+            }
+            stages[places[0]] = stage;
+        }
+    }
+
+    private Stage find(MoveStrategy strategy) {
+
+        Stage stage = stageOf(strategy);
+        if (stage == null) {
+            throw new IllegalArgumentException("Error! " + (strategy == null ? null : strategy.getName()) +
+                    " is not in the pipeline.");
+        }
+        return stage;
+    }
+
+    private Stage stageOf(MoveStrategy strategy) {
+
+        for (Stage stage : stages) {
+            if (stage.strategy == strategy) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A method that lists every strategy in order with its statistics, one strategy to a line.
+     *
+     * @return The statistics of the pipeline
+     */
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : stages) {
+            builder.append(String.format("%-34s %-8s %10d calls %10d hits %10d scans %10.1fms %8.1fus/call%n",
+                    stage.strategy.getName(), stage.enabled ? "" : "disabled", stage.calls, stage.hits, stage.scans,
+                    stage.time / 1e6, stage.calls == 0 ? 0.0 : stage.time / 1e3 / stage.calls));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A strategy in the pipeline, with whether it is enabled and its statistics.
+     */
+
+    private static final class Stage {
+
+        private final MoveStrategy strategy;
+        private boolean enabled = true;
+        private boolean pinned;
+        private long calls;
+        private long hits;
+        private long time;
+        private long scans;
+
+        //The recent moves and cost, weighted towards the latest calls, and the priority worked out from them
+        private double recentHits;
+        private double recentCost;
+        private double priority;
+
+        Stage(MoveStrategy strategy) {
+
+            this.strategy = strategy;
+        }
+
+        private void record(boolean moved, long time, long scans, boolean seeded) {
+
+            this.time += time;
+            this.scans += scans;
+            calls++;
+            if (moved) {
+                hits++;
+            }
+            recentHits = recentHits * DECAY + (moved ? 1 : 0);
+            recentCost = recentCost * DECAY + (seeded ? scans : time / 1000.0);
+        }
+    }
+}
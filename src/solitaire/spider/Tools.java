@@ -0,0 +1,472 @@
+package solitaire.spider;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * <h1>solitaire.spider.Tools</h1>
+ * This is a class for running the tools of the engine from the command line without the GUI. The first argument names
+ * the tool and the rest are passed on to it, so every tool is started from the one class:
+ *
+ * batch, plays a simulation and writes the result of every game (see BatchRunner)
+ * catalogue, writes a DealCatalogue file of numbered deals
+ * solve, solves numbered deals with the Solver
+ * parallel-solve, solves a numbered deal with the Solver and then the ParallelSolver and reports the speed-up
+ * pipeline, plays games with the sorting algorithm and reports the statistics of every strategy
+ * beam, plays games with the BeamSearchPlayer
+ * mcts, plays games with the MctsPlayer and reports how many rollouts were run a second
+ * sampling, plays games with the SamplingPlayer and reports how many samples were scored a second
+ * tune, finds the heuristic parameters that win the most games with the ParameterTuner
+ * estimate, estimates the win rate of a player, or compares two players, with the SequentialEstimator
+ *
+ * A tool run without enough arguments writes how it is used.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public final class Tools {
+
+    private Tools() {
+    }
+
+    /**
+     * A method for running a tool from the command line.
+     *
+     * @param args The name of the tool followed by its arguments
+     * @throws IOException If a file cannot be read or written
+     * @throws ParseException If the default settings of the flight recorder cannot be read
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+
+        if (args.length < 1) {
+            System.out.println("Usage: Tools <tool> [arguments]");
+            System.out.println("Tools: batch, catalogue, solve, parallel-solve, pipeline, beam, mcts, sampling, " +
+                    "tune, estimate");
+            return;
+        }
+
+        String[] toolArgs = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+
+            case "batch":
+                BatchRunner.main(toolArgs);
+                break;
+
+            case "catalogue":
+                catalogue(toolArgs);
+                break;
+
+            case "solve":
+                solve(toolArgs);
+                break;
+
+            case "parallel-solve":
+                parallelSolve(toolArgs);
+                break;
+
+            case "pipeline":
+                pipeline(toolArgs);
+                break;
+
+            case "beam":
+                beam(toolArgs);
+                break;
+
+            case "mcts":
+                mcts(toolArgs);
+                break;
+
+            case "sampling":
+                sampling(toolArgs);
+                break;
+
+            case "tune":
+                tune(toolArgs);
+                break;
+
+            case "estimate":
+                estimate(toolArgs);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Error! " + args[0] + " is not a known tool.");
+        }
+    }
+
+    /**
+     * A method for generating a catalogue file. The arguments are the file to write, the suit mode, the number of the
+     * first deal and the amount of deals.
+     *
+     * @param args The file, suit mode, first deal and deal count
+     * @throws IOException If the file cannot be written
+     */
+
+    private static void catalogue(String[] args) throws IOException {
+
+        if (args.length != 4) {
+            System.out.println("Usage: Tools catalogue <file> <suit mode> <first deal> <deal count>");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        DealCatalogue.write(Paths.get(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]));
+        System.out.println(args[3] + " deals written to " + args[0] + " in " +
+                (System.nanoTime() - startTime) / 1_000_000 + "ms.");
+    }
+
+    /**
+     * A method for solving numbered deals. The arguments are the suit mode, the number of the first deal, the amount of
+     * deals, optionally the node budget for each deal and optionally a memory limit in megabytes, in which case the
+     * positions are kept in an OffHeapTranspositionTable of that size.
+     *
+     * @param args The suit mode, first deal, deal count, node budget and table size
+     */
+
+    private static void solve(String[] args) {
+
+        if (args.length < 3) {
+            System.out.println("Usage: Tools solve <suit mode> <first deal> <deal count> [node budget] [table MB]");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int firstDeal = Integer.parseInt(args[1]);
+        int dealCount = Integer.parseInt(args[2]);
+        long nodeBudget = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        TranspositionTable table = args.length > 4 ? new OffHeapTranspositionTable(Long.parseLong(args[4]) << 20) :
+                new HashTranspositionTable();
+        Solver solver = new Solver(nodeBudget, table);
+
+        int[] statusCounts = new int[SolverResult.Status.values().length];
+        byte[] deck = new byte[Board.DECK_SIZE];
+        Board board = new Board();
+        for (int i = firstDeal; i < firstDeal + dealCount; i++) {
+
+            deal(board, deck, suitMode, i);
+            SolverResult result = solver.solve(board);
+            statusCounts[result.getStatus().ordinal()]++;
+            System.out.println("Deal " + i + ": " + result);
+            if (table instanceof OffHeapTranspositionTable) {
+                System.out.println("    Table: " + table);
+            }
+        }
+
+        for (SolverResult.Status status : SolverResult.Status.values()) {
+            System.out.println(status + ": " + statusCounts[status.ordinal()]);
+        }
+    }
+
+    /**
+     * A method for solving a numbered deal with the single-threaded Solver and then with the parallel solver, and
+     * reporting the speed-up. The arguments are the suit mode, the deal number, optionally the node budget and
+     * optionally the amount of threads.
+     *
+     * @param args The suit mode, deal number, node budget and amount of threads
+     */
+
+    private static void parallelSolve(String[] args) {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools parallel-solve <suit mode> <deal> [node budget] [threads]");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int deal = Integer.parseInt(args[1]);
+        long nodeBudget = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000;
+        int threadCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Board board = new Board();
+        deal(board, new byte[Board.DECK_SIZE], suitMode, deal);
+
+        //Both solvers are run once on a small budget first so neither is timed whilst the JIT compiler warms up
+        new Solver(Math.min(nodeBudget, 200_000)).solve(board);
+        new ParallelSolver(Math.min(nodeBudget, 200_000), threadCount).solve(board);
+
+        SolverResult sequential = new Solver(nodeBudget).solve(board);
+        System.out.println("1 thread: " + sequential);
+        SolverResult parallel = new ParallelSolver(nodeBudget, threadCount).solve(board);
+        System.out.println(threadCount + " threads: " + parallel);
+
+        System.out.println(String.format("Speed-up: %.2fx (%.0f nodes/s against %.0f nodes/s)",
+                (double) sequential.getElapsedTime() / Math.max(1, parallel.getElapsedTime()),
+                nodesPerSecond(parallel), nodesPerSecond(sequential)));
+    }
+
+    /**
+     * A method for playing games with the sorting algorithm and reporting the win rate, the speed and the statistics of
+     * every strategy. The arguments are the suit mode, the amount of games, optionally whether the order is adaptive
+     * and optionally the seed of the run, which also seeds the adaptive order. The games are played on one thread so
+     * that the statistics are those of a single pipeline.
+     *
+     * @param args The suit mode, game count, adaptive flag and seed
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void pipeline(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools pipeline <suit mode> <games> [adaptive] [seed]");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        StrategyPipeline pipeline = new StrategyPipeline();
+        pipeline.setAdaptive(args.length > 2 && Boolean.parseBoolean(args[2]));
+
+        SimulationRunner runner = new SimulationRunner(1);
+        runner.setPlayer(game -> {
+            SortingAlgorithm algorithm = game.getSortingAlgorithm();
+            algorithm.setPipeline(pipeline);
+            return algorithm;
+        });
+        if (args.length > 3) {
+            runner.run(suitMode, games, Long.parseLong(args[3]));
+        }
+        else {
+            runner.run(suitMode, games);
+        }
+
+        System.out.print(pipeline);
+        System.out.println((pipeline.isAdaptive() ? "Adaptive" : "Fixed") + " order: " + summary(runner, games));
+    }
+
+    /**
+     * A method for playing games with a beam search and reporting the win rate and speed. The arguments are the suit
+     * mode, the amount of games, optionally the beam width, optionally the depth and optionally the seed of the run.
+     *
+     * @param args The suit mode, game count, width, depth and seed
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void beam(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools beam <suit mode> <games> [width] [depth] [seed]");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : BeamSearchPlayer.DEFAULT_WIDTH;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : BeamSearchPlayer.DEFAULT_DEPTH;
+
+        SimulationRunner runner = new SimulationRunner();
+        runner.setPlayer(game -> new BeamSearchPlayer(game, width, depth));
+        if (args.length > 4) {
+            runner.run(suitMode, games, Long.parseLong(args[4]));
+        }
+        else {
+            runner.run(suitMode, games);
+        }
+
+        System.out.println(String.format("Width %d, depth %d: ", width, depth) + summary(runner, games));
+    }
+
+    /**
+     * A method for playing games with the tree search and reporting the win rate and how many rollouts were run a
+     * second. The arguments are the suit mode, the amount of games, optionally the rollouts for each move, optionally
+     * the amount of threads and optionally the seed of the first game.
+     *
+     * @param args The suit mode, game count, rollout budget, thread count and seed
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void mcts(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools mcts <suit mode> <games> [rollouts per move] [threads] [seed]");
+            return;
+        }
+
+        int games = Integer.parseInt(args[1]);
+        int rolloutBudget = args.length > 2 ? Integer.parseInt(args[2]) : MctsPlayer.DEFAULT_ROLLOUTS;
+        int threadCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(Integer.parseInt(args[0]));
+        MctsPlayer player = new MctsPlayer(game, rolloutBudget, threadCount);
+        int wins = play(game, player, games, seed);
+
+        System.out.println(String.format("%d rollouts a move on %d threads: %d/%d games won (%.1f%%), " +
+                "%.0f rollouts/s, %.1fms a move", rolloutBudget, threadCount, wins, games,
+                wins * 100.0 / Math.max(1, games), player.getRolloutsPerSecond(),
+                player.getSearchTime() / 1e6 / Math.max(1, player.getMovesChosen())));
+    }
+
+    /**
+     * A method for playing games without seeing the face down cards and reporting the win rate and how many samples
+     * were scored a second. The arguments are the suit mode, the amount of games, optionally the samples for each move,
+     * optionally the amount of threads and optionally the seed of the first game.
+     *
+     * @param args The suit mode, game count, sample count, thread count and seed
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void sampling(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools sampling <suit mode> <games> [samples per move] [threads] [seed]");
+            return;
+        }
+
+        int games = Integer.parseInt(args[1]);
+        int sampleCount = args.length > 2 ? Integer.parseInt(args[2]) : SamplingPlayer.DEFAULT_SAMPLES;
+        int threadCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        SpiderSolitaire game = new SpiderSolitaire();
+        game.setSuitMode(Integer.parseInt(args[0]));
+        SamplingPlayer player = new SamplingPlayer(game, sampleCount, threadCount);
+        int wins = play(game, player, games, seed);
+
+        System.out.println(String.format("%d samples a move on %d threads: %d/%d games won (%.1f%%), " +
+                "%.0f samples/s, %.1fms a move", sampleCount, threadCount, wins, games,
+                wins * 100.0 / Math.max(1, games), player.getSamplesPerSecond(),
+                player.getSampleTime() / 1e6 / Math.max(1, player.getMovesChosen())));
+    }
+
+    /**
+     * A method for tuning the parameters. The arguments are the suit mode, the amount of games each candidate plays,
+     * optionally the seed of the deals and optionally the amount of threads.
+     *
+     * @param args The suit mode, game count, seed and thread count
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void tune(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Tools tune <suit mode> <games> [seed] [threads]");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        SimulationRunner runner = args.length > 3 ? new SimulationRunner(Integer.parseInt(args[3])) :
+                new SimulationRunner();
+
+        ParameterTuner tuner = new ParameterTuner(runner, suitMode, games);
+        long startTime = System.nanoTime();
+        HeuristicParameters best = tuner.sweep(ParameterTuner.grid(), seed);
+        //The fresh deals start after the last deal of the sweep
+        ConfidenceInterval[] validation = tuner.validate(best, seed + games);
+        long elapsedTime = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.print(tuner.report());
+        System.out.println("Best: " + best);
+        System.out.println("On " + games + " fresh deals it won " + validation[0] + " of its games, a difference of " +
+                validation[1] + " to the defaults.");
+        System.out.println(String.format("Tuned over %d candidates with %d threads in %dms.",
+                tuner.getCandidateCount(), runner.getThreadCount(), elapsedTime));
+    }
+
+    /**
+     * A method for estimating the win rate of a player, or comparing two players. The arguments are the suit mode, the
+     * target width in percent, the first player, optionally the second player, optionally the most games and
+     * optionally the seed. A player is one of sorting, adaptive, beam, mcts or sampling.
+     *
+     * @param args The suit mode, target width, players, most games and seed
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static void estimate(String[] args) throws InterruptedException {
+
+        if (args.length < 3) {
+            System.out.println("Usage: Tools estimate <suit mode> <width %> <player> [other player|-] [max games] " +
+                    "[seed]");
+            System.out.println("Players: sorting, adaptive, beam, mcts, sampling");
+            return;
+        }
+
+        int suitMode = Integer.parseInt(args[0]);
+        double width = Double.parseDouble(args[1]) / 100;
+        Function<SpiderSolitaire, ? extends Player> first = SimulationRunner.player(args[2]);
+        Function<SpiderSolitaire, ? extends Player> second = args.length > 3 && !args[3].equals("-") ?
+                SimulationRunner.player(args[3]) : null;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : new SplittableRandom().nextLong();
+
+        SequentialEstimator estimator = new SequentialEstimator(new SimulationRunner(), suitMode);
+        if (args.length > 4) {
+            estimator.setMaxGames(Integer.parseInt(args[4]));
+        }
+
+        long startTime = System.nanoTime();
+        if (second == null) {
+            estimator.estimate(first, width, seed);
+            System.out.println(args[2] + " won " + estimator.getInterval() + " of its games.");
+        }
+        else {
+            estimator.compare(first, second, width, seed);
+            System.out.println(args[2] + " won " + estimator.getInterval() + " more games than " + args[3] + ".");
+        }
+        System.out.println(String.format("Stopped with %s after %d games in %dms.", estimator.getOutcome(),
+                estimator.getGamesPlayed(), (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    /**
+     * A method that deals a numbered deal of a catalogue onto a board, without a game.
+     *
+     * @param board The board to deal onto
+     * @param deck The deck to fill and shuffle, which is reused between deals
+     * @param suitMode The mode to be played (1, 2 or 4 suits)
+     * @param deal The number of the deal
+     */
+
+    private static void deal(Board board, byte[] deck, int suitMode, int deal) {
+
+        SpiderSolitaire.fillDeck(deck, suitMode);
+        SpiderSolitaire.shuffleDeck(deck, DealCatalogue.dealSeed(suitMode, deal));
+        board.deal(deck);
+    }
+
+    /**
+     * A method that plays games one after another with a player that searches on threads of its own, rather than
+     * spreading the games across the threads of a SimulationRunner.
+     *
+     * @param game The game the player was made with
+     * @param player The player
+     * @param games The amount of games to play
+     * @param seed The seed of the first game, which also seeds the player
+     * @return The amount of games won
+     * @throws InterruptedException If the games are interrupted
+     */
+
+    private static int play(SpiderSolitaire game, Player player, int games, long seed) throws InterruptedException {
+
+        player.setSeed(seed);
+        int wins = 0;
+        for (int i = 0; i < games; i++) {
+
+            game.dealGame(seed + i);
+            if (player.playGame()) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+
+    private static String summary(SimulationRunner runner, int games) {
+
+        return String.format("%d/%d games won (%.1f%%) in %dms, %.1f games/s", runner.getWinCount(), games,
+                runner.getWinCount() * 100.0 / Math.max(1, games), runner.getElapsedTime(),
+                games * 1000.0 / Math.max(1, runner.getElapsedTime()));
+    }
+
+    private static double nodesPerSecond(SolverResult result) {
+
+        return result.getNodes() * 1000.0 / Math.max(1, result.getElapsedTime());
+    }
+}
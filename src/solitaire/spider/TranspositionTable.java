@@ -0,0 +1,61 @@
+package solitaire.spider;
+
+/**
+ * <h1>solitaire.spider.TranspositionTable</h1>
+ * This is an interface for the table of positions a solver has already searched, keyed by the Zobrist hash of the
+ * board. A position only needs to be searched once, so a solver adds every position it reaches to the table and skips
+ * any position that is already there.
+ *
+ * @author Thomas Harwin
+ * @version 1.0
+ * @since 2018-07-06
+ */
+
+public interface TranspositionTable {
+
+    /**
+     * A method for adding a position to the table.
+     *
+     * @param hash The Zobrist hash of the position
+     * @return Returns true if the position was added and false if it was already in the table
+     */
+
+    boolean add(long hash);
+
+    /**
+     * A method for adding a position to the table along with how deep in the search it was reached. Tables that have
+     * to throw positions away can use the depth to keep the shallow positions, which have the most searched below them.
+     *
+     * @param hash The Zobrist hash of the position
+     * @param depth The depth of the position in the search
+     * @return Returns true if the position was added and false if it was already in the table
+     */
+
+    default boolean add(long hash, int depth) {
+
+        return add(hash);
+    }
+
+    /**
+     * A method for returning how many positions are held in the table.
+     *
+     * @return The amount of positions
+     */
+
+    long size();
+
+    /**
+     * A method for returning how much memory the table is using.
+     *
+     * @return The memory used in bytes
+     */
+
+    long memoryUsed();
+
+    /**
+     * A method that removes every position from the table.
+     *
+     */
+
+    void clear();
+}